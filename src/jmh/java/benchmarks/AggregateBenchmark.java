@@ -0,0 +1,135 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valuation aggregates computed by {@code GemstoneAggregates} over {@code GemstoneColumns}, with
+ * the Vector API kernels ({@code vector}) and the scalar fallback ({@code scalar}), against a plain
+ * loop calling the getters of every gemstone in a {@code MyList} ({@code MyList}).
+ *
+ * {@code GemstoneAggregates} lives in the unnamed package, so it is called through method handles
+ * bound once per trial; their cost is one call per aggregate, not per gemstone.
+ * Run with:
+ * <pre>
+ *     mvn -P benchmark clean package -DskipTests
+ *     java -jar target/benchmarks.jar AggregateBenchmark -rf json
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class AggregateBenchmark {
+
+    @Param({"vector", "scalar", "MyList"})
+    public String kernel;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private List<Gemstone> list;
+    private Object columns;
+    private MethodHandle sum;
+    private MethodHandle count;
+    private MethodHandle sumWhere;
+    private MethodHandle histogram;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        Gemstone[] gemstones = BenchmarkData.randomGemstones(size, 42);
+        list = BenchmarkData.newList("MyList", gemstones);
+        if (kernel.equals("MyList")) {
+            return;
+        }
+
+        Class<?> columnsClass = Class.forName("GemstoneColumns");
+        Class<?> aggregatesClass = Class.forName("GemstoneAggregates");
+        columns = columnsClass.getConstructor(java.util.Collection.class).newInstance(Arrays.asList(gemstones));
+        Object aggregates = aggregatesClass.getMethod(kernel.equals("vector") ? "create" : "scalar").invoke(null);
+        if (kernel.equals("vector") && !(boolean) aggregatesClass.getMethod("isVectorized").invoke(aggregates)) {
+            throw new IllegalStateException("jdk.incubator.vector is not available");
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        sum = bind(lookup, aggregatesClass, aggregates, "sum",
+                MethodType.methodType(double.class, columnsClass, GemstoneAttribute.class));
+        count = bind(lookup, aggregatesClass, aggregates, "count",
+                MethodType.methodType(int.class, columnsClass, GemstoneAttribute.class, double.class, double.class));
+        sumWhere = bind(lookup, aggregatesClass, aggregates, "sumWhere",
+                MethodType.methodType(double.class, columnsClass, GemstoneAttribute.class,
+                        GemstoneAttribute.class, double.class, double.class));
+        histogram = bind(lookup, aggregatesClass, aggregates, "histogram",
+                MethodType.methodType(int[].class, columnsClass, GemstoneAttribute.class,
+                        double.class, double.class, int.class));
+    }
+
+    private static MethodHandle bind(MethodHandles.Lookup lookup, Class<?> owner, Object receiver,
+                                     String name, MethodType type) throws ReflectiveOperationException {
+        MethodHandle handle = lookup.findVirtual(owner, name, type).bindTo(receiver);
+        return handle.asType(handle.type().changeParameterType(0, Object.class));
+    }
+
+    @Benchmark
+    public double sumPrice() throws Throwable {
+        if (sum == null) {
+            double total = 0;
+            for (Gemstone gemstone : list) {
+                total += gemstone.getPrice();
+            }
+            return total;
+        }
+        return (double) sum.invokeExact(columns, GemstoneAttribute.PRICE);
+    }
+
+    @Benchmark
+    public int countCheap() throws Throwable {
+        if (count == null) {
+            int total = 0;
+            for (Gemstone gemstone : list) {
+                if (gemstone.getPrice() >= 0 && gemstone.getPrice() <= 1_000) {
+                    ++total;
+                }
+            }
+            return total;
+        }
+        return (int) count.invokeExact(columns, GemstoneAttribute.PRICE, 0.0, 1_000.0);
+    }
+
+    @Benchmark
+    public double sumPriceOfClear() throws Throwable {
+        if (sumWhere == null) {
+            double total = 0;
+            for (Gemstone gemstone : list) {
+                if (gemstone.getTransparency() >= 0.8 && gemstone.getTransparency() <= 1) {
+                    total += gemstone.getPrice();
+                }
+            }
+            return total;
+        }
+        return (double) sumWhere.invokeExact(columns, GemstoneAttribute.PRICE,
+                GemstoneAttribute.TRANSPARENCY, 0.8, 1.0);
+    }
+
+    @Benchmark
+    public int[] transparencyHistogram() throws Throwable {
+        if (histogram == null) {
+            int[] counts = new int[10];
+            for (Gemstone gemstone : list) {
+                ++counts[Math.min((int) (gemstone.getTransparency() * 10), 9)];
+            }
+            return counts;
+        }
+        return (int[]) histogram.invokeExact(columns, GemstoneAttribute.TRANSPARENCY, 0.0, 1.0, 10);
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import gemstones.imp.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shared fixtures for the JMH benchmarks.
+ *
+ * JMH refuses benchmark classes in the unnamed package, while {@code MyList} and its
+ * siblings live there and therefore cannot be imported. Implementations are looked up
+ * by their simple class name instead and used through the {@code List<Gemstone>} contract.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates an empty list of the requested implementation.
+     *
+     * @param implementation {@code "ArrayList"} for the JDK baseline, otherwise the simple name
+     *                       of a {@code List<Gemstone>} class in the unnamed package (e.g. {@code "MyList"})
+     * @return a new, empty list
+     * @throws IllegalArgumentException if the implementation cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Gemstone> newList(String implementation) {
+        if (implementation.equals("ArrayList")) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return (List<Gemstone>) Class.forName(implementation).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unknown list implementation: " + implementation, e);
+        }
+    }
+
+    /**
+     * Creates a list of the requested implementation filled with the given gemstones.
+     *
+     * @param implementation see {@link #newList(String)}
+     * @param gemstones the gemstones to append, in order
+     * @return a new list containing {@code gemstones}
+     */
+    public static List<Gemstone> newList(String implementation, Gemstone[] gemstones) {
+        List<Gemstone> list = newList(implementation);
+        for (Gemstone gemstone : gemstones) {
+            list.add(gemstone);
+        }
+        return list;
+    }
+
+    /**
+     * Generates a reproducible mix of all six concrete gemstone types.
+     *
+     * @param size number of gemstones to generate
+     * @param seed random seed
+     * @return an array of {@code size} gemstones
+     */
+    public static Gemstone[] randomGemstones(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Gemstone[] gemstones = new Gemstone[size];
+        for (int i = 0; i < size; ++i) {
+            gemstones[i] = randomGemstone(random);
+        }
+        return gemstones;
+    }
+
+    /**
+     * Generates a single random gemstone.
+     *
+     * @param random source of randomness
+     * @return a gemstone of a random concrete type with valid attributes
+     */
+    public static Gemstone randomGemstone(SplittableRandom random) {
+        double weight = 0.1 + random.nextDouble(20);
+        double price = 1 + random.nextDouble(10_000);
+        double transparency = random.nextDouble();
+
+        return switch (random.nextInt(6)) {
+            case 0 -> new Agate(weight, price, transparency);
+            case 1 -> new Diamond(weight, price, transparency);
+            case 2 -> new Emerald(weight, price, transparency);
+            case 3 -> new Lazurite(weight, price, transparency);
+            case 4 -> new Opal(weight, price, transparency);
+            default -> new Rubin(weight, price, transparency);
+        };
+    }
+}
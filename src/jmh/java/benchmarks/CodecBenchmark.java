@@ -0,0 +1,134 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a list of gemstones with {@code GemstoneCodec} ({@code RAW} and {@code XOR}
+ * blocks) against JDK serialization ({@code JDK}). {@code Gemstone} is not {@code Serializable}, so
+ * the JDK baseline serializes what an ad-hoc converter would: the type codes and the three
+ * attributes as primitive arrays, recreating the gemstones from them when decoding.
+ *
+ * Run with:
+ * <pre>
+ *     mvn -P benchmark clean package -DskipTests
+ *     java -jar target/benchmarks.jar CodecBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    @Param({"RAW", "XOR", "JDK"})
+    public String format;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Gemstone> list;
+    private Object codec;
+    private MethodHandle encode;
+    private MethodHandle decode;
+    private ByteBuffer buffer;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        list = BenchmarkData.newList("MyList", BenchmarkData.randomGemstones(size, 42));
+        if (format.equals("JDK")) {
+            serialized = serialize();
+            return;
+        }
+
+        Class<?> codecClass = Class.forName("GemstoneCodec");
+        Class<?> encodingClass = Class.forName("GemstoneCodec$Encoding");
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Object encoding = Enum.valueOf((Class) encodingClass, format);
+        codec = codecClass.getConstructor(encodingClass).newInstance(encoding);
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        encode = lookup.findVirtual(codecClass, "encode", MethodType.methodType(void.class, List.class, ByteBuffer.class))
+                .bindTo(codec);
+        decode = lookup.findVirtual(codecClass, "decode", MethodType.methodType(int.class, ByteBuffer.class, Collection.class))
+                .bindTo(codec);
+
+        int maxSize = (int) codecClass.getMethod("maxEncodedSize", int.class).invoke(null, size);
+        buffer = ByteBuffer.allocateDirect(maxSize);
+        encode();
+    }
+
+    @Benchmark
+    public Object encode() throws Throwable {
+        if (encode == null) {
+            return serialize();
+        }
+        buffer.clear();
+        encode.invokeExact(list, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Object decode() throws Throwable {
+        if (decode == null) {
+            return deserialize();
+        }
+        buffer.flip();
+        List<Gemstone> decoded = BenchmarkData.newList("MyList");
+        if ((int) decode.invokeExact(buffer, (Collection<?>) decoded) != size) {
+            throw new IllegalStateException("Decoded " + decoded.size() + " of " + size + " gemstones");
+        }
+        buffer.position(buffer.limit());
+        return decoded;
+    }
+
+    private byte[] serialize() throws IOException {
+        byte[] types = new byte[list.size()];
+        double[] weights = new double[list.size()];
+        double[] prices = new double[list.size()];
+        double[] transparencies = new double[list.size()];
+        for (int i = 0; i < list.size(); ++i) {
+            Gemstone gemstone = list.get(i);
+            types[i] = GemstoneType.of(gemstone).code();
+            weights[i] = gemstone.getWeight();
+            prices[i] = gemstone.getPrice();
+            transparencies[i] = gemstone.getTransparency();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(types);
+            output.writeObject(weights);
+            output.writeObject(prices);
+            output.writeObject(transparencies);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<Gemstone> deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            byte[] types = (byte[]) input.readObject();
+            double[] weights = (double[]) input.readObject();
+            double[] prices = (double[]) input.readObject();
+            double[] transparencies = (double[]) input.readObject();
+            List<Gemstone> decoded = new ArrayList<>(types.length);
+            for (int i = 0; i < types.length; ++i) {
+                decoded.add(GemstoneType.fromCode(types[i]).create(weights[i], prices[i], transparencies[i]));
+            }
+            return decoded;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import gemstones.imp.Diamond;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded append and read throughput of {@code ConcurrentGemstoneList} against
+ * {@code Collections.synchronizedList(new MyList())}.
+ *
+ * All threads share one list, which is recreated before every iteration. {@code append}
+ * measures pure ingest; the {@code mixed} group runs one appending thread next to three
+ * threads calling {@code get} on random published indices. The thread count is set on the
+ * command line, so scaling is measured by repeating the run:
+ * <pre>
+ *     mvn -P benchmark clean package -DskipTests
+ *     for t in 1 2 4 8 16 32 64; do
+ *         java -jar target/benchmarks.jar ConcurrentListBenchmark.append -t $t -rf json -rff target/append-$t.json
+ *     done
+ *     java -jar target/benchmarks.jar ConcurrentListBenchmark.mixed -tg 1,3
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ConcurrentListBenchmark {
+
+    @Param({"ConcurrentGemstoneList", "SynchronizedMyList"})
+    public String implementation;
+
+    /** Elements in the list before every iteration, so readers always have data. */
+    private static final int INITIAL_SIZE = 1_000;
+
+    private List<Gemstone> list;
+    private Gemstone extra;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if (implementation.equals("SynchronizedMyList")) {
+            list = Collections.synchronizedList(BenchmarkData.newList("MyList"));
+        } else {
+            list = BenchmarkData.newList(implementation);
+        }
+        for (Gemstone gemstone : BenchmarkData.randomGemstones(INITIAL_SIZE, 42)) {
+            list.add(gemstone);
+        }
+        extra = new Diamond(1, 1, 1);
+    }
+
+    @Benchmark
+    public boolean append() {
+        return list.add(extra);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean mixedAppend() {
+        return list.add(extra);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Gemstone mixedGet() {
+        return list.get(ThreadLocalRandom.current().nextInt(INITIAL_SIZE));
+    }
+}
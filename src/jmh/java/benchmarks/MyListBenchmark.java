@@ -0,0 +1,174 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import gemstones.imp.Diamond;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every {@code MyList} operation against {@code TieredGemstoneList} and
+ * {@code java.util.ArrayList<Gemstone>}.
+ *
+ * Mutating benchmarks pair the measured operation with its inverse (e.g. {@code add(mid, g)}
+ * followed by {@code remove(mid)}), so the list keeps its size across invocations and
+ * {@code -prof gc} reports only what the measured code allocates. {@code removeAll} and
+ * {@code retainAll} cannot be undone cheaply and rebuild the list before every invocation;
+ * their allocation figures include that rebuild.
+ *
+ * Run with:
+ * <pre>
+ *     mvn -P benchmark clean package -DskipTests
+ *     java -jar target/benchmarks.jar MyListBenchmark -prof gc -rf json
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class MyListBenchmark {
+
+    @Param({"MyList", "TieredGemstoneList", "ArrayList"})
+    public String implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    /** Number of elements touched by the bulk operations. */
+    private static final int BULK_SIZE = 100;
+
+    /** Largest window requested from {@code subList}. */
+    private static final int WINDOW_SIZE = 10_000;
+
+    private Gemstone[] gemstones;
+    private List<Gemstone> list;
+    private Gemstone present;
+    private Gemstone absent;
+    private Gemstone extra;
+    private List<Gemstone> batch;
+    private int middle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gemstones = BenchmarkData.randomGemstones(size, 42);
+        list = BenchmarkData.newList(implementation, gemstones);
+        middle = size / 2;
+        present = gemstones[middle];
+        absent = new Diamond(1_000, 1, 1);
+        extra = BenchmarkData.randomGemstone(new SplittableRandom(7));
+        batch = Arrays.asList(BenchmarkData.randomGemstones(BULK_SIZE, 13));
+    }
+
+    /**
+     * State for {@code removeAll}/{@code retainAll}, rebuilt before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class BulkState {
+        List<Gemstone> list;
+        Set<Gemstone> toRemove;
+        Set<Gemstone> toRetain;
+
+        @Setup(Level.Invocation)
+        public void setUp(MyListBenchmark benchmark) {
+            Gemstone[] gemstones = benchmark.gemstones;
+            list = BenchmarkData.newList(benchmark.implementation, gemstones);
+
+            int bulk = Math.max(1, Math.min(BULK_SIZE, gemstones.length / 10));
+            int step = gemstones.length / bulk;
+            toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < bulk; ++i) {
+                toRemove.add(gemstones[i * step]);
+            }
+
+            toRetain = Collections.newSetFromMap(new IdentityHashMap<>());
+            Collections.addAll(toRetain, gemstones);
+            toRetain.removeAll(toRemove);
+        }
+    }
+
+    @Benchmark
+    public boolean add() {
+        boolean added = list.add(extra);
+        list.remove(size);
+        return added;
+    }
+
+    @Benchmark
+    public Gemstone addAtIndex() {
+        list.add(middle, extra);
+        return list.remove(middle);
+    }
+
+    @Benchmark
+    public boolean addAllAtIndex() {
+        boolean changed = list.addAll(middle, batch);
+        for (int i = 0; i < BULK_SIZE; ++i) {
+            list.remove(middle);
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public Gemstone removeAtIndex() {
+        Gemstone removed = list.remove(middle);
+        list.add(middle, removed);
+        return removed;
+    }
+
+    @Benchmark
+    public boolean removeObject() {
+        boolean removed = list.remove(present);
+        list.add(middle, present);
+        return removed;
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return list.contains(present);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return list.contains(absent);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(present);
+    }
+
+    @Benchmark
+    public boolean removeAll(BulkState state) {
+        return state.list.removeAll(state.toRemove);
+    }
+
+    @Benchmark
+    public boolean retainAll(BulkState state) {
+        return state.list.retainAll(state.toRetain);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Gemstone gemstone : list) {
+            blackhole.consume(gemstone);
+        }
+    }
+
+    @Benchmark
+    public double parallelStreamSum() {
+        return list.parallelStream().mapToDouble(Gemstone::getPrice).sum();
+    }
+
+    @Benchmark
+    public void subList(Blackhole blackhole) {
+        int from = Math.max(0, middle - WINDOW_SIZE / 2);
+        int to = Math.min(size, from + WINDOW_SIZE);
+        for (Gemstone gemstone : list.subList(from, to)) {
+            blackhole.consume(gemstone);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.GemstoneValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pricing loop that derives a discounted stone from every gemstone and sums its total price,
+ * once through a new mutable gemstone ({@code mutable}) and once through {@link GemstoneValue}
+ * ({@code value}). The values do not escape the loop body, so with {@code -prof gc} the
+ * {@code value} loop should report close to zero bytes allocated per operation. Run with:
+ * <pre>
+ *     mvn -P benchmark clean package -DskipTests
+ *     java -jar target/benchmarks.jar PricingBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class PricingBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    private Gemstone[] gemstones;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gemstones = BenchmarkData.randomGemstones(size, 42);
+    }
+
+    @Benchmark
+    public double mutable() {
+        double total = 0;
+        for (Gemstone gemstone : gemstones) {
+            Gemstone discounted = GemstoneType.of(gemstone)
+                    .create(gemstone.getWeight(), gemstone.getPrice() * 0.9, gemstone.getTransparency());
+            total += discounted.getPrice() * discounted.getWeight();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double value() {
+        double total = 0;
+        for (Gemstone gemstone : gemstones) {
+            GemstoneValue discounted = gemstone.toValue().withPrice(gemstone.getPrice() * 0.9);
+            total += discounted.price() * discounted.weight();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Dashboard queries over a {@code MyList}: the 100 most valuable gemstones and the median
+ * price per carat, answered by copying and sorting the whole list ({@code sortedCopy*}) against
+ * {@code GemstoneTopK} ({@code topK}) and {@code QuantileSketch} ({@code sketchMedian}). Run with:
+ * <pre>
+ *     mvn -P benchmark clean package -DskipTests
+ *     java -jar target/benchmarks.jar RankingBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class RankingBenchmark {
+
+    private static final int K = 100;
+
+    private static final ToDoubleFunction<Gemstone> VALUE = gemstone -> gemstone.getPrice() * gemstone.getWeight();
+
+    private static final ToDoubleFunction<Gemstone> PRICE_PER_CARAT = gemstone -> gemstone.getPrice() / gemstone.getWeight();
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private List<Gemstone> list;
+    private MethodHandle topK;
+    private Collector<Gemstone, ?, ?> sketch;
+    private MethodHandle quantile;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Throwable {
+        list = BenchmarkData.newList("MyList", BenchmarkData.randomGemstones(size, 42));
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        topK = lookup.findStatic(Class.forName("GemstoneTopK"), "of",
+                MethodType.methodType(List.class, Collection.class, int.class, ToDoubleFunction.class));
+        Class<?> sketchClass = Class.forName("QuantileSketch");
+        sketch = (Collector<Gemstone, ?, ?>) lookup.findStatic(sketchClass, "collector",
+                MethodType.methodType(Collector.class, ToDoubleFunction.class)).invoke(PRICE_PER_CARAT);
+        quantile = lookup.findVirtual(sketchClass, "quantile", MethodType.methodType(double.class, double.class));
+    }
+
+    @Benchmark
+    public List<Gemstone> sortedCopyTopK() {
+        Gemstone[] gemstones = list.toArray(new Gemstone[0]);
+        Arrays.sort(gemstones, Comparator.comparingDouble(VALUE).reversed());
+        return Arrays.asList(gemstones).subList(0, K);
+    }
+
+    @Benchmark
+    public Object topK() throws Throwable {
+        return topK.invoke(list, K, VALUE);
+    }
+
+    @Benchmark
+    public double sortedCopyMedian() {
+        double[] values = new double[list.size()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = PRICE_PER_CARAT.applyAsDouble(list.get(i));
+        }
+        Arrays.sort(values);
+        return values[(values.length - 1) / 2];
+    }
+
+    @Benchmark
+    public double sketchMedian() throws Throwable {
+        return (double) quantile.invoke(list.parallelStream().collect(sketch), 0.5);
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.GemstoneType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting a {@code MyList} by price ({@code price}) and by type then price ({@code typeThenPrice})
+ * with {@code List.sort} and a comparator ({@code comparator}) against the radix sort of
+ * {@code GemstoneSorter} ({@code radix}). The list is refilled in its original order before every
+ * invocation. Run with:
+ * <pre>
+ *     mvn -P benchmark clean package -DskipTests
+ *     java -jar target/benchmarks.jar SortBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"price", "typeThenPrice"})
+    public String keys;
+
+    @Param({"comparator", "radix"})
+    public String engine;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Gemstone[] gemstones;
+    private List<Gemstone> list;
+    private Comparator<Gemstone> comparator;
+    private MethodHandle sortBy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        gemstones = BenchmarkData.randomGemstones(size, 42);
+        list = BenchmarkData.newList("MyList", gemstones);
+
+        Class<?> sorterClass = Class.forName("GemstoneSorter");
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Object sorter = lookup.findStatic(sorterClass, "by", MethodType.methodType(sorterClass, GemstoneAttribute.class))
+                .invoke(GemstoneAttribute.PRICE);
+        if (keys.equals("typeThenPrice")) {
+            sorter = lookup.findStatic(sorterClass, "byType", MethodType.methodType(sorterClass)).invoke();
+            sorter = lookup.findVirtual(sorterClass, "thenBy", MethodType.methodType(sorterClass, GemstoneAttribute.class))
+                    .invoke(sorter, GemstoneAttribute.PRICE);
+        }
+        comparator = keys.equals("price")
+                ? Comparator.comparingDouble(Gemstone::getPrice)
+                : Comparator.<Gemstone, GemstoneType>comparing(GemstoneType::of).thenComparingDouble(Gemstone::getPrice);
+        sortBy = lookup.findVirtual(list.getClass(), "sortBy", MethodType.methodType(void.class, sorterClass))
+                .bindTo(list).bindTo(sorter);
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        for (int i = 0; i < size; ++i) {
+            list.set(i, gemstones[i]);
+        }
+    }
+
+    @Benchmark
+    public List<Gemstone> sort() throws Throwable {
+        if (engine.equals("radix")) {
+            sortBy.invokeExact();
+        } else {
+            list.sort(comparator);
+        }
+        return list;
+    }
+}
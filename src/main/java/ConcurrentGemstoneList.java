@@ -0,0 +1,318 @@
+import gemstones.Gemstone;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The {@code ConcurrentGemstoneList} class is an append-only list of gemstones that many
+ * threads can fill at the same time without locking. A thread appends by reserving the next
+ * slot index with a compare-and-set and then publishing the gemstone into that slot.
+ *
+ * The slots live in chunks whose sizes double ({@value #FIRST_CHUNK_SIZE}, 64, 128, ...).
+ * A chunk is allocated only by the thread that reserved its first slot, right after reserving
+ * it; threads that reserved later slots of the chunk wait for it to appear. A chunk is never
+ * copied or moved, so growing the list costs no global reallocation and published elements
+ * never go stale.
+ *
+ * {@link #size()} is the length of the prefix of slots that are already published: a slot
+ * reserved by a thread that has not written it yet hides the slots after it until it is
+ * written. {@link #get(int)} and the iterators read published slots without locking or
+ * retrying; iterators are weakly consistent and also return elements appended while they run.
+ * A reserved slot is never given up: if an append fails after reserving, which can only happen
+ * when allocating a chunk throws {@link OutOfMemoryError}, {@code size()} stays at that slot and
+ * appends into that chunk wait forever, so the list must be discarded after such an error.
+ *
+ * The class implements the {@code List<Gemstone>} interface, but only appending and
+ * {@link #set(int, Gemstone)} are supported; removals throw {@link UnsupportedOperationException}.
+ * Null elements are not supported.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     ConcurrentGemstoneList gemstones = new ConcurrentGemstoneList();
+ *     // from any number of ingest threads:
+ *     gemstones.add(new Diamond(1, 1, 1));
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ */
+public class ConcurrentGemstoneList extends AbstractList<Gemstone> implements RandomAccess {
+
+    /**
+     * Size of the first chunk; every following chunk is twice as large as the previous one.
+     */
+    private static final int FIRST_CHUNK_SIZE = 32;
+
+    /**
+     * {@code log2(FIRST_CHUNK_SIZE)}.
+     */
+    private static final int FIRST_CHUNK_SHIFT = Integer.numberOfTrailingZeros(FIRST_CHUNK_SIZE);
+
+    /**
+     * The maximum number of elements, chosen so that {@code index + FIRST_CHUNK_SIZE} does not overflow.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - FIRST_CHUNK_SIZE;
+
+    /**
+     * The number of chunks needed to hold {@link #MAX_CAPACITY} elements.
+     */
+    private static final int MAX_CHUNKS = chunkOf(MAX_CAPACITY - 1) + 1;
+
+    /**
+     * Directory of the chunks; an entry stays {@code null} until the thread that reserved its first slot allocates it.
+     */
+    private final AtomicReferenceArray<AtomicReferenceArray<Gemstone>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+    /**
+     * The number of reserved slots.
+     */
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    /**
+     * A lower bound of the number of leading published slots.
+     */
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * The {@code ConcurrentIterator} class is an implementation of the
+     * {@code Iterator<Gemstone>} interface that reads published slots directly.
+     */
+    private class ConcurrentIterator implements Iterator<Gemstone> {
+        private int cursor = 0;
+        private int bound = 0;
+
+        /**
+         * Returns {@code true} if a published element follows the cursor.
+         *
+         * @return {@code true} if there are more elements to iterate over
+         */
+        @Override
+        public boolean hasNext() {
+            if (cursor < bound) {
+                return true;
+            }
+            bound = size();
+            return cursor < bound;
+        }
+
+        /**
+         * Returns the next gemstone in the iteration.
+         *
+         * @return the next gemstone in the list
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public Gemstone next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return slot(cursor++);
+        }
+    }
+
+    /**
+     * Constructs an empty list. Only the chunk directory is allocated up front.
+     */
+    public ConcurrentGemstoneList() {
+    }
+
+    /**
+     * Constructs a list containing all gemstones from the specified collection.
+     *
+     * @param gemstones the collection of gemstones to be added
+     * @throws NullPointerException if the collection or any of its elements is null
+     */
+    public ConcurrentGemstoneList(Collection<? extends Gemstone> gemstones) {
+        addAll(gemstones);
+    }
+
+    /**
+     * Returns the number of leading published elements. Slots published after a slot that
+     * is still being written are not counted until that slot is written.
+     *
+     * @return the number of elements visible to {@link #get(int)}
+     */
+    @Override
+    public int size() {
+        int size = published.get();
+        int limit = reserved.get();
+        while (size < limit && slot(size) != null) {
+            ++size;
+        }
+
+        int current = published.get();
+        while (current < size && !published.compareAndSet(current, size)) {
+            current = published.get();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the published element at the specified position.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone get(int index) {
+        if (index < 0 || index >= reserved.get()) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        Gemstone gemstone = slot(index);
+        if (gemstone == null) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return gemstone;
+    }
+
+    /**
+     * Replaces the published element at the specified position.
+     *
+     * @param index index of the element to replace
+     * @param element element to be stored at the specified position
+     * @return the element previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the element is null
+     */
+    @Override
+    public Gemstone set(int index, Gemstone element) {
+        Objects.requireNonNull(element);
+        get(index);
+        return chunks.get(chunkOf(index)).getAndSet(offsetOf(index), element);
+    }
+
+    /**
+     * Appends the specified element, reserving its slot with a compare-and-set.
+     *
+     * @param element element to be appended to this list
+     * @return {@code true}
+     * @throws NullPointerException if the element is null
+     * @throws OutOfMemoryError if the list is full
+     */
+    @Override
+    public boolean add(Gemstone element) {
+        Objects.requireNonNull(element);
+        publish(reserve(1), element);
+        return true;
+    }
+
+    /**
+     * Appends all elements of the specified collection into consecutive slots reserved
+     * with a single compare-and-set.
+     *
+     * @param c collection containing elements to be added to this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the collection or any of its elements is null
+     * @throws OutOfMemoryError if the list is full
+     */
+    @Override
+    public boolean addAll(Collection<? extends Gemstone> c) {
+        Object[] elementsToAdd = c.toArray();
+        for (Object element : elementsToAdd) {
+            Objects.requireNonNull(element);
+        }
+        if (elementsToAdd.length == 0) {
+            return false;
+        }
+
+        int first = reserve(elementsToAdd.length);
+        for (int i = 0; i < elementsToAdd.length; ++i) {
+            publish(first + i, (Gemstone) elementsToAdd[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the published elements.
+     *
+     * @return an iterator over the elements in this list in proper sequence
+     */
+    @Override
+    public Iterator<Gemstone> iterator() {
+        return new ConcurrentIterator();
+    }
+
+    /**
+     * Reserves consecutive slots and allocates every chunk whose first slot is among them,
+     * so that each chunk is allocated exactly once.
+     *
+     * @param amount the number of slots to reserve
+     * @return the index of the first reserved slot
+     * @throws OutOfMemoryError if the list cannot hold the reserved slots
+     */
+    private int reserve(int amount) {
+        int first;
+        do {
+            first = reserved.get();
+            if (amount > MAX_CAPACITY - first) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+        } while (!reserved.compareAndSet(first, first + amount));
+
+        int chunk = offsetOf(first) == 0 ? chunkOf(first) : chunkOf(first) + 1;
+        for (; chunk < MAX_CHUNKS && chunkStart(chunk) - first < amount; ++chunk) {
+            chunks.set(chunk, new AtomicReferenceArray<>(FIRST_CHUNK_SIZE << chunk));
+        }
+        return first;
+    }
+
+    /**
+     * Writes an element into a reserved slot, waiting for the thread that reserved the first
+     * slot of its chunk to allocate the chunk.
+     *
+     * @param index the reserved slot
+     * @param element the element to publish
+     */
+    private void publish(int index, Gemstone element) {
+        int chunk = chunkOf(index);
+        AtomicReferenceArray<Gemstone> slots;
+        while ((slots = chunks.get(chunk)) == null) {
+            Thread.onSpinWait();
+        }
+        slots.set(offsetOf(index), element);
+    }
+
+    /**
+     * Reads a slot.
+     *
+     * @param index index of a reserved slot
+     * @return the element in the slot, or {@code null} if it is not published yet
+     */
+    private Gemstone slot(int index) {
+        AtomicReferenceArray<Gemstone> slots = chunks.get(chunkOf(index));
+        return slots == null ? null : slots.get(offsetOf(index));
+    }
+
+    /**
+     * Returns the chunk that holds the specified index.
+     *
+     * @param index an index of the list
+     * @return the position of the chunk in the directory
+     */
+    private static int chunkOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index + FIRST_CHUNK_SIZE) - FIRST_CHUNK_SHIFT;
+    }
+
+    /**
+     * Returns the index of the first slot of the specified chunk.
+     *
+     * @param chunk the position of a chunk in the directory
+     * @return the index of its first slot
+     */
+    private static int chunkStart(int chunk) {
+        return (FIRST_CHUNK_SIZE << chunk) - FIRST_CHUNK_SIZE;
+    }
+
+    /**
+     * Returns the position of the specified index inside its chunk.
+     *
+     * @param index an index of the list
+     * @return the offset of the index in its chunk
+     */
+    private static int offsetOf(int index) {
+        return index + FIRST_CHUNK_SIZE - Integer.highestOneBit(index + FIRST_CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,384 @@
+import gemstones.GemstoneAttribute;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Objects;
+
+/**
+ * The {@code GemstoneAggregates} class computes valuation aggregates (sums, extremes, means,
+ * price per carat, filtered counts and sums, histograms) directly over the primitive columns
+ * of a {@link GemstoneColumns}, without creating or calling into {@code Gemstone} objects.
+ *
+ * When the {@code jdk.incubator.vector} module is available (the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}), {@link #create()} returns aggregates whose kernels
+ * process {@code DoubleVector.SPECIES_PREFERRED} lanes per instruction, with predicates evaluated
+ * as lane masks. Otherwise it returns the same aggregates computed by scalar loops, which
+ * {@link #scalar()} also returns unconditionally. The two may differ in the last bits of a sum,
+ * because the vector kernels add the values in a different order.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     GemstoneAggregates aggregates = GemstoneAggregates.create();
+ *     GemstoneColumns gemstones = new GemstoneColumns(myList);
+ *     double total = aggregates.sum(gemstones, GemstoneAttribute.PRICE);
+ *     double clearValue = aggregates.sumWhere(gemstones, GemstoneAttribute.PRICE,
+ *             GemstoneAttribute.TRANSPARENCY, 0.8, 1);
+ * </pre>
+ * </p>
+ *
+ * @see GemstoneColumns
+ * @see GemstoneAttribute
+ */
+public final class GemstoneAggregates {
+
+    /**
+     * The kernels that the aggregates are computed with.
+     */
+    private interface Kernels {
+        double sum(double[] values, int length);
+
+        double min(double[] values, int length);
+
+        double max(double[] values, int length);
+
+        int count(double[] values, int length, double lo, double hi);
+
+        double sumWhere(double[] values, double[] filter, int length, double lo, double hi);
+
+        void histogram(double[] values, int length, double lo, double hi, int[] counts);
+    }
+
+    /**
+     * Kernels that process one value per iteration.
+     */
+    private static final class ScalarKernels implements Kernels {
+        @Override
+        public double sum(double[] values, int length) {
+            double sum = 0;
+            for (int i = 0; i < length; ++i) {
+                sum += values[i];
+            }
+            return sum;
+        }
+
+        @Override
+        public double min(double[] values, int length) {
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < length; ++i) {
+                min = Math.min(min, values[i]);
+            }
+            return min;
+        }
+
+        @Override
+        public double max(double[] values, int length) {
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < length; ++i) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+
+        @Override
+        public int count(double[] values, int length, double lo, double hi) {
+            int count = 0;
+            for (int i = 0; i < length; ++i) {
+                if (values[i] >= lo && values[i] <= hi) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public double sumWhere(double[] values, double[] filter, int length, double lo, double hi) {
+            double sum = 0;
+            for (int i = 0; i < length; ++i) {
+                if (filter[i] >= lo && filter[i] <= hi) {
+                    sum += values[i];
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        public void histogram(double[] values, int length, double lo, double hi, int[] counts) {
+            double scale = counts.length / (hi - lo);
+            for (int i = 0; i < length; ++i) {
+                if (values[i] >= lo && values[i] <= hi) {
+                    ++counts[Math.min((int) ((values[i] - lo) * scale), counts.length - 1)];
+                }
+            }
+        }
+    }
+
+    /**
+     * Kernels that process {@code SPECIES.length()} values per iteration with the Vector API.
+     * This class is only loaded when the {@code jdk.incubator.vector} module is present.
+     */
+    private static final class VectorKernels implements Kernels {
+        private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+        @Override
+        public double sum(double[] values, int length) {
+            DoubleVector sums = DoubleVector.zero(SPECIES);
+            int i = 0;
+            for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+                sums = sums.add(DoubleVector.fromArray(SPECIES, values, i));
+            }
+            double sum = sums.reduceLanes(VectorOperators.ADD);
+            for (; i < length; ++i) {
+                sum += values[i];
+            }
+            return sum;
+        }
+
+        @Override
+        public double min(double[] values, int length) {
+            DoubleVector mins = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+            int i = 0;
+            for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+                mins = mins.min(DoubleVector.fromArray(SPECIES, values, i));
+            }
+            double min = mins.reduceLanes(VectorOperators.MIN);
+            for (; i < length; ++i) {
+                min = Math.min(min, values[i]);
+            }
+            return min;
+        }
+
+        @Override
+        public double max(double[] values, int length) {
+            DoubleVector maxes = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+            int i = 0;
+            for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+                maxes = maxes.max(DoubleVector.fromArray(SPECIES, values, i));
+            }
+            double max = maxes.reduceLanes(VectorOperators.MAX);
+            for (; i < length; ++i) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+
+        @Override
+        public int count(double[] values, int length, double lo, double hi) {
+            int count = 0;
+            int i = 0;
+            for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+                count += inRange(DoubleVector.fromArray(SPECIES, values, i), lo, hi).trueCount();
+            }
+            for (; i < length; ++i) {
+                if (values[i] >= lo && values[i] <= hi) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public double sumWhere(double[] values, double[] filter, int length, double lo, double hi) {
+            DoubleVector zero = DoubleVector.zero(SPECIES);
+            DoubleVector sums = zero;
+            int i = 0;
+            for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+                VectorMask<Double> mask = inRange(DoubleVector.fromArray(SPECIES, filter, i), lo, hi);
+                sums = sums.add(zero.blend(DoubleVector.fromArray(SPECIES, values, i), mask));
+            }
+            double sum = sums.reduceLanes(VectorOperators.ADD);
+            for (; i < length; ++i) {
+                if (filter[i] >= lo && filter[i] <= hi) {
+                    sum += values[i];
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        public void histogram(double[] values, int length, double lo, double hi, int[] counts) {
+            double scale = counts.length / (hi - lo);
+            double lastBin = counts.length - 1;
+            double[] bins = new double[SPECIES.length()];
+            int i = 0;
+            for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+                DoubleVector vector = DoubleVector.fromArray(SPECIES, values, i);
+                VectorMask<Double> mask = inRange(vector, lo, hi);
+                if (!mask.anyTrue()) {
+                    continue;
+                }
+                vector.sub(lo).mul(scale).min(lastBin).intoArray(bins, 0);
+                for (int lane = 0; lane < bins.length; ++lane) {
+                    if (mask.laneIsSet(lane)) {
+                        ++counts[(int) bins[lane]];
+                    }
+                }
+            }
+            for (; i < length; ++i) {
+                if (values[i] >= lo && values[i] <= hi) {
+                    ++counts[Math.min((int) ((values[i] - lo) * scale), counts.length - 1)];
+                }
+            }
+        }
+
+        private static VectorMask<Double> inRange(DoubleVector vector, double lo, double hi) {
+            return vector.compare(VectorOperators.GE, lo).and(vector.compare(VectorOperators.LE, hi));
+        }
+    }
+
+    /**
+     * Aggregates computed by scalar loops.
+     */
+    private static final GemstoneAggregates SCALAR = new GemstoneAggregates(new ScalarKernels());
+
+    /**
+     * The kernels used by this instance.
+     */
+    private final Kernels kernels;
+
+    private GemstoneAggregates(Kernels kernels) {
+        this.kernels = kernels;
+    }
+
+    /**
+     * Returns aggregates computed with the Vector API if the {@code jdk.incubator.vector}
+     * module is available, and with scalar loops otherwise.
+     *
+     * @return the fastest available aggregates
+     */
+    public static GemstoneAggregates create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return new GemstoneAggregates(new VectorKernels());
+        }
+        return SCALAR;
+    }
+
+    /**
+     * Returns aggregates computed with scalar loops.
+     *
+     * @return the scalar aggregates
+     */
+    public static GemstoneAggregates scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns {@code true} if these aggregates are computed with the Vector API.
+     *
+     * @return {@code true} for vectorized aggregates
+     */
+    public boolean isVectorized() {
+        return !(kernels instanceof ScalarKernels);
+    }
+
+    /**
+     * Returns the sum of an attribute over all gemstones.
+     *
+     * @param gemstones the gemstones
+     * @param attribute the attribute to sum
+     * @return the sum, or {@code 0} if there are no gemstones
+     */
+    public double sum(GemstoneColumns gemstones, GemstoneAttribute attribute) {
+        return kernels.sum(gemstones.column(attribute), gemstones.size());
+    }
+
+    /**
+     * Returns the smallest value of an attribute.
+     *
+     * @param gemstones the gemstones
+     * @param attribute the attribute
+     * @return the smallest value, or {@link Double#NaN} if there are no gemstones
+     */
+    public double min(GemstoneColumns gemstones, GemstoneAttribute attribute) {
+        return gemstones.isEmpty() ? Double.NaN : kernels.min(gemstones.column(attribute), gemstones.size());
+    }
+
+    /**
+     * Returns the largest value of an attribute.
+     *
+     * @param gemstones the gemstones
+     * @param attribute the attribute
+     * @return the largest value, or {@link Double#NaN} if there are no gemstones
+     */
+    public double max(GemstoneColumns gemstones, GemstoneAttribute attribute) {
+        return gemstones.isEmpty() ? Double.NaN : kernels.max(gemstones.column(attribute), gemstones.size());
+    }
+
+    /**
+     * Returns the mean value of an attribute.
+     *
+     * @param gemstones the gemstones
+     * @param attribute the attribute
+     * @return the mean value, or {@link Double#NaN} if there are no gemstones
+     */
+    public double mean(GemstoneColumns gemstones, GemstoneAttribute attribute) {
+        return sum(gemstones, attribute) / gemstones.size();
+    }
+
+    /**
+     * Returns the total price divided by the total weight of all gemstones.
+     *
+     * @param gemstones the gemstones
+     * @return the average price per carat, or {@link Double#NaN} if there are no gemstones
+     */
+    public double pricePerCarat(GemstoneColumns gemstones) {
+        return sum(gemstones, GemstoneAttribute.PRICE) / sum(gemstones, GemstoneAttribute.WEIGHT);
+    }
+
+    /**
+     * Returns the number of gemstones whose attribute lies in the closed range {@code [lo, hi]}.
+     *
+     * @param gemstones the gemstones
+     * @param attribute the attribute to filter by
+     * @param lo the lower bound, inclusive
+     * @param hi the upper bound, inclusive
+     * @return the number of matching gemstones
+     */
+    public int count(GemstoneColumns gemstones, GemstoneAttribute attribute, double lo, double hi) {
+        return kernels.count(gemstones.column(attribute), gemstones.size(), lo, hi);
+    }
+
+    /**
+     * Returns the sum of an attribute over the gemstones whose filter attribute lies in the
+     * closed range {@code [lo, hi]}, e.g. the value of all stones with transparency at least 0.8.
+     *
+     * @param gemstones the gemstones
+     * @param attribute the attribute to sum
+     * @param filter the attribute to filter by
+     * @param lo the lower bound of the filter attribute, inclusive
+     * @param hi the upper bound of the filter attribute, inclusive
+     * @return the sum over the matching gemstones
+     */
+    public double sumWhere(GemstoneColumns gemstones, GemstoneAttribute attribute,
+                           GemstoneAttribute filter, double lo, double hi) {
+        return kernels.sumWhere(gemstones.column(attribute), gemstones.column(Objects.requireNonNull(filter)),
+                gemstones.size(), lo, hi);
+    }
+
+    /**
+     * Counts the gemstones whose attribute lies in each of {@code bins} equal-width bins
+     * covering the closed range {@code [lo, hi]}. A value equal to {@code hi} falls into the
+     * last bin; values outside the range are not counted.
+     *
+     * @param gemstones the gemstones
+     * @param attribute the attribute
+     * @param lo the lower bound of the first bin
+     * @param hi the upper bound of the last bin
+     * @param bins the number of bins
+     * @return the number of gemstones in every bin
+     * @throws IllegalArgumentException if the number of bins is not positive or {@code lo >= hi}
+     */
+    public int[] histogram(GemstoneColumns gemstones, GemstoneAttribute attribute, double lo, double hi, int bins) {
+        if (bins <= 0) {
+            throw new IllegalArgumentException("Invalid number of bins");
+        }
+        if (!(lo < hi)) {
+            throw new IllegalArgumentException("Invalid range");
+        }
+        int[] counts = new int[bins];
+        kernels.histogram(gemstones.column(attribute), gemstones.size(), lo, hi, counts);
+        return counts;
+    }
+}
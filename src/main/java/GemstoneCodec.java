@@ -0,0 +1,406 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code GemstoneCodec} class encodes gemstones and lists of gemstones into a compact binary
+ * format in a caller-supplied {@link ByteBuffer}, and decodes them back. Encoding allocates nothing;
+ * decoding allocates only the gemstones it returns.
+ *
+ * A single gemstone is its {@link GemstoneType} code as an unsigned varint, followed by its weight,
+ * price and transparency as raw {@code double}s: 25 bytes.
+ *
+ * A list is a sequence of blocks of at most {@value #BLOCK_SIZE} gemstones, terminated by an empty
+ * block. Every block is framed as
+ * <pre>
+ *     varint count | byte encoding | int payload length | payload | int CRC32C of the payload
+ * </pre>
+ * With {@link Encoding#RAW} the payload is the single-gemstone encoding of every gemstone. With
+ * {@link Encoding#XOR} every {@code double} is XOR-ed with the same attribute of the previous
+ * gemstone of the block, and only the bytes between the leading and trailing zero bytes of the
+ * result are written after a header byte; repeated values take one byte, and round prices or
+ * weights close to their predecessor take a few.
+ *
+ * Multi-byte values are always written big-endian, whatever the {@link ByteOrder} of the buffer;
+ * the order of the buffer is switched for the call and restored afterwards.
+ *
+ * Decoding validates the frame, the checksum and the attribute ranges, and throws an
+ * {@link IllegalArgumentException} for corrupted input. Running out of input throws a
+ * {@link BufferUnderflowException}, and running out of room while encoding throws a
+ * {@link java.nio.BufferOverflowException}; {@link #maxEncodedSize(int)} gives a sufficient size.
+ *
+ * A codec reuses its checksum state and is not thread-safe.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     GemstoneCodec codec = new GemstoneCodec(GemstoneCodec.Encoding.XOR);
+ *     ByteBuffer buffer = ByteBuffer.allocate(GemstoneCodec.maxEncodedSize(myList.size()));
+ *     codec.encode(myList, buffer);
+ *     buffer.flip();
+ *     MyList copy = new MyList();
+ *     codec.decode(buffer, copy);
+ * </pre>
+ * </p>
+ *
+ * @see GemstoneType
+ */
+public class GemstoneCodec {
+
+    /**
+     * Maximum number of gemstones in a block.
+     */
+    public static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Maximum size of an XOR-encoded gemstone: a tag, then a header byte and up to 8 bytes per attribute.
+     */
+    private static final int MAX_XOR_GEMSTONE_SIZE = 1 + 3 * (1 + Double.BYTES);
+
+    /**
+     * Maximum size of a block frame without its payload.
+     */
+    private static final int MAX_FRAME_SIZE = 5 + 1 + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * XOR header of an attribute equal to the previous one.
+     */
+    private static final int SAME_VALUE = 0x80;
+
+    /**
+     * Encodings of the gemstones in a block.
+     */
+    public enum Encoding {
+        RAW,
+        XOR
+    }
+
+    /**
+     * The encoding used for the blocks written by this codec.
+     */
+    private final Encoding encoding;
+
+    /**
+     * The checksum of block payloads, reset for every block.
+     */
+    private final CRC32C checksum = new CRC32C();
+
+    /**
+     * Constructs a codec that writes XOR-encoded blocks.
+     */
+    public GemstoneCodec() {
+        this(Encoding.XOR);
+    }
+
+    /**
+     * Constructs a codec that writes blocks with the specified encoding. Blocks of either encoding can be decoded.
+     *
+     * @param encoding the encoding of the written blocks
+     * @throws NullPointerException if the encoding is null
+     */
+    public GemstoneCodec(Encoding encoding) {
+        this.encoding = Objects.requireNonNull(encoding);
+    }
+
+    /**
+     * Returns a buffer size sufficient to encode a list of the specified size with any encoding.
+     *
+     * @param size the number of gemstones
+     * @return the maximum size of the encoded list, in bytes
+     */
+    public static int maxEncodedSize(int size) {
+        long blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long bytes = blocks * MAX_FRAME_SIZE + (long) size * MAX_XOR_GEMSTONE_SIZE + 1;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Writes a single gemstone at the position of the buffer.
+     *
+     * @param gemstone the gemstone to encode
+     * @param buffer the buffer to write to
+     * @throws IllegalArgumentException if the gemstone is not of a known class
+     * @throws NullPointerException if the gemstone is null
+     * @throws java.nio.BufferOverflowException if the buffer has less than 25 bytes remaining
+     */
+    public static void encode(Gemstone gemstone, ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        try {
+            putGemstone(buffer, gemstone);
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    /**
+     * Reads a single gemstone from the position of the buffer.
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded gemstone
+     * @throws IllegalArgumentException if the type code or an attribute is invalid
+     * @throws BufferUnderflowException if the buffer ends before the gemstone
+     */
+    public static Gemstone decode(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        try {
+            return getGemstone(buffer);
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    /**
+     * Writes a list of gemstones at the position of the buffer, in blocks of this codec's encoding.
+     *
+     * @param gemstones the gemstones to encode
+     * @param buffer the buffer to write to
+     * @throws IllegalArgumentException if a gemstone is not of a known class
+     * @throws NullPointerException if the list or any of its gemstones is null
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void encode(List<? extends Gemstone> gemstones, ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        try {
+            encodeBlocks(gemstones, buffer);
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    private void encodeBlocks(List<? extends Gemstone> gemstones, ByteBuffer buffer) {
+        int size = gemstones.size();
+        for (int from = 0; from < size; from += BLOCK_SIZE) {
+            int to = Math.min(size, from + BLOCK_SIZE);
+            putVarint(buffer, to - from);
+            buffer.put((byte) encoding.ordinal());
+            int lengthPosition = buffer.position();
+            buffer.putInt(0);
+
+            int payloadStart = buffer.position();
+            if (encoding == Encoding.RAW) {
+                for (int i = from; i < to; ++i) {
+                    putGemstone(buffer, gemstones.get(i));
+                }
+            } else {
+                encodeXor(gemstones, from, to, buffer);
+            }
+            int payloadEnd = buffer.position();
+
+            buffer.putInt(lengthPosition, payloadEnd - payloadStart);
+            buffer.putInt(checksum(buffer, payloadStart, payloadEnd));
+        }
+        putVarint(buffer, 0);
+    }
+
+    /**
+     * Reads a list of gemstones written by {@link #encode(List, ByteBuffer)} from the position of the
+     * buffer and appends them to the target. The buffer is left after the terminating block.
+     *
+     * @param buffer the buffer to read from
+     * @param target the collection to append the gemstones to
+     * @return the number of decoded gemstones
+     * @throws IllegalArgumentException if a frame, a checksum or a gemstone is invalid
+     * @throws BufferUnderflowException if the buffer ends before the terminating block
+     */
+    public int decode(ByteBuffer buffer, Collection<? super Gemstone> target) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        try {
+            return decodeBlocks(buffer, target);
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    private int decodeBlocks(ByteBuffer buffer, Collection<? super Gemstone> target) {
+        int limit = buffer.limit();
+        int decoded = 0;
+        while (true) {
+            int count = getVarint(buffer);
+            if (count == 0) {
+                return decoded;
+            }
+            if (count < 0 || count > BLOCK_SIZE) {
+                throw new IllegalArgumentException("Invalid block size: " + count);
+            }
+            int encodingOrdinal = buffer.get();
+            if (encodingOrdinal < 0 || encodingOrdinal >= Encoding.values().length) {
+                throw new IllegalArgumentException("Invalid block encoding: " + encodingOrdinal);
+            }
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining() - Integer.BYTES) {
+                throw new BufferUnderflowException();
+            }
+
+            int payloadStart = buffer.position();
+            int payloadEnd = payloadStart + length;
+            if (checksum(buffer, payloadStart, payloadEnd) != buffer.getInt(payloadEnd)) {
+                throw new IllegalArgumentException("Checksum mismatch");
+            }
+            if (target instanceof MyList list) {
+                list.ensureCapacity(list.size() + count);
+            }
+
+            ByteBuffer payload = buffer.limit(payloadEnd);
+            try {
+                if (encodingOrdinal == Encoding.RAW.ordinal()) {
+                    for (int i = 0; i < count; ++i) {
+                        target.add(getGemstone(payload));
+                    }
+                } else {
+                    decodeXor(payload, count, target);
+                }
+                if (payload.hasRemaining()) {
+                    throw new IllegalArgumentException("Invalid block length");
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Invalid block length", e);
+            } finally {
+                buffer.limit(limit);
+            }
+            buffer.position(payloadEnd + Integer.BYTES);
+            decoded += count;
+        }
+    }
+
+    private static void putGemstone(ByteBuffer buffer, Gemstone gemstone) {
+        putVarint(buffer, GemstoneType.of(gemstone).code());
+        buffer.putDouble(gemstone.getWeight());
+        buffer.putDouble(gemstone.getPrice());
+        buffer.putDouble(gemstone.getTransparency());
+    }
+
+    private static Gemstone getGemstone(ByteBuffer buffer) {
+        GemstoneType type = GemstoneType.fromCode(getVarint(buffer));
+        return type.create(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static void encodeXor(List<? extends Gemstone> gemstones, int from, int to, ByteBuffer buffer) {
+        long weight = 0;
+        long price = 0;
+        long transparency = 0;
+        for (int i = from; i < to; ++i) {
+            Gemstone gemstone = gemstones.get(i);
+            putVarint(buffer, GemstoneType.of(gemstone).code());
+            long bits = Double.doubleToRawLongBits(gemstone.getWeight());
+            putXor(buffer, bits ^ weight);
+            weight = bits;
+            bits = Double.doubleToRawLongBits(gemstone.getPrice());
+            putXor(buffer, bits ^ price);
+            price = bits;
+            bits = Double.doubleToRawLongBits(gemstone.getTransparency());
+            putXor(buffer, bits ^ transparency);
+            transparency = bits;
+        }
+    }
+
+    private static void decodeXor(ByteBuffer buffer, int count, Collection<? super Gemstone> target) {
+        long weight = 0;
+        long price = 0;
+        long transparency = 0;
+        for (int i = 0; i < count; ++i) {
+            GemstoneType type = GemstoneType.fromCode(getVarint(buffer));
+            weight ^= getXor(buffer);
+            price ^= getXor(buffer);
+            transparency ^= getXor(buffer);
+            target.add(type.create(Double.longBitsToDouble(weight), Double.longBitsToDouble(price),
+                    Double.longBitsToDouble(transparency)));
+        }
+    }
+
+    /**
+     * Writes an XOR of two attributes: a header byte with the number of leading zero bytes in its
+     * high nibble and of trailing zero bytes in its low nibble, followed by the bytes between them,
+     * most significant first. Zero is written as the single header {@link #SAME_VALUE}.
+     */
+    private static void putXor(ByteBuffer buffer, long xor) {
+        if (xor == 0) {
+            buffer.put((byte) SAME_VALUE);
+            return;
+        }
+        int leading = Long.numberOfLeadingZeros(xor) >>> 3;
+        int trailing = Long.numberOfTrailingZeros(xor) >>> 3;
+        int length = Long.BYTES - leading - trailing;
+        buffer.put((byte) (leading << 4 | trailing));
+        if (buffer.remaining() >= Long.BYTES) {
+            int position = buffer.position();
+            buffer.putLong(xor << leading * 8);
+            buffer.position(position + length);
+        } else {
+            for (int shift = (7 - leading) * 8; shift >= trailing * 8; shift -= 8) {
+                buffer.put((byte) (xor >>> shift));
+            }
+        }
+    }
+
+    private static long getXor(ByteBuffer buffer) {
+        int header = buffer.get() & 0xFF;
+        if (header == SAME_VALUE) {
+            return 0;
+        }
+        int leading = header >>> 4;
+        int trailing = header & 0x0F;
+        if (leading + trailing >= Long.BYTES) {
+            throw new IllegalArgumentException("Invalid attribute header");
+        }
+        int length = Long.BYTES - leading - trailing;
+        long xor;
+        if (buffer.remaining() >= Long.BYTES) {
+            int position = buffer.position();
+            xor = buffer.getLong(position) >>> (Long.BYTES - length) * 8;
+            buffer.position(position + length);
+        } else {
+            xor = 0;
+            for (int i = 0; i < length; ++i) {
+                xor = xor << 8 | (buffer.get() & 0xFF);
+            }
+        }
+        return xor << trailing * 8;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid varint");
+    }
+
+    /**
+     * Returns the CRC32C of a range of the buffer without moving its position.
+     */
+    private int checksum(ByteBuffer buffer, int start, int end) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        checksum.reset();
+        buffer.limit(end).position(start);
+        checksum.update(buffer);
+        buffer.limit(limit).position(position);
+        return (int) checksum.getValue();
+    }
+}
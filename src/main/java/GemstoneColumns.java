@@ -0,0 +1,398 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.GemstoneType;
+import gemstones.GemstoneValue;
+
+import java.util.*;
+
+/**
+ * The {@code GemstoneColumns} class stores gemstones as parallel primitive columns:
+ * one {@code double[]} each for weight, price and transparency, and a {@code byte[]}
+ * holding the {@link GemstoneType} code of every stone. Scans over a single attribute,
+ * through {@link #weightAt(int)}, {@link #priceAt(int)} and {@link #transparencyAt(int)},
+ * touch only one contiguous array and no {@code Gemstone} objects.
+ *
+ * The class implements the {@code List<Gemstone>} interface. {@link #get(int)} creates
+ * a gemstone of the stored type from the column values; it is a detached copy, so calling
+ * its setters does not change the list. Use {@link #set(int, Gemstone)} to write back.
+ * Null elements are not supported.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     GemstoneColumns gemstones = new GemstoneColumns(myList);
+ *     double total = 0;
+ *     for (int i = 0; i &lt; gemstones.size(); ++i) {
+ *         total += gemstones.priceAt(i);
+ *     }
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ * @see GemstoneType
+ */
+public class GemstoneColumns extends AbstractList<Gemstone> implements RandomAccess {
+
+    /**
+     * Default initial capacity of the columns.
+     */
+    private static final int DEFAULT_MAX_SIZE = 15;
+
+    /**
+     * Weights of the gemstones, in carats.
+     */
+    private double[] weights;
+
+    /**
+     * Prices of the gemstones.
+     */
+    private double[] prices;
+
+    /**
+     * Transparencies of the gemstones.
+     */
+    private double[] transparencies;
+
+    /**
+     * {@link GemstoneType} codes of the gemstones.
+     */
+    private byte[] types;
+
+    /**
+     * The number of gemstones currently in the columns.
+     */
+    private int currentAmountOfElements = 0;
+
+    /**
+     * The policy that decides the new capacity when resizing is required.
+     */
+    private final GrowthPolicy growthPolicy;
+
+    /**
+     * Constructs empty columns with the default initial capacity.
+     */
+    public GemstoneColumns() {
+        this(DEFAULT_MAX_SIZE, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    /**
+     * Constructs empty columns with the specified initial capacity and growth policy.
+     *
+     * @param initialCapacity the initial capacity of the columns
+     * @param growthPolicy the policy used to grow the columns
+     * @throws IllegalArgumentException if the initial capacity is negative
+     * @throws NullPointerException if the growth policy is null
+     */
+    public GemstoneColumns(int initialCapacity, GrowthPolicy growthPolicy) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        this.growthPolicy = Objects.requireNonNull(growthPolicy);
+        weights = new double[initialCapacity];
+        prices = new double[initialCapacity];
+        transparencies = new double[initialCapacity];
+        types = new byte[initialCapacity];
+    }
+
+    /**
+     * Constructs columns containing all gemstones from the specified collection.
+     *
+     * @param gemstones the collection of gemstones to be added
+     * @throws NullPointerException if the collection or any of its elements is null
+     */
+    public GemstoneColumns(Collection<? extends Gemstone> gemstones) {
+        this(gemstones.size(), GrowthPolicy.ONE_AND_A_HALF);
+        addAll(gemstones);
+    }
+
+    /**
+     * Returns the weight of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the weight of the gemstone in carats
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double weightAt(int index) {
+        checkIndex(index);
+        return weights[index];
+    }
+
+    /**
+     * Returns the price of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the price of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double priceAt(int index) {
+        checkIndex(index);
+        return prices[index];
+    }
+
+    /**
+     * Returns the transparency of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the transparency of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double transparencyAt(int index) {
+        checkIndex(index);
+        return transparencies[index];
+    }
+
+    /**
+     * Returns the type of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the type of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public GemstoneType typeAt(int index) {
+        checkIndex(index);
+        return GemstoneType.fromCode(types[index]);
+    }
+
+    /**
+     * Returns the values stored at the specified position as an immutable value. Unlike
+     * {@link #get(int)}, no {@code Gemstone} is created, and a value that does not escape
+     * the caller can be scalar-replaced by the JIT.
+     *
+     * @param index index of the gemstone
+     * @return the value of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public GemstoneValue valueAt(int index) {
+        checkIndex(index);
+        return new GemstoneValue(GemstoneType.fromCode(types[index]), weights[index], prices[index], transparencies[index]);
+    }
+
+    /**
+     * Replaces the values at the specified position with those of the specified value.
+     *
+     * @param index index of the gemstone to replace
+     * @param value the value to be stored
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the value is null
+     */
+    public void setValue(int index, GemstoneValue value) {
+        checkIndex(index);
+        store(index, value);
+    }
+
+    /**
+     * Appends the values of the specified value to the end of the columns.
+     *
+     * @param value the value to be appended
+     * @throws NullPointerException if the value is null
+     */
+    public void addValue(GemstoneValue value) {
+        Objects.requireNonNull(value);
+        ensureCapacity(currentAmountOfElements + 1);
+        store(currentAmountOfElements, value);
+        ++currentAmountOfElements;
+        ++modCount;
+    }
+
+    /**
+     * Returns the number of gemstones in the columns.
+     *
+     * @return the number of gemstones
+     */
+    @Override
+    public int size() {
+        return currentAmountOfElements;
+    }
+
+    /**
+     * Creates a gemstone from the values stored at the specified position.
+     *
+     * @param index index of the gemstone to return
+     * @return a new gemstone equal to the one stored at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone get(int index) {
+        checkIndex(index);
+        return GemstoneType.fromCode(types[index]).create(weights[index], prices[index], transparencies[index]);
+    }
+
+    /**
+     * Replaces the values at the specified position with those of the specified gemstone.
+     *
+     * @param index index of the gemstone to replace
+     * @param element gemstone whose values are to be stored
+     * @return a gemstone equal to the one previously stored at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the gemstone is null
+     */
+    @Override
+    public Gemstone set(int index, Gemstone element) {
+        Gemstone previous = get(index);
+        store(index, element);
+        return previous;
+    }
+
+    /**
+     * Inserts the values of the specified gemstone at the specified position, shifting
+     * subsequent gemstones to the right.
+     *
+     * @param index index at which the gemstone is to be inserted
+     * @param element gemstone to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     * @throws NullPointerException if the gemstone is null
+     */
+    @Override
+    public void add(int index, Gemstone element) {
+        if (index < 0 || index > currentAmountOfElements) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + currentAmountOfElements);
+        }
+        GemstoneType type = GemstoneType.of(element);
+
+        ensureCapacity(currentAmountOfElements + 1);
+        shift(index, index + 1, currentAmountOfElements - index);
+        store(index, type, element);
+        ++currentAmountOfElements;
+        ++modCount;
+    }
+
+    /**
+     * Appends all gemstones of the specified collection, growing the columns at most once.
+     *
+     * @param c collection containing gemstones to be added
+     * @return {@code true} if the columns changed as a result of the call
+     * @throws NullPointerException if the collection or any of its elements is null
+     */
+    @Override
+    public boolean addAll(Collection<? extends Gemstone> c) {
+        ensureCapacity(currentAmountOfElements + c.size());
+        return super.addAll(c);
+    }
+
+    /**
+     * Removes the gemstone at the specified position, shifting subsequent gemstones to the left.
+     *
+     * @param index the index of the gemstone to be removed
+     * @return a gemstone equal to the removed one
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone remove(int index) {
+        Gemstone removed = get(index);
+        shift(index + 1, index, currentAmountOfElements - index - 1);
+        --currentAmountOfElements;
+        ++modCount;
+        return removed;
+    }
+
+    /**
+     * Removes all gemstones. The capacity of the columns is kept.
+     */
+    @Override
+    public void clear() {
+        currentAmountOfElements = 0;
+        ++modCount;
+    }
+
+    /**
+     * Increases the capacity of the columns, if necessary, so that they can hold at least
+     * the specified number of gemstones without reallocating.
+     *
+     * @param minCapacity the desired minimum capacity
+     * @throws OutOfMemoryError if {@code minCapacity} exceeds the maximum array size
+     */
+    public void ensureCapacity(int minCapacity) {
+        int currentMaxSize = weights.length;
+        if (minCapacity <= currentMaxSize) {
+            return;
+        }
+        if (minCapacity > GrowthPolicy.MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+
+        int newMaxSize = Math.max(minCapacity, growthPolicy.newCapacity(currentMaxSize, minCapacity));
+        weights = Arrays.copyOf(weights, newMaxSize);
+        prices = Arrays.copyOf(prices, newMaxSize);
+        transparencies = Arrays.copyOf(transparencies, newMaxSize);
+        types = Arrays.copyOf(types, newMaxSize);
+    }
+
+    /**
+     * Writes the values of the gemstone into every column at the specified position.
+     *
+     * @param index position to write to
+     * @param element the gemstone
+     */
+    private void store(int index, Gemstone element) {
+        store(index, GemstoneType.of(element), element);
+    }
+
+    /**
+     * Writes an immutable value into every column at the specified position.
+     *
+     * @param index position to write to
+     * @param value the value
+     */
+    private void store(int index, GemstoneValue value) {
+        weights[index] = value.weight();
+        prices[index] = value.price();
+        transparencies[index] = value.transparency();
+        types[index] = value.type().code();
+    }
+
+    /**
+     * Writes the values of the gemstone into every column at the specified position.
+     *
+     * @param index position to write to
+     * @param type the type of the gemstone
+     * @param element the gemstone
+     */
+    private void store(int index, GemstoneType type, Gemstone element) {
+        weights[index] = element.getWeight();
+        prices[index] = element.getPrice();
+        transparencies[index] = element.getTransparency();
+        types[index] = type.code();
+    }
+
+    /**
+     * Returns the backing array of the column of the specified attribute. Only the first
+     * {@link #size()} entries are valid, and the array is replaced when the columns grow.
+     *
+     * @param attribute the attribute
+     * @return the backing array of its column
+     */
+    double[] column(GemstoneAttribute attribute) {
+        return switch (attribute) {
+            case WEIGHT -> weights;
+            case PRICE -> prices;
+            case TRANSPARENCY -> transparencies;
+        };
+    }
+
+    /**
+     * Moves a range of rows inside every column.
+     *
+     * @param from first row to move
+     * @param to destination of the first row
+     * @param length number of rows to move
+     */
+    private void shift(int from, int to, int length) {
+        System.arraycopy(weights, from, weights, to, length);
+        System.arraycopy(prices, from, prices, to, length);
+        System.arraycopy(transparencies, from, transparencies, to, length);
+        System.arraycopy(types, from, types, to, length);
+    }
+
+    /**
+     * Checks that the index refers to a stored gemstone.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= currentAmountOfElements) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+    }
+}
@@ -0,0 +1,575 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code GemstoneImporter} class streams gemstones from a CSV or JSON-lines feed into a
+ * collection. The feed is read from a channel through one reusable buffer, parsed line by line
+ * without decoding it to a {@code String}, and appended to the target in batches through
+ * {@link Collection#addAll(Collection)}. Memory use is bounded by the buffer, the longest line and
+ * one batch, whatever the size of the feed. When the target is a {@link MyList} and the channel
+ * knows its size, the list is pre-sized from the average length of the first batch of rows.
+ *
+ * CSV rows are {@code type,weight,price,transparency}; a first row equal to that header is skipped.
+ * JSON lines are flat objects such as {@code {"type":"Diamond","weight":1.5,"price":900,"transparency":0.8}}
+ * with the keys in any order; other keys are ignored. The type is the name of a {@link GemstoneType}
+ * or of a class in {@code gemstones.imp}, in any case. Attributes are validated by the gemstone
+ * setters; a row that fails validation or cannot be parsed aborts the import with an
+ * {@link IllegalArgumentException} naming its line. The batches appended before that row stay in
+ * the target, and the message gives their number of rows, so that the caller can roll them back or
+ * resume the import. Blank lines are skipped.
+ *
+ * An importer reuses its buffers and is not thread-safe.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     MyList gemstones = new MyList();
+ *     GemstoneImporter.Statistics statistics = new GemstoneImporter().importFile(Path.of("feed.csv"), gemstones);
+ *     System.out.println(statistics);
+ * </pre>
+ * </p>
+ *
+ * @see GemstoneType
+ */
+public class GemstoneImporter {
+
+    /**
+     * Default size of the read buffer.
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Default number of gemstones appended by one {@code addAll} call.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /**
+     * Maximum length of a line, in bytes.
+     */
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    /**
+     * The CSV header row.
+     */
+    private static final String CSV_HEADER = "type,weight,price,transparency";
+
+    /**
+     * Powers of ten that are exactly representable as {@code double}.
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Supported feed formats.
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES;
+
+        /**
+         * Returns the format of a file from its extension: {@code .csv}, or {@code .jsonl}/{@code .ndjson}.
+         *
+         * @param path the file
+         * @return the format of the file
+         * @throws IllegalArgumentException if the extension is not recognized
+         */
+        public static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase();
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSON_LINES;
+            }
+            throw new IllegalArgumentException("Unknown feed format: " + name);
+        }
+    }
+
+    /**
+     * The {@code Statistics} class describes a finished import.
+     */
+    public static final class Statistics {
+        private final long rows;
+        private final long bytes;
+        private final long nanos;
+
+        private Statistics(long rows, long bytes, long nanos) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the number of imported gemstones.
+         *
+         * @return the number of rows
+         */
+        public long rows() {
+            return rows;
+        }
+
+        /**
+         * Returns the number of bytes read.
+         *
+         * @return the number of bytes
+         */
+        public long bytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the duration of the import.
+         *
+         * @return the duration in nanoseconds
+         */
+        public long nanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the parse throughput.
+         *
+         * @return the number of rows imported per second
+         */
+        public double rowsPerSecond() {
+            return nanos == 0 ? 0 : rows * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Imported %d rows (%d bytes) in %.1f ms: %.0f rows/s",
+                    rows, bytes, nanos / 1e6, rowsPerSecond());
+        }
+    }
+
+    /**
+     * The read buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of gemstones appended by one {@code addAll} call.
+     */
+    private final int batchSize;
+
+    /**
+     * The current line; grows up to {@link #MAX_LINE_LENGTH}.
+     */
+    private byte[] line = new byte[256];
+
+    /**
+     * The number of bytes of the current line.
+     */
+    private int lineLength;
+
+    /**
+     * The position of the parser in the current line.
+     */
+    private int position;
+
+    /**
+     * Constructs an importer with the default buffer and batch sizes.
+     */
+    public GemstoneImporter() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an importer with the specified buffer and batch sizes.
+     *
+     * @param bufferSize the size of the read buffer, in bytes
+     * @param batchSize the number of gemstones appended by one {@code addAll} call
+     * @throws IllegalArgumentException if either size is not positive
+     */
+    public GemstoneImporter(int bufferSize, int batchSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Invalid buffer size");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size");
+        }
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports a file whose format is given by its extension.
+     *
+     * @param path the file to import
+     * @param target the collection to append the gemstones to
+     * @return the statistics of the import
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the extension is not recognized or a row is invalid
+     * @see Format#of(Path)
+     */
+    public Statistics importFile(Path path, Collection<? super Gemstone> target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return importFrom(channel, Format.of(path), target);
+        }
+    }
+
+    /**
+     * Imports a feed from a channel. The channel is read to its end but not closed.
+     *
+     * @param channel the channel to read
+     * @param format the format of the feed
+     * @param target the collection to append the gemstones to
+     * @return the statistics of the import
+     * @throws IOException if the channel cannot be read
+     * @throws IllegalArgumentException if a row is invalid; the rows of the earlier batches have
+     *         already been appended to the target
+     */
+    public Statistics importFrom(ReadableByteChannel channel, Format format,
+                                 Collection<? super Gemstone> target) throws IOException {
+        Objects.requireNonNull(format);
+        Objects.requireNonNull(target);
+        long start = System.nanoTime();
+        List<Gemstone> batch = new ArrayList<>(batchSize);
+        long rows = 0;
+        long bytes = 0;
+        long lineNumber = 0;
+        boolean presized = false;
+        lineLength = 0;
+
+        buffer.clear();
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                bytes += read;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining() || (endOfInput && lineLength > 0)) {
+                if (!readLine(endOfInput)) {
+                    break;
+                }
+                ++lineNumber;
+                Gemstone gemstone = parseLine(format, lineNumber, rows);
+                if (gemstone == null) {
+                    continue;
+                }
+                batch.add(gemstone);
+                if (batch.size() == batchSize) {
+                    if (!presized) {
+                        presize(channel, target, bytes, rows + batch.size());
+                        presized = true;
+                    }
+                    target.addAll(batch);
+                    rows += batch.size();
+                    batch.clear();
+                }
+            }
+            buffer.compact();
+        }
+        target.addAll(batch);
+        rows += batch.size();
+        return new Statistics(rows, bytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Ensures the capacity of a {@link MyList} target for the rows that are expected to follow,
+     * estimated from the bytes per row read so far.
+     */
+    private static void presize(ReadableByteChannel channel, Collection<? super Gemstone> target,
+                                long bytesRead, long rowsRead) throws IOException {
+        if (!(target instanceof MyList list) || !(channel instanceof SeekableByteChannel seekable)) {
+            return;
+        }
+        long remaining = seekable.size() - seekable.position();
+        long expected = list.size() + rowsRead + remaining * rowsRead / Math.max(1, bytesRead);
+        list.ensureCapacity((int) Math.min(expected, GrowthPolicy.MAX_CAPACITY));
+    }
+
+    /**
+     * Moves the bytes of the buffer up to the next line break into {@link #line}.
+     *
+     * @param endOfInput {@code true} if the buffer holds the last bytes of the feed
+     * @return {@code true} if a complete line is available
+     * @throws IllegalArgumentException if the line is longer than {@link #MAX_LINE_LENGTH}
+     */
+    private boolean readLine(boolean endOfInput) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                return true;
+            }
+            if (lineLength == line.length) {
+                if (lineLength == MAX_LINE_LENGTH) {
+                    throw new IllegalArgumentException("Line too long");
+                }
+                line = Arrays.copyOf(line, Math.min(MAX_LINE_LENGTH, lineLength * 2));
+            }
+            line[lineLength++] = b;
+        }
+        return endOfInput;
+    }
+
+    /**
+     * Parses {@link #line} and resets it.
+     *
+     * @param format the format of the feed
+     * @param lineNumber the number of the line, for error messages
+     * @param appended the number of rows already appended to the target, for error messages
+     * @return the gemstone, or {@code null} for a blank line or the CSV header
+     * @throws IllegalArgumentException if the line is invalid
+     */
+    private Gemstone parseLine(Format format, long lineNumber, long appended) {
+        int length = lineLength;
+        lineLength = 0;
+        while (length > 0 && (line[length - 1] == '\r' || line[length - 1] == ' ')) {
+            --length;
+        }
+        if (length == 0 || (format == Format.CSV && lineNumber == 1 && isCsvHeader(length))) {
+            return null;
+        }
+
+        try {
+            position = 0;
+            return format == Format.CSV ? parseCsv(length) : parseJson(length);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid row at line " + lineNumber + ": " + e.getMessage()
+                    + " (" + appended + " rows already appended)", e);
+        }
+    }
+
+    private boolean isCsvHeader(int length) {
+        return length == CSV_HEADER.length()
+                && new String(line, 0, length, StandardCharsets.US_ASCII).equalsIgnoreCase(CSV_HEADER);
+    }
+
+    private Gemstone parseCsv(int length) {
+        int typeEnd = indexOf(',', 0, length);
+        GemstoneType type = parseType(0, typeEnd);
+        position = typeEnd + 1;
+        double weight = parseCsvField(length);
+        double price = parseCsvField(length);
+        double transparency = parseCsvField(length);
+        if (position <= length) {
+            throw new IllegalArgumentException("Too many fields");
+        }
+        return type.create(weight, price, transparency);
+    }
+
+    private double parseCsvField(int length) {
+        if (position > length) {
+            throw new IllegalArgumentException("Missing field");
+        }
+        int end = indexOf(',', position, length);
+        double value = parseNumber(position, end);
+        position = end + 1;
+        return value;
+    }
+
+    private Gemstone parseJson(int length) {
+        GemstoneType type = null;
+        double weight = Double.NaN;
+        double price = Double.NaN;
+        double transparency = Double.NaN;
+
+        expect('{', length);
+        skipSpaces(length);
+        if (position < length && line[position] == '}') {
+            throw new IllegalArgumentException("Missing type");
+        }
+        while (true) {
+            int keyStart = parseStringStart(length);
+            int keyEnd = indexOf('"', keyStart, length);
+            position = keyEnd + 1;
+            expect(':', length);
+            skipSpaces(length);
+
+            if (position < length && line[position] == '"') {
+                int valueStart = parseStringStart(length);
+                int valueEnd = indexOf('"', valueStart, length);
+                position = valueEnd + 1;
+                if (keyIs("type", keyStart, keyEnd)) {
+                    type = parseType(valueStart, valueEnd);
+                }
+            } else {
+                int valueStart = position;
+                while (position < length && line[position] != ',' && line[position] != '}' && line[position] != ' ') {
+                    ++position;
+                }
+                if (keyIs("weight", keyStart, keyEnd)) {
+                    weight = parseNumber(valueStart, position);
+                } else if (keyIs("price", keyStart, keyEnd)) {
+                    price = parseNumber(valueStart, position);
+                } else if (keyIs("transparency", keyStart, keyEnd)) {
+                    transparency = parseNumber(valueStart, position);
+                }
+            }
+
+            skipSpaces(length);
+            if (position < length && line[position] == ',') {
+                ++position;
+                continue;
+            }
+            expect('}', length);
+            break;
+        }
+        skipSpaces(length);
+        if (position != length) {
+            throw new IllegalArgumentException("Unexpected content after object");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Missing type");
+        }
+        if (Double.isNaN(weight) || Double.isNaN(price) || Double.isNaN(transparency)) {
+            throw new IllegalArgumentException("Missing field");
+        }
+        return type.create(weight, price, transparency);
+    }
+
+    private int parseStringStart(int length) {
+        skipSpaces(length);
+        expect('"', length);
+        return position;
+    }
+
+    private void expect(char expected, int length) {
+        skipSpaces(length);
+        if (position >= length || line[position] != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "'");
+        }
+        ++position;
+    }
+
+    private void skipSpaces(int length) {
+        while (position < length && (line[position] == ' ' || line[position] == '\t')) {
+            ++position;
+        }
+    }
+
+    private boolean keyIs(String key, int start, int end) {
+        if (end - start != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); ++i) {
+            if (line[start + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the position of the first occurrence of a byte, or {@code end} if there is none.
+     */
+    private int indexOf(char c, int from, int end) {
+        for (int i = from; i < end; ++i) {
+            if (line[i] == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Returns the type named by the bytes in {@code [start, end)}, ignoring case.
+     */
+    private GemstoneType parseType(int start, int end) {
+        for (GemstoneType type : GemstoneType.valueList()) {
+            String name = type.name();
+            if (end - start == name.length()) {
+                int i = 0;
+                while (i < name.length() && Character.toUpperCase(line[start + i]) == name.charAt(i)) {
+                    ++i;
+                }
+                if (i == name.length()) {
+                    return type;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown gemstone type: "
+                + new String(line, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the decimal number in {@code [start, end)}: an optional sign, digits with an optional
+     * decimal point and at least one digit, and an optional exponent. Plain decimals with at most
+     * 15 significant digits and 22 fraction digits are converted exactly with one division; other
+     * decimals are converted by {@link Double#parseDouble(String)}. Other forms, such as
+     * {@code NaN}, {@code Infinity}, hexadecimal numbers or type suffixes, are rejected, and so
+     * are values that overflow to infinity.
+     */
+    private double parseNumber(int start, int end) {
+        int i = start;
+        boolean negative = i < end && line[i] == '-';
+        if (negative || (i < end && line[i] == '+')) {
+            ++i;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; i < end; ++i) {
+            byte b = line[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                ++digits;
+                if (mantissa != 0) {
+                    ++significantDigits;
+                }
+                if (fraction) {
+                    ++fractionDigits;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("Invalid number");
+        }
+        if (i == end && significantDigits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        if (i < end && (line[i] == 'e' || line[i] == 'E')) {
+            ++i;
+            if (i < end && (line[i] == '-' || line[i] == '+')) {
+                ++i;
+            }
+            int exponentStart = i;
+            while (i < end && line[i] >= '0' && line[i] <= '9') {
+                ++i;
+            }
+            if (i == exponentStart) {
+                throw new IllegalArgumentException("Invalid number");
+            }
+        }
+        if (i != end) {
+            throw new IllegalArgumentException("Invalid number");
+        }
+        double value = Double.parseDouble(new String(line, start, end - start, StandardCharsets.US_ASCII));
+        if (Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Invalid number");
+        }
+        return value;
+    }
+}
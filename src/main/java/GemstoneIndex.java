@@ -0,0 +1,462 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+
+import java.util.*;
+
+/**
+ * The {@code GemstoneIndex} class keeps the gemstones of a {@link MyList} sorted by each
+ * {@link GemstoneAttribute}, so that range queries such as "price between 100 and 200" take
+ * O(log n + k) time instead of a scan that calls a getter on every gemstone.
+ *
+ * Every attribute has its own sorted sequence of primitive {@code double} keys, stored in
+ * blocks of at most {@value #BLOCK_SIZE} keys next to the gemstones they belong to. A query
+ * binary-searches the blocks and then the keys, and reads the matches in order. The index
+ * registers itself as a {@link GemstoneListListener} of the list, so every {@code add},
+ * {@code remove} and {@code set} updates it in O(log n + {@value #BLOCK_SIZE} + n / {@value #BLOCK_SIZE})
+ * time. The last term is the shift of the list of blocks when a block is split or dropped, one
+ * array copy of n / {@value #BLOCK_SIZE} references.
+ *
+ * Gemstones must not be modified through their setters while they are indexed. Null
+ * elements of the list are not indexed.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     GemstoneIndex index = new GemstoneIndex(myList);
+ *     List&lt;Gemstone&gt; affordable = index.rangeQuery(GemstoneAttribute.PRICE, 100, 200);
+ *     affordable.removeIf(gemstone -&gt; gemstone.getTransparency() &lt; 0.5);
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ * @see GemstoneAttribute
+ */
+public class GemstoneIndex {
+
+    /**
+     * Maximum number of keys in a block.
+     */
+    private static final int BLOCK_SIZE = 512;
+
+    /**
+     * The indexed list.
+     */
+    private final MyList list;
+
+    /**
+     * Sorted keys of every attribute, in the order of {@link GemstoneAttribute#values()}.
+     */
+    private final SortedKeys[] keys;
+
+    /**
+     * The listener that forwards the changes of the list to the sorted keys.
+     */
+    private final GemstoneListListener listener = new GemstoneListListener() {
+        @Override
+        public void added(Gemstone gemstone) {
+            if (gemstone != null) {
+                for (SortedKeys sortedKeys : keys) {
+                    sortedKeys.insert(gemstone);
+                }
+            }
+        }
+
+        @Override
+        public void removed(Gemstone gemstone) {
+            if (gemstone != null) {
+                for (SortedKeys sortedKeys : keys) {
+                    sortedKeys.remove(gemstone);
+                }
+            }
+        }
+
+        @Override
+        public void cleared() {
+            for (SortedKeys sortedKeys : keys) {
+                sortedKeys.clear();
+            }
+        }
+    };
+
+    /**
+     * A sorted sequence of the keys of one attribute, split into blocks.
+     */
+    private static final class SortedKeys {
+        private final GemstoneAttribute attribute;
+        private final List<Block> blocks = new ArrayList<>();
+        private int size = 0;
+
+        SortedKeys(GemstoneAttribute attribute) {
+            this.attribute = attribute;
+        }
+
+        /**
+         * Fills the blocks three quarters full from gemstones sorted by the attribute.
+         *
+         * @param sorted the gemstones, sorted by the attribute
+         */
+        void build(Gemstone[] sorted) {
+            clear();
+            int fill = BLOCK_SIZE * 3 / 4;
+            for (int from = 0; from < sorted.length; from += fill) {
+                Block block = new Block();
+                for (int i = from; i < Math.min(sorted.length, from + fill); ++i) {
+                    block.keys[block.count] = attribute.of(sorted[i]);
+                    block.values[block.count++] = sorted[i];
+                }
+                blocks.add(block);
+            }
+            size = sorted.length;
+        }
+
+        void insert(Gemstone gemstone) {
+            double key = attribute.of(gemstone);
+            if (blocks.isEmpty()) {
+                Block block = new Block();
+                block.insert(0, key, gemstone);
+                blocks.add(block);
+                ++size;
+                return;
+            }
+            int blockIndex = Math.min(firstBlockNotBelow(key), blocks.size() - 1);
+            Block block = blocks.get(blockIndex);
+            if (block.count == BLOCK_SIZE) {
+                Block upper = block.splitUpperHalf();
+                blocks.add(blockIndex + 1, upper);
+                if (compare(key, block.keys[block.count - 1]) > 0) {
+                    block = upper;
+                }
+            }
+            block.insert(block.lowerBound(key), key, gemstone);
+            ++size;
+        }
+
+        void remove(Gemstone gemstone) {
+            double key = attribute.of(gemstone);
+            for (int b = firstBlockNotBelow(key); b < blocks.size(); ++b) {
+                Block block = blocks.get(b);
+                for (int i = block.lowerBound(key); i < block.count; ++i) {
+                    if (compare(block.keys[i], key) != 0) {
+                        removeByIdentity(gemstone);
+                        return;
+                    }
+                    if (block.values[i] == gemstone) {
+                        removeAt(b, i);
+                        return;
+                    }
+                }
+            }
+            removeByIdentity(gemstone);
+        }
+
+        /**
+         * Removes a gemstone whose key changed since it was indexed.
+         *
+         * @param gemstone the gemstone to remove
+         */
+        private void removeByIdentity(Gemstone gemstone) {
+            for (int b = 0; b < blocks.size(); ++b) {
+                Block block = blocks.get(b);
+                for (int i = 0; i < block.count; ++i) {
+                    if (block.values[i] == gemstone) {
+                        removeAt(b, i);
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void removeAt(int blockIndex, int position) {
+            Block block = blocks.get(blockIndex);
+            block.remove(position);
+            if (block.count == 0) {
+                blocks.remove(blockIndex);
+            }
+            --size;
+        }
+
+        void clear() {
+            blocks.clear();
+            size = 0;
+        }
+
+        void collect(double lo, double hi, List<Gemstone> result) {
+            int b = firstBlockNotBelow(lo);
+            if (b == blocks.size()) {
+                return;
+            }
+            for (int start = blocks.get(b).lowerBound(lo); b < blocks.size(); ++b, start = 0) {
+                Block block = blocks.get(b);
+                for (int i = start; i < block.count; ++i) {
+                    if (compare(block.keys[i], hi) > 0) {
+                        return;
+                    }
+                    result.add(block.values[i]);
+                }
+            }
+        }
+
+        int count(double lo, double hi) {
+            int count = 0;
+            int b = firstBlockNotBelow(lo);
+            if (b == blocks.size()) {
+                return 0;
+            }
+            int i = blocks.get(b).lowerBound(lo);
+            for (; b < blocks.size(); ++b, i = 0) {
+                Block block = blocks.get(b);
+                if (compare(block.keys[block.count - 1], hi) <= 0) {
+                    count += block.count - i;
+                } else {
+                    return count + block.lowerBoundAbove(hi) - i;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Returns the position of the gemstone with the specified rank in the sorted keys.
+         *
+         * @param rank the rank, {@code 0 <= rank < size}
+         * @return the index of the block in the first element and the position in it in the second
+         */
+        private int[] locate(int rank) {
+            int b = 0;
+            while (rank >= blocks.get(b).count) {
+                rank -= blocks.get(b++).count;
+            }
+            return new int[] {b, rank};
+        }
+
+        Gemstone select(int rank) {
+            int[] location = locate(rank);
+            return blocks.get(location[0]).values[location[1]];
+        }
+
+        double keyAt(int rank) {
+            int[] location = locate(rank);
+            return blocks.get(location[0]).keys[location[1]];
+        }
+
+        void collectLargest(int k, List<Gemstone> result) {
+            for (int b = blocks.size() - 1; b >= 0 && result.size() < k; --b) {
+                Block block = blocks.get(b);
+                for (int i = block.count - 1; i >= 0 && result.size() < k; --i) {
+                    result.add(block.values[i]);
+                }
+            }
+        }
+
+        /**
+         * Returns the first block whose largest key is not below the specified key.
+         *
+         * @param key the key
+         * @return the index of the block, or the number of blocks if every key is below {@code key}
+         */
+        private int firstBlockNotBelow(double key) {
+            int low = 0;
+            int high = blocks.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                Block block = blocks.get(middle);
+                if (compare(block.keys[block.count - 1], key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Up to {@value #BLOCK_SIZE} sorted keys and their gemstones.
+     */
+    private static final class Block {
+        private final double[] keys = new double[BLOCK_SIZE];
+        private final Gemstone[] values = new Gemstone[BLOCK_SIZE];
+        private int count = 0;
+
+        int lowerBound(double key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(keys[middle], key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        int lowerBoundAbove(double key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(keys[middle], key) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        void insert(int position, double key, Gemstone gemstone) {
+            System.arraycopy(keys, position, keys, position + 1, count - position);
+            System.arraycopy(values, position, values, position + 1, count - position);
+            keys[position] = key;
+            values[position] = gemstone;
+            ++count;
+        }
+
+        void remove(int position) {
+            System.arraycopy(keys, position + 1, keys, position, count - position - 1);
+            System.arraycopy(values, position + 1, values, position, count - position - 1);
+            values[--count] = null;
+        }
+
+        Block splitUpperHalf() {
+            Block upper = new Block();
+            int half = count / 2;
+            upper.count = count - half;
+            System.arraycopy(keys, half, upper.keys, 0, upper.count);
+            System.arraycopy(values, half, upper.values, 0, upper.count);
+            Arrays.fill(values, half, count, null);
+            count = half;
+            return upper;
+        }
+    }
+
+    /**
+     * Builds an index of the current contents of the list and starts following its changes.
+     *
+     * @param list the list to index
+     * @throws NullPointerException if the list is null
+     */
+    public GemstoneIndex(MyList list) {
+        this.list = list;
+        GemstoneAttribute[] attributes = GemstoneAttribute.values();
+        keys = new SortedKeys[attributes.length];
+
+        Gemstone[] gemstones = list.stream().filter(Objects::nonNull).toArray(Gemstone[]::new);
+        for (GemstoneAttribute attribute : attributes) {
+            keys[attribute.ordinal()] = new SortedKeys(attribute);
+            Arrays.sort(gemstones, Comparator.comparingDouble(attribute::of));
+            keys[attribute.ordinal()].build(gemstones);
+        }
+        list.addListener(listener);
+    }
+
+    /**
+     * Returns the gemstones whose attribute lies in the closed range {@code [lo, hi]}, ordered by the attribute.
+     *
+     * @param attribute the attribute to filter by
+     * @param lo the lower bound, inclusive
+     * @param hi the upper bound, inclusive
+     * @return a new list of the matching gemstones
+     * @throws NullPointerException if the attribute is null
+     */
+    public List<Gemstone> rangeQuery(GemstoneAttribute attribute, double lo, double hi) {
+        List<Gemstone> result = new ArrayList<>();
+        keys[attribute.ordinal()].collect(lo, hi, result);
+        return result;
+    }
+
+    /**
+     * Returns the number of gemstones whose attribute lies in the closed range {@code [lo, hi]}
+     * without collecting them, in O(log n + n / {@value #BLOCK_SIZE}) time.
+     *
+     * @param attribute the attribute to filter by
+     * @param lo the lower bound, inclusive
+     * @param hi the upper bound, inclusive
+     * @return the number of matching gemstones
+     * @throws NullPointerException if the attribute is null
+     */
+    public int countInRange(GemstoneAttribute attribute, double lo, double hi) {
+        return keys[attribute.ordinal()].count(lo, hi);
+    }
+
+    /**
+     * Returns the gemstone with the specified rank by the attribute, where rank 0 is the
+     * gemstone with the smallest value, in O(n / {@value #BLOCK_SIZE}) time.
+     *
+     * @param attribute the attribute to rank by
+     * @param rank the rank of the gemstone
+     * @return the gemstone with the specified rank
+     * @throws IndexOutOfBoundsException if the rank is negative or not less than {@link #size()}
+     * @throws NullPointerException if the attribute is null
+     */
+    public Gemstone select(GemstoneAttribute attribute, int rank) {
+        SortedKeys sortedKeys = keys[attribute.ordinal()];
+        if (rank < 0 || rank >= sortedKeys.size) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return sortedKeys.select(rank);
+    }
+
+    /**
+     * Returns the exact value of the attribute at the specified quantile: the smallest value such
+     * that at least a fraction {@code q} of the indexed gemstones are not larger. Unlike a
+     * {@link QuantileSketch}, the result follows every change of the list.
+     *
+     * @param attribute the attribute
+     * @param q the quantile, between 0 and 1 (inclusive)
+     * @return the value at the quantile, or NaN if the index is empty
+     * @throws IllegalArgumentException if {@code q} is not between 0 and 1
+     * @throws NullPointerException if the attribute is null
+     */
+    public double quantile(GemstoneAttribute attribute, double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Invalid quantile");
+        }
+        SortedKeys sortedKeys = keys[attribute.ordinal()];
+        if (sortedKeys.size == 0) {
+            return Double.NaN;
+        }
+        int rank = Math.max(0, (int) Math.ceil(q * sortedKeys.size) - 1);
+        return sortedKeys.keyAt(rank);
+    }
+
+    /**
+     * Returns the {@code k} gemstones with the largest values of the attribute, largest first,
+     * in O(k + log n) time.
+     *
+     * @param attribute the attribute
+     * @param k the number of gemstones to return
+     * @return a new list of at most {@code k} gemstones
+     * @throws IllegalArgumentException if {@code k} is negative
+     * @throws NullPointerException if the attribute is null
+     */
+    public List<Gemstone> top(GemstoneAttribute attribute, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid k");
+        }
+        List<Gemstone> result = new ArrayList<>(Math.min(k, size()));
+        keys[attribute.ordinal()].collectLargest(k, result);
+        return result;
+    }
+
+    /**
+     * Returns the number of indexed gemstones.
+     *
+     * @return the number of non-null gemstones in the list
+     */
+    public int size() {
+        return keys[0].size;
+    }
+
+    /**
+     * Stops following the changes of the list. The index keeps its current contents.
+     */
+    public void detach() {
+        list.removeListener(listener);
+    }
+
+    private static int compare(double a, double b) {
+        return Double.compare(a, b);
+    }
+}
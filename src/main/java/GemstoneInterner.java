@@ -0,0 +1,192 @@
+import gemstones.Gemstone;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code GemstoneInterner} class maps every gemstone to a canonical instance equal to it,
+ * so that a collection holding many equal gemstones can hold one shared object instead.
+ *
+ * The cache is a {@link ConcurrentHashMap} keyed by the class and the attribute values of the
+ * gemstones, and holds the canonical instances through weak references: a canonical instance is
+ * dropped once nothing else references it, so the cache never keeps gemstones alive on its own.
+ * Interning is thread-safe and lock-free on a hit.
+ *
+ * Canonical instances are shared, so they must not be modified through their setters. If one is,
+ * the next {@link #intern(Gemstone)} of its former values installs a new canonical instance.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     GemstoneInterner interner = new GemstoneInterner();
+ *     Gemstone first = interner.intern(new Diamond(1, 1, 1));
+ *     Gemstone second = interner.intern(new Diamond(1, 1, 1));  // same instance as first
+ *     System.out.println(interner.dedupeRatio());               // 0.5
+ * </pre>
+ * </p>
+ *
+ * @see MyList#setInterningMode(boolean)
+ */
+public class GemstoneInterner {
+
+    /**
+     * The interner used by {@link MyList#setInterningMode(boolean)}.
+     */
+    private static final GemstoneInterner SHARED = new GemstoneInterner();
+
+    /**
+     * The class and the attribute bits of a gemstone. {@code -0.0} is stored as {@code 0.0},
+     * because {@code Gemstone.equals} compares the attributes with {@code ==}.
+     */
+    private record Key(Class<?> type, long weight, long price, long transparency) {
+        Key(Gemstone gemstone) {
+            this(gemstone.getClass(),
+                    Double.doubleToLongBits(gemstone.getWeight() + 0.0),
+                    Double.doubleToLongBits(gemstone.getPrice() + 0.0),
+                    Double.doubleToLongBits(gemstone.getTransparency() + 0.0));
+        }
+    }
+
+    /**
+     * A weak reference to a canonical instance that remembers its key, so that the entry can be
+     * removed once the instance is collected.
+     */
+    private static final class CanonicalReference extends WeakReference<Gemstone> {
+        private final Key key;
+
+        CanonicalReference(Gemstone gemstone, Key key, ReferenceQueue<Gemstone> queue) {
+            super(gemstone, queue);
+            this.key = key;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, CanonicalReference> cache = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Gemstone> collected = new ReferenceQueue<>();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * Constructs an empty interner.
+     */
+    public GemstoneInterner() {
+    }
+
+    /**
+     * Returns the interner shared by all lists in interning mode.
+     *
+     * @return the shared interner
+     */
+    public static GemstoneInterner shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the canonical instance equal to the gemstone, making the gemstone itself canonical
+     * if there is none yet.
+     *
+     * @param gemstone the gemstone to intern
+     * @return the canonical instance equal to the gemstone, or {@code null} if the gemstone is null
+     */
+    public Gemstone intern(Gemstone gemstone) {
+        if (gemstone == null) {
+            return null;
+        }
+        expungeCollected();
+        lookups.increment();
+
+        Key key = new Key(gemstone);
+        Gemstone canonical = canonical(cache.get(key), gemstone);
+        while (canonical == null) {
+            CanonicalReference reference = cache.compute(key, (k, current) ->
+                    canonical(current, gemstone) != null ? current : new CanonicalReference(gemstone, k, collected));
+            canonical = canonical(reference, gemstone);
+        }
+
+        if (canonical != gemstone) {
+            deduplicated.increment();
+        }
+        return canonical;
+    }
+
+    /**
+     * Returns the canonical instance equal to the object without interning it.
+     *
+     * @param o the object to look up
+     * @return the canonical instance equal to the object, or {@code null} if there is none
+     */
+    public Gemstone lookup(Object o) {
+        if (!(o instanceof Gemstone gemstone)) {
+            return null;
+        }
+        return canonical(cache.get(new Key(gemstone)), gemstone);
+    }
+
+    /**
+     * Returns the number of canonical instances in the cache, including ones that were collected
+     * but not yet removed.
+     *
+     * @return the number of cached canonical instances
+     */
+    public int size() {
+        expungeCollected();
+        return cache.size();
+    }
+
+    /**
+     * Returns the number of calls to {@link #intern(Gemstone)} with a non-null gemstone.
+     *
+     * @return the number of lookups
+     */
+    public long lookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Returns the number of calls to {@link #intern(Gemstone)} that returned an existing
+     * canonical instance instead of their argument.
+     *
+     * @return the number of deduplicated gemstones
+     */
+    public long deduplicated() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Returns the share of interned gemstones that were replaced by an existing canonical instance.
+     *
+     * @return the dedupe ratio between 0 and 1, or 0 if nothing was interned
+     */
+    public double dedupeRatio() {
+        long total = lookups.sum();
+        return total == 0 ? 0 : (double) deduplicated.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GemstoneInterner[canonical=%d, lookups=%d, deduplicated=%d, ratio=%.3f]",
+                size(), lookups(), deduplicated(), dedupeRatio());
+    }
+
+    /**
+     * Returns the instance of a reference if it is still equal to the gemstone.
+     */
+    private static Gemstone canonical(CanonicalReference reference, Gemstone gemstone) {
+        if (reference == null) {
+            return null;
+        }
+        Gemstone canonical = reference.get();
+        return canonical != null && canonical.equals(gemstone) ? canonical : null;
+    }
+
+    /**
+     * Removes the entries whose canonical instances were collected.
+     */
+    private void expungeCollected() {
+        for (Object reference; (reference = collected.poll()) != null; ) {
+            CanonicalReference canonical = (CanonicalReference) reference;
+            cache.remove(canonical.key, canonical);
+        }
+    }
+}
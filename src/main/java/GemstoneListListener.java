@@ -0,0 +1,53 @@
+import gemstones.Gemstone;
+
+/**
+ * The {@code GemstoneListListener} interface receives every change of the contents of a
+ * {@link MyList}, so that derived structures such as indexes and statistics can be kept
+ * up to date incrementally instead of rescanning the list.
+ *
+ * Callbacks describe values, not positions: moving elements, for example by sorting,
+ * is not reported. They are made while the list is being modified, so a listener must
+ * not access the list from a callback.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     myList.addListener(new GemstoneListListener() { ... });
+ * </pre>
+ * </p>
+ *
+ * @see MyList#addListener(GemstoneListListener)
+ */
+public interface GemstoneListListener {
+
+    /**
+     * Called when a gemstone is added to the list.
+     *
+     * @param gemstone the added gemstone, may be null
+     */
+    void added(Gemstone gemstone);
+
+    /**
+     * Called when a gemstone is removed from the list.
+     *
+     * @param gemstone the removed gemstone, may be null
+     */
+    void removed(Gemstone gemstone);
+
+    /**
+     * Called when a gemstone of the list is replaced by another one. By default reports
+     * the removal of the old gemstone followed by the addition of the new one.
+     *
+     * @param oldGemstone the replaced gemstone, may be null
+     * @param newGemstone the new gemstone, may be null
+     */
+    default void replaced(Gemstone oldGemstone, Gemstone newGemstone) {
+        removed(oldGemstone);
+        added(newGemstone);
+    }
+
+    /**
+     * Called when all gemstones are removed from the list at once.
+     */
+    void cleared();
+}
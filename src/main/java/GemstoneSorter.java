@@ -0,0 +1,359 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.GemstoneType;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code GemstoneSorter} class sorts gemstones by their type and numeric attributes with
+ * a least-significant-digit radix sort, instead of comparing gemstones through a {@link Comparator}.
+ *
+ * Every sort key is extracted once into a {@code long[]}: an attribute is mapped to the bits of
+ * its {@code double} value, flipped so that unsigned order matches numeric order, and a type to
+ * its {@link GemstoneType} ordinal. The keys are then sorted together with the positions of
+ * their gemstones eight bits at a time, skipping every byte that is equal in all keys, and the
+ * gemstones are finally moved to their sorted positions in a single pass. Radix sorting is stable,
+ * so a multi-key sort runs one such sort per key, from the last key to the first.
+ * Lists of at least {@value #PARALLEL_THRESHOLD} gemstones are sorted in parallel when the common
+ * fork-join pool has more than one thread: the key extraction, the counting and the distribution
+ * of every pass are split into blocks run on the pool.
+ *
+ * A sorter is immutable and can be shared. {@link MyList#sortBy(GemstoneSorter)} sorts the
+ * internal array of a {@code MyList} in place; {@link #sort(List)} sorts any list, and
+ * {@link #comparator()} returns the equivalent comparator. Null elements are not supported.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     GemstoneSorter byTypeThenPrice = GemstoneSorter.byType().thenBy(GemstoneAttribute.PRICE).descending();
+ *     myList.sortBy(byTypeThenPrice);
+ * </pre>
+ * </p>
+ *
+ * @see MyList#sortBy(GemstoneSorter)
+ * @see GemstoneAttribute
+ */
+public final class GemstoneSorter {
+
+    /**
+     * Size from which gemstones are sorted in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Smallest number of gemstones per block of a parallel pass.
+     */
+    private static final int MIN_BLOCK_SIZE = 1 << 14;
+
+    /**
+     * Number of bits sorted in one pass.
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * Number of distinct digits of one pass.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * A sort key: an attribute, or the type of the gemstone if the attribute is {@code null}.
+     */
+    private record Key(GemstoneAttribute attribute, boolean descending) {
+
+        /**
+         * Returns the key of a gemstone as a {@code long} whose unsigned order is the sort order.
+         */
+        long of(Gemstone gemstone) {
+            long key;
+            if (attribute == null) {
+                key = GemstoneType.of(gemstone).ordinal();
+            } else {
+                long bits = Double.doubleToRawLongBits(attribute.of(gemstone) + 0.0);
+                key = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+            }
+            return descending ? ~key : key;
+        }
+
+        Comparator<Gemstone> comparator() {
+            Comparator<Gemstone> comparator = attribute == null
+                    ? Comparator.comparing(GemstoneType::of)
+                    : Comparator.comparingDouble(attribute::of);
+            return descending ? comparator.reversed() : comparator;
+        }
+    }
+
+    /**
+     * The keys, the most significant first.
+     */
+    private final Key[] keys;
+
+    private GemstoneSorter(Key[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Returns a sorter by an attribute in ascending order.
+     *
+     * @param attribute the attribute to sort by
+     * @return the sorter
+     * @throws NullPointerException if the attribute is null
+     */
+    public static GemstoneSorter by(GemstoneAttribute attribute) {
+        return new GemstoneSorter(new Key[] {new Key(Objects.requireNonNull(attribute), false)});
+    }
+
+    /**
+     * Returns a sorter by {@link GemstoneType}, in the order of its constants.
+     *
+     * @return the sorter
+     */
+    public static GemstoneSorter byType() {
+        return new GemstoneSorter(new Key[] {new Key(null, false)});
+    }
+
+    /**
+     * Returns a sorter that orders gemstones with equal keys of this sorter by an attribute.
+     *
+     * @param attribute the attribute to sort by
+     * @return the new sorter
+     * @throws NullPointerException if the attribute is null
+     */
+    public GemstoneSorter thenBy(GemstoneAttribute attribute) {
+        return then(new Key(Objects.requireNonNull(attribute), false));
+    }
+
+    /**
+     * Returns a sorter that orders gemstones with equal keys of this sorter by type.
+     *
+     * @return the new sorter
+     */
+    public GemstoneSorter thenByType() {
+        return then(new Key(null, false));
+    }
+
+    /**
+     * Returns a sorter whose last key is sorted in the opposite order.
+     *
+     * @return the new sorter
+     */
+    public GemstoneSorter descending() {
+        Key[] reversed = keys.clone();
+        Key last = reversed[reversed.length - 1];
+        reversed[reversed.length - 1] = new Key(last.attribute(), !last.descending());
+        return new GemstoneSorter(reversed);
+    }
+
+    /**
+     * Returns a comparator that orders gemstones as this sorter does.
+     *
+     * @return the equivalent comparator
+     */
+    public Comparator<Gemstone> comparator() {
+        Comparator<Gemstone> comparator = keys[0].comparator();
+        for (int i = 1; i < keys.length; ++i) {
+            comparator = comparator.thenComparing(keys[i].comparator());
+        }
+        return comparator;
+    }
+
+    /**
+     * Sorts a list. A {@code MyList} is sorted in place; any other list is copied into an array,
+     * sorted and written back through its list iterator.
+     *
+     * @param list the list to sort
+     * @throws NullPointerException if the list or any of its elements is null
+     * @throws IllegalArgumentException if a type key is used and a gemstone is not one of the
+     *         {@link GemstoneType} classes
+     */
+    public void sort(List<Gemstone> list) {
+        if (list instanceof MyList myList) {
+            myList.sortBy(this);
+            return;
+        }
+
+        Gemstone[] gemstones = list.toArray(new Gemstone[0]);
+        sort(gemstones, 0, gemstones.length);
+        ListIterator<Gemstone> iterator = list.listIterator();
+        for (Gemstone gemstone : gemstones) {
+            iterator.next();
+            iterator.set(gemstone);
+        }
+    }
+
+    /**
+     * Sorts a range of an array, in parallel if it is large enough and the common fork-join
+     * pool has more than one thread.
+     *
+     * @param gemstones the array
+     * @param fromIndex index of the first element to be sorted
+     * @param toIndex index after the last element to be sorted
+     */
+    void sort(Gemstone[] gemstones, int fromIndex, int toIndex) {
+        sort(gemstones, fromIndex, toIndex,
+                toIndex - fromIndex >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+    /**
+     * Sorts a range of an array.
+     *
+     * @param gemstones the array
+     * @param fromIndex index of the first element to be sorted
+     * @param toIndex index after the last element to be sorted
+     * @param parallel whether to run the passes on the common fork-join pool
+     */
+    void sort(Gemstone[] gemstones, int fromIndex, int toIndex, boolean parallel) {
+        int size = toIndex - fromIndex;
+        if (size < 2) {
+            return;
+        }
+        for (int i = fromIndex; i < toIndex; ++i) {
+            Objects.requireNonNull(gemstones[i]);
+        }
+
+        int blocks = parallel ? Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, size / MIN_BLOCK_SIZE)) : 1;
+        int[] order = new int[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        Passes passes = new Passes(size, blocks);
+        for (int k = keys.length - 1; k >= 0; --k) {
+            Key key = keys[k];
+            long[] values = passes.values;
+            int[] current = order;
+            forEachBlock(blocks, size, parallel, (block, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    values[i] = key.of(gemstones[fromIndex + current[i]]);
+                }
+            });
+            order = passes.sort(order, parallel);
+        }
+
+        Gemstone[] sorted = new Gemstone[size];
+        for (int i = 0; i < size; ++i) {
+            sorted[i] = gemstones[fromIndex + order[i]];
+        }
+        System.arraycopy(sorted, 0, gemstones, fromIndex, size);
+    }
+
+    /**
+     * The buffers of the radix passes over one array of keys and positions.
+     */
+    private static final class Passes {
+        private final int size;
+        private final int blocks;
+        private long[] values;
+        private long[] valueBuffer;
+        private int[] orderBuffer;
+        private final int[][] counts;
+
+        Passes(int size, int blocks) {
+            this.size = size;
+            this.blocks = blocks;
+            this.values = new long[size];
+            this.valueBuffer = new long[size];
+            this.orderBuffer = new int[size];
+            this.counts = new int[blocks][RADIX];
+        }
+
+        /**
+         * Stably sorts {@link #values} together with the positions, one byte per pass from the
+         * least significant one, and returns the sorted positions. Bytes equal in all keys are
+         * skipped. {@link #values} is sorted afterwards.
+         */
+        int[] sort(int[] order, boolean parallel) {
+            for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+                int digitShift = shift;
+                long[] source = values;
+                forEachBlock(blocks, size, parallel, (block, from, to) -> {
+                    int[] count = counts[block];
+                    Arrays.fill(count, 0);
+                    for (int i = from; i < to; ++i) {
+                        ++count[(int) (source[i] >>> digitShift) & (RADIX - 1)];
+                    }
+                });
+                if (isSingleDigit()) {
+                    continue;
+                }
+
+                int offset = 0;
+                for (int digit = 0; digit < RADIX; ++digit) {
+                    for (int block = 0; block < blocks; ++block) {
+                        int count = counts[block][digit];
+                        counts[block][digit] = offset;
+                        offset += count;
+                    }
+                }
+
+                long[] targetValues = valueBuffer;
+                int[] sourceOrder = order;
+                int[] targetOrder = orderBuffer;
+                forEachBlock(blocks, size, parallel, (block, from, to) -> {
+                    int[] position = counts[block];
+                    for (int i = from; i < to; ++i) {
+                        long value = source[i];
+                        int target = position[(int) (value >>> digitShift) & (RADIX - 1)]++;
+                        targetValues[target] = value;
+                        targetOrder[target] = sourceOrder[i];
+                    }
+                });
+                valueBuffer = values;
+                values = targetValues;
+                orderBuffer = order;
+                order = targetOrder;
+            }
+            return order;
+        }
+
+        /**
+         * Returns whether every key of the last counted pass has the same digit.
+         */
+        private boolean isSingleDigit() {
+            for (int digit = 0; digit < RADIX; ++digit) {
+                int total = 0;
+                for (int block = 0; block < blocks; ++block) {
+                    total += counts[block][digit];
+                }
+                if (total != 0) {
+                    return total == size;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An action on the range of one block.
+     */
+    private interface BlockAction {
+        void run(int block, int from, int to);
+    }
+
+    /**
+     * Runs an action on every block of a range split into equal blocks, in parallel or in order.
+     */
+    private static void forEachBlock(int blocks, int size, boolean parallel, BlockAction action) {
+        if (!parallel || blocks == 1) {
+            for (int block = 0; block < blocks; ++block) {
+                action.run(block, blockStart(blocks, size, block), blockStart(blocks, size, block + 1));
+            }
+            return;
+        }
+        IntStream.range(0, blocks).parallel()
+                .forEach(block -> action.run(block, blockStart(blocks, size, block), blockStart(blocks, size, block + 1)));
+    }
+
+    /**
+     * Returns the index of the first element of a block.
+     */
+    private static int blockStart(int blocks, int size, int block) {
+        return (int) ((long) block * size / blocks);
+    }
+
+    private GemstoneSorter then(Key key) {
+        Key[] extended = Arrays.copyOf(keys, keys.length + 1);
+        extended[keys.length] = key;
+        return new GemstoneSorter(extended);
+    }
+}
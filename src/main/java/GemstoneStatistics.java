@@ -0,0 +1,377 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.GemstoneType;
+import gemstones.PreciousGemstone;
+import gemstones.SemiPreciousGemstone;
+
+import java.util.Arrays;
+
+/**
+ * The {@code GemstoneStatistics} class keeps aggregate statistics of a {@link MyList} up to date
+ * as the list changes, so that questions such as "total inventory value", "total carats" or
+ * "number of precious stones" are answered in O(1) time instead of by a scan of the list.
+ *
+ * The statistics register themselves as a {@link GemstoneListListener} of the list, and every
+ * added, removed or replaced gemstone updates them in O(1) time: the counts per {@link GemstoneType}
+ * and per category, and for every {@link GemstoneAttribute} a compensated running sum of the
+ * values and of their squares, both shifted by the first value seen so that the variance does not
+ * lose precision to cancellation. The smallest and the largest value of every attribute are
+ * updated on additions; removing a current extreme only marks them stale, and the next
+ * {@link #min(GemstoneAttribute)} or {@link #max(GemstoneAttribute)} rebuilds them with one scan.
+ * {@link #detach()} rebuilds stale extremes before it stops following the list, so that all the
+ * statistics of a detached instance describe the list as it was when it was detached.
+ *
+ * Gemstones must not be modified through their setters while the statistics follow their list.
+ * Null elements of the list are not counted.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     GemstoneStatistics statistics = new GemstoneStatistics(myList);
+ *     myList.add(new Diamond(1.5, 900, 0.85));
+ *     double total = statistics.totalValue();
+ *     int precious = statistics.countOf(PreciousGemstone.class);
+ * </pre>
+ * </p>
+ *
+ * @see MyList#addListener(GemstoneListListener)
+ * @see GemstoneIndex
+ */
+public class GemstoneStatistics {
+
+    /**
+     * The list whose statistics are kept.
+     */
+    private final MyList list;
+
+    /**
+     * The running sums of every attribute, in the order of {@link GemstoneAttribute#values()}.
+     */
+    private final AttributeStatistics[] attributes;
+
+    /**
+     * The number of gemstones of every type, in the order of {@link GemstoneType#values()}.
+     */
+    private final int[] typeCounts = new int[GemstoneType.valueList().size()];
+
+    /**
+     * The number of non-null gemstones.
+     */
+    private int count = 0;
+
+    /**
+     * The number of precious gemstones.
+     */
+    private int preciousCount = 0;
+
+    /**
+     * Whether a removal may have invalidated the smallest or the largest value of an attribute.
+     */
+    private boolean extremaStale = false;
+
+    /**
+     * The listener that forwards the changes of the list to the statistics.
+     */
+    private final GemstoneListListener listener = new GemstoneListListener() {
+        @Override
+        public void added(Gemstone gemstone) {
+            if (gemstone != null) {
+                update(gemstone, 1);
+            }
+        }
+
+        @Override
+        public void removed(Gemstone gemstone) {
+            if (gemstone != null) {
+                update(gemstone, -1);
+            }
+        }
+
+        @Override
+        public void cleared() {
+            reset();
+        }
+    };
+
+    /**
+     * Compensated running sums of one attribute, shifted by a reference value, and its extremes.
+     */
+    private static final class AttributeStatistics {
+        private final GemstoneAttribute attribute;
+        private double shift = Double.NaN;
+        private double sum;
+        private double sumCompensation;
+        private double squares;
+        private double squaresCompensation;
+        private double min;
+        private double max;
+
+        AttributeStatistics(GemstoneAttribute attribute) {
+            this.attribute = attribute;
+            reset();
+        }
+
+        void reset() {
+            shift = Double.NaN;
+            sum = sumCompensation = squares = squaresCompensation = 0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+        }
+
+        /**
+         * Adds ({@code sign == 1}) or subtracts ({@code sign == -1}) a value. Returns whether
+         * the value was a current extreme that has been subtracted.
+         */
+        boolean update(double value, int sign) {
+            if (Double.isNaN(shift)) {
+                shift = value;
+            }
+            double shifted = value - shift;
+            double term = sign * shifted;
+            double total = sum + term;
+            sumCompensation += Math.abs(sum) >= Math.abs(term) ? (sum - total) + term : (term - total) + sum;
+            sum = total;
+
+            term = sign * shifted * shifted;
+            total = squares + term;
+            squaresCompensation += Math.abs(squares) >= Math.abs(term) ? (squares - total) + term : (term - total) + squares;
+            squares = total;
+
+            if (sign > 0) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                return false;
+            }
+            return value <= min || value >= max;
+        }
+
+        /**
+         * Returns the sum of the shifted values.
+         */
+        double shiftedSum() {
+            return sum + sumCompensation;
+        }
+
+        /**
+         * Returns the sum of the squares of the shifted values.
+         */
+        double shiftedSquares() {
+            return squares + squaresCompensation;
+        }
+    }
+
+    /**
+     * Computes the statistics of the current contents of the list in O(n) and starts following its changes.
+     *
+     * @param list the list to follow
+     * @throws NullPointerException if the list is null
+     */
+    public GemstoneStatistics(MyList list) {
+        this.list = list;
+        GemstoneAttribute[] values = GemstoneAttribute.values();
+        attributes = new AttributeStatistics[values.length];
+        for (GemstoneAttribute attribute : values) {
+            attributes[attribute.ordinal()] = new AttributeStatistics(attribute);
+        }
+
+        list.forEach(listener::added);
+        list.addListener(listener);
+    }
+
+    /**
+     * Returns the number of gemstones.
+     *
+     * @return the number of non-null gemstones in the list
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the number of gemstones of the specified class. The class can be a concrete
+     * gemstone class, {@code PreciousGemstone}, {@code SemiPreciousGemstone} or {@code Gemstone}.
+     *
+     * @param gemstoneClass the class to count
+     * @return the number of gemstones of this class
+     * @throws IllegalArgumentException if the class is not a known gemstone class or category
+     * @throws NullPointerException if the class is null
+     */
+    public int countOf(Class<? extends Gemstone> gemstoneClass) {
+        if (gemstoneClass == Gemstone.class) {
+            return count;
+        }
+        if (gemstoneClass == PreciousGemstone.class) {
+            return preciousCount;
+        }
+        if (gemstoneClass == SemiPreciousGemstone.class) {
+            return count - preciousCount;
+        }
+        return typeCounts[GemstoneType.of(gemstoneClass).ordinal()];
+    }
+
+    /**
+     * Returns the number of gemstones of the specified type.
+     *
+     * @param type the type to count
+     * @return the number of gemstones of this type
+     * @throws NullPointerException if the type is null
+     */
+    public int countOf(GemstoneType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Returns the sum of an attribute over all gemstones.
+     *
+     * @param attribute the attribute
+     * @return the sum, or 0 if there are no gemstones
+     * @throws NullPointerException if the attribute is null
+     */
+    public double sum(GemstoneAttribute attribute) {
+        AttributeStatistics statistics = attributes[attribute.ordinal()];
+        return count == 0 ? 0 : statistics.shiftedSum() + count * statistics.shift;
+    }
+
+    /**
+     * Returns the mean of an attribute.
+     *
+     * @param attribute the attribute
+     * @return the mean, or {@link Double#NaN} if there are no gemstones
+     * @throws NullPointerException if the attribute is null
+     */
+    public double mean(GemstoneAttribute attribute) {
+        AttributeStatistics statistics = attributes[attribute.ordinal()];
+        return count == 0 ? Double.NaN : statistics.shift + statistics.shiftedSum() / count;
+    }
+
+    /**
+     * Returns the population variance of an attribute.
+     *
+     * @param attribute the attribute
+     * @return the variance, or {@link Double#NaN} if there are no gemstones
+     * @throws NullPointerException if the attribute is null
+     */
+    public double variance(GemstoneAttribute attribute) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        AttributeStatistics statistics = attributes[attribute.ordinal()];
+        double shiftedMean = statistics.shiftedSum() / count;
+        return Math.max(0, statistics.shiftedSquares() / count - shiftedMean * shiftedMean);
+    }
+
+    /**
+     * Returns the smallest value of an attribute, rebuilding the extremes first if a removal made them stale.
+     *
+     * @param attribute the attribute
+     * @return the smallest value, or {@link Double#NaN} if there are no gemstones
+     * @throws NullPointerException if the attribute is null
+     */
+    public double min(GemstoneAttribute attribute) {
+        rebuildExtremaIfStale();
+        return count == 0 ? Double.NaN : attributes[attribute.ordinal()].min;
+    }
+
+    /**
+     * Returns the largest value of an attribute, rebuilding the extremes first if a removal made them stale.
+     *
+     * @param attribute the attribute
+     * @return the largest value, or {@link Double#NaN} if there are no gemstones
+     * @throws NullPointerException if the attribute is null
+     */
+    public double max(GemstoneAttribute attribute) {
+        rebuildExtremaIfStale();
+        return count == 0 ? Double.NaN : attributes[attribute.ordinal()].max;
+    }
+
+    /**
+     * Returns the total price of all gemstones.
+     *
+     * @return the sum of the prices
+     */
+    public double totalValue() {
+        return sum(GemstoneAttribute.PRICE);
+    }
+
+    /**
+     * Returns the total weight of all gemstones.
+     *
+     * @return the sum of the weights, in carats
+     */
+    public double totalCarats() {
+        return sum(GemstoneAttribute.WEIGHT);
+    }
+
+    /**
+     * Stops following the changes of the list. The statistics keep their current values;
+     * stale extremes are rebuilt first so that they are not rebuilt from a later state of the list.
+     */
+    public void detach() {
+        rebuildExtremaIfStale();
+        list.removeListener(listener);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GemstoneStatistics[count=%d, precious=%d, totalValue=%.2f, totalCarats=%.2f]",
+                count, preciousCount, totalValue(), totalCarats());
+    }
+
+    /**
+     * Counts a gemstone in ({@code sign == 1}) or out ({@code sign == -1}) of the statistics.
+     */
+    private void update(Gemstone gemstone, int sign) {
+        count += sign;
+        GemstoneType type = GemstoneType.find(gemstone.getClass());
+        if (type != null) {
+            typeCounts[type.ordinal()] += sign;
+        }
+        if (gemstone instanceof PreciousGemstone) {
+            preciousCount += sign;
+        }
+        for (AttributeStatistics statistics : attributes) {
+            if (statistics.update(statistics.attribute.of(gemstone), sign)) {
+                extremaStale = true;
+            }
+        }
+        if (count == 0) {
+            reset();
+        }
+    }
+
+    /**
+     * Resets the statistics to those of an empty list.
+     */
+    private void reset() {
+        count = 0;
+        preciousCount = 0;
+        Arrays.fill(typeCounts, 0);
+        for (AttributeStatistics statistics : attributes) {
+            statistics.reset();
+        }
+        extremaStale = false;
+    }
+
+    /**
+     * Recomputes the smallest and the largest value of every attribute with one scan of the list.
+     */
+    private void rebuildExtremaIfStale() {
+        if (!extremaStale) {
+            return;
+        }
+        for (AttributeStatistics statistics : attributes) {
+            statistics.min = Double.POSITIVE_INFINITY;
+            statistics.max = Double.NEGATIVE_INFINITY;
+        }
+        list.forEach(gemstone -> {
+            if (gemstone != null) {
+                for (AttributeStatistics statistics : attributes) {
+                    double value = statistics.attribute.of(gemstone);
+                    statistics.min = Math.min(statistics.min, value);
+                    statistics.max = Math.max(statistics.max, value);
+                }
+            }
+        });
+        extremaStale = false;
+    }
+}
@@ -0,0 +1,203 @@
+import gemstones.Gemstone;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * The {@code GemstoneTopK} class selects the {@code k} gemstones with the largest keys, such as
+ * "the 100 most valuable stones", without sorting the whole inventory.
+ *
+ * The selected gemstones are kept in a bounded min-heap of at most {@code k} entries, with the
+ * keys in a primitive {@code double[]} next to the gemstones, so a gemstone whose key is not
+ * larger than the smallest selected key is rejected with one comparison and the whole selection
+ * takes O(n log k) time. Selections are mergeable: {@link #collector(int, ToDoubleFunction)}
+ * selects in parallel streams, where every part of the list fills its own heap and the heaps
+ * are merged at the end, and {@link #of(Collection, int, ToDoubleFunction)} uses it in parallel
+ * for large collections. Null gemstones are ignored.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     List&lt;Gemstone&gt; mostValuable = GemstoneTopK.of(myList, 100, g -&gt; g.getPrice() * g.getWeight());
+ * </pre>
+ * </p>
+ *
+ * @see QuantileSketch
+ * @see GemstoneIndex#top(gemstones.GemstoneAttribute, int)
+ */
+public final class GemstoneTopK {
+
+    /**
+     * Size from which {@link #of(Collection, int, ToDoubleFunction)} selects in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final int k;
+    private final ToDoubleFunction<? super Gemstone> key;
+    private final double[] keys;
+    private final Gemstone[] values;
+    private int size = 0;
+
+    /**
+     * Constructs an empty selection of at most {@code k} gemstones.
+     *
+     * @param k the number of gemstones to select
+     * @param key the key to select the largest gemstones by
+     * @throws IllegalArgumentException if {@code k} is negative
+     * @throws NullPointerException if the key is null
+     */
+    public GemstoneTopK(int k, ToDoubleFunction<? super Gemstone> key) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid k");
+        }
+        this.k = k;
+        this.key = Objects.requireNonNull(key);
+        this.keys = new double[k];
+        this.values = new Gemstone[k];
+    }
+
+    /**
+     * Returns the {@code k} gemstones of a collection with the largest keys, largest first.
+     *
+     * @param gemstones the gemstones to select from
+     * @param k the number of gemstones to select
+     * @param key the key to select the largest gemstones by
+     * @return a new list of at most {@code k} gemstones
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public static List<Gemstone> of(Collection<? extends Gemstone> gemstones, int k, ToDoubleFunction<? super Gemstone> key) {
+        if (gemstones.size() >= PARALLEL_THRESHOLD) {
+            return gemstones.parallelStream().collect(collector(k, key)).toList();
+        }
+        GemstoneTopK topK = new GemstoneTopK(k, key);
+        for (Gemstone gemstone : gemstones) {
+            topK.add(gemstone);
+        }
+        return topK.toList();
+    }
+
+    /**
+     * Returns a collector that selects the {@code k} gemstones with the largest keys. It can be
+     * used in parallel streams, and with {@code Collectors.groupingBy} to select per group.
+     *
+     * @param k the number of gemstones to select
+     * @param key the key to select the largest gemstones by
+     * @return the collector
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public static Collector<Gemstone, ?, GemstoneTopK> collector(int k, ToDoubleFunction<? super Gemstone> key) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid k");
+        }
+        Objects.requireNonNull(key);
+        return Collector.of(() -> new GemstoneTopK(k, key), GemstoneTopK::add, GemstoneTopK::merge,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Offers a gemstone to the selection in O(log k) time, or O(1) if it is rejected.
+     *
+     * @param gemstone the gemstone, ignored if null
+     */
+    public void add(Gemstone gemstone) {
+        if (gemstone != null) {
+            offer(key.applyAsDouble(gemstone), gemstone);
+        }
+    }
+
+    /**
+     * Offers every gemstone selected by another selection to this one.
+     *
+     * @param other the other selection
+     * @return this selection
+     */
+    public GemstoneTopK merge(GemstoneTopK other) {
+        for (int i = 0; i < other.size; ++i) {
+            offer(other.keys[i], other.values[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of selected gemstones.
+     *
+     * @return the number of selected gemstones, at most {@code k}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the smallest key a gemstone must exceed to be selected.
+     *
+     * @return the smallest selected key, or negative infinity if fewer than {@code k} gemstones are selected
+     */
+    public double threshold() {
+        return size < k ? Double.NEGATIVE_INFINITY : keys[0];
+    }
+
+    /**
+     * Returns the selected gemstones, the one with the largest key first.
+     *
+     * @return a new list of the selected gemstones
+     */
+    public List<Gemstone> toList() {
+        double[] sortedKeys = Arrays.copyOf(keys, size);
+        Gemstone[] sortedValues = Arrays.copyOf(values, size);
+        for (int last = size - 1; last > 0; --last) {
+            swap(sortedKeys, sortedValues, 0, last);
+            siftDown(sortedKeys, sortedValues, 0, last);
+        }
+        return new ArrayList<>(Arrays.asList(sortedValues));
+    }
+
+    private void offer(double value, Gemstone gemstone) {
+        if (size < k) {
+            int child = size++;
+            keys[child] = value;
+            values[child] = gemstone;
+            while (child > 0) {
+                int parent = (child - 1) >>> 1;
+                if (Double.compare(keys[parent], keys[child]) <= 0) {
+                    break;
+                }
+                swap(keys, values, parent, child);
+                child = parent;
+            }
+        } else if (k > 0 && Double.compare(value, keys[0]) > 0) {
+            keys[0] = value;
+            values[0] = gemstone;
+            siftDown(keys, values, 0, size);
+        }
+    }
+
+    /**
+     * Restores the min-heap order of the first {@code size} entries below a position.
+     */
+    private static void siftDown(double[] keys, Gemstone[] values, int position, int size) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && Double.compare(keys[child + 1], keys[child]) < 0) {
+                ++child;
+            }
+            if (Double.compare(keys[position], keys[child]) <= 0) {
+                return;
+            }
+            swap(keys, values, position, child);
+            position = child;
+        }
+    }
+
+    private static void swap(double[] keys, Gemstone[] values, int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        Gemstone value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
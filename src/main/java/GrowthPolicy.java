@@ -0,0 +1,85 @@
+/**
+ * The {@code GrowthPolicy} interface decides how much the internal array of a
+ * {@link MyList} grows when it runs out of capacity.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     MyList gemstones = new MyList(1_000, GrowthPolicy.DOUBLING);
+ * </pre>
+ * </p>
+ *
+ * @see MyList#MyList(int, GrowthPolicy)
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+
+    /**
+     * The largest capacity a policy will ask for. Some virtual machines reserve
+     * header words in arrays, so requesting {@code Integer.MAX_VALUE} may fail.
+     */
+    int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * Grows the capacity by 50%, the same rate as {@code java.util.ArrayList}.
+     */
+    GrowthPolicy ONE_AND_A_HALF = factor(1.5);
+
+    /**
+     * Doubles the capacity, trading memory for fewer reallocations.
+     */
+    GrowthPolicy DOUBLING = factor(2);
+
+    /**
+     * Grows in chunks of 1024 references, which is one 4 KiB page with compressed references.
+     */
+    GrowthPolicy PAGE_SIZED = chunked(1024);
+
+    /**
+     * Returns the new capacity for an array that has to hold at least {@code minCapacity} elements.
+     * The caller uses at least {@code minCapacity}, even if a smaller value is returned.
+     *
+     * @param currentCapacity the current capacity of the array
+     * @param minCapacity the minimum capacity required, greater than {@code currentCapacity}
+     * @return the new capacity
+     */
+    int newCapacity(int currentCapacity, int minCapacity);
+
+    /**
+     * Returns a policy that multiplies the current capacity by the specified rate.
+     *
+     * @param rate the growth rate, must be greater than 1
+     * @return a geometric growth policy
+     * @throws IllegalArgumentException if the rate is not greater than 1
+     */
+    static GrowthPolicy factor(double rate) {
+        if (!(rate > 1)) {
+            throw new IllegalArgumentException("Invalid growth rate");
+        }
+        return (currentCapacity, minCapacity) -> clamp((long) (currentCapacity * rate));
+    }
+
+    /**
+     * Returns a policy that rounds the required capacity up to a multiple of the chunk size.
+     *
+     * @param chunkSize the number of elements added per growth step, must be positive
+     * @return a chunked growth policy
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    static GrowthPolicy chunked(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size");
+        }
+        return (currentCapacity, minCapacity) -> clamp(((long) minCapacity + chunkSize - 1) / chunkSize * chunkSize);
+    }
+
+    /**
+     * Limits a computed capacity to {@link #MAX_CAPACITY}.
+     *
+     * @param capacity the computed capacity
+     * @return the capacity, at most {@link #MAX_CAPACITY}
+     */
+    private static int clamp(long capacity) {
+        return (int) Math.min(capacity, MAX_CAPACITY);
+    }
+}
@@ -3,13 +3,21 @@ import gemstones.imp.Diamond;
 import gemstones.imp.Emerald;
 import gemstones.imp.Opal;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  *  C2 = 18 % 2 = 0
  *  C3 = 18 % 3 = 0
  */
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            importFeeds(args);
+            return;
+        }
+
         Agate agate = new Agate(1, 1, 1);
         Diamond diamond = new Diamond(1, 1, 1);
         Emerald emerald = new Emerald(1, 1, 1);
@@ -45,6 +53,19 @@ public class Main {
         displayMyList(list);
     }
 
+    /**
+     * Imports the CSV or JSON-lines feeds named on the command line into one list and prints
+     * the throughput of every import.
+     */
+    public static void importFeeds(String[] paths) throws IOException {
+        MyList list = new MyList();
+        GemstoneImporter importer = new GemstoneImporter();
+        for (String path : paths) {
+            System.out.println(path + ": " + importer.importFile(Path.of(path), list));
+        }
+        System.out.println("list.size(): " + list.size());
+    }
+
     public static void displayMyList(MyList list) {
         for(Object g : list.toArray())
             System.out.println(g);
@@ -0,0 +1,352 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+
+/**
+ * The {@code MappedGemstoneList} class is a read-only {@code List<Gemstone>} served directly
+ * from a memory-mapped gemstone inventory file. Opening a file only maps it and checks the
+ * header, so the cost does not depend on the number of gemstones; {@link #get(int)} reads
+ * the record from the mapping and creates the gemstone on demand.
+ *
+ * <p>
+ * File format, all values little-endian:
+ * <pre>
+ *     header      int magic "GEMS", short version, short dictionary size,
+ *                 long record count, long records offset
+ *     dictionary  per entry: byte code, byte name length, ASCII {@link GemstoneType} name
+ *     padding     up to the records offset, a multiple of 8
+ *     records     per gemstone: double weight, double price, double transparency, byte code
+ * </pre>
+ * The dictionary maps the codes used in the file to gemstone types by name, so files stay
+ * readable if {@link GemstoneType} codes change.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     MappedGemstoneList.write(path, myList);
+ *     try (MappedGemstoneList gemstones = MappedGemstoneList.open(path)) {
+ *         Gemstone first = gemstones.get(0);
+ *     }
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ * @see OffHeapGemstoneList
+ */
+public class MappedGemstoneList extends AbstractList<Gemstone> implements RandomAccess, AutoCloseable {
+
+    private static final int MAGIC = 0x534D4547;
+    private static final short VERSION = 1;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    /**
+     * Layout of the file header.
+     */
+    private static final StructLayout HEADER = MemoryLayout.structLayout(
+            INT.withName("magic"),
+            SHORT.withName("version"),
+            SHORT.withName("dictionarySize"),
+            LONG.withName("recordCount"),
+            LONG.withName("recordsOffset"));
+
+    /**
+     * Layout of a single gemstone record.
+     */
+    public static final StructLayout RECORD = MemoryLayout.structLayout(
+            DOUBLE.withName("weight"),
+            DOUBLE.withName("price"),
+            DOUBLE.withName("transparency"),
+            BYTE.withName("type"));
+
+    private static final long RECORD_SIZE = RECORD.byteSize();
+    private static final long WEIGHT_OFFSET = RECORD.byteOffset(groupElement("weight"));
+    private static final long PRICE_OFFSET = RECORD.byteOffset(groupElement("price"));
+    private static final long TRANSPARENCY_OFFSET = RECORD.byteOffset(groupElement("transparency"));
+    private static final long TYPE_OFFSET = RECORD.byteOffset(groupElement("type"));
+
+    /**
+     * The arena that owns the mapping.
+     */
+    private final Arena arena;
+
+    /**
+     * The records section of the mapped file.
+     */
+    private final MemorySegment records;
+
+    /**
+     * Gemstone types indexed by the (unsigned) codes used in the file.
+     */
+    private final GemstoneType[] types;
+
+    /**
+     * The number of gemstones in the file.
+     */
+    private final int currentAmountOfElements;
+
+    private MappedGemstoneList(Arena arena, MemorySegment records, GemstoneType[] types, int currentAmountOfElements) {
+        this.arena = arena;
+        this.records = records;
+        this.types = types;
+        this.currentAmountOfElements = currentAmountOfElements;
+    }
+
+    /**
+     * Writes the gemstones to an inventory file, replacing any existing file. The gemstones are
+     * validated first and written to a temporary file in the same directory, which then atomically
+     * replaces the target, so a failed write leaves any existing file unchanged.
+     *
+     * @param path the file to write
+     * @param gemstones the gemstones to store, in order
+     * @throws IOException if the file cannot be written
+     * @throws NullPointerException if any gemstone is null
+     * @throws IllegalArgumentException if a gemstone is not of a known class
+     */
+    public static void write(Path path, Collection<? extends Gemstone> gemstones) throws IOException {
+        for (Gemstone gemstone : gemstones) {
+            GemstoneType.of(Objects.requireNonNull(gemstone));
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            writeRecords(temporary, gemstones);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Writes an inventory file. The magic number is written last, so that a file abandoned
+     * half-way is never taken for a valid inventory.
+     *
+     * @param path the file to write, which is truncated
+     * @param gemstones the gemstones to store, in order
+     * @throws IOException if the file cannot be written or the collection changed while writing
+     */
+    private static void writeRecords(Path path, Collection<? extends Gemstone> gemstones) throws IOException {
+        GemstoneType[] dictionary = GemstoneType.values();
+        long dictionarySize = 0;
+        for (GemstoneType type : dictionary) {
+            dictionarySize += 2 + type.name().length();
+        }
+        long recordsOffset = (HEADER.byteSize() + dictionarySize + 7) & ~7L;
+        long count = gemstones.size();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0, recordsOffset + count * RECORD_SIZE, arena);
+
+            file.set(SHORT, HEADER.byteOffset(groupElement("version")), VERSION);
+            file.set(SHORT, HEADER.byteOffset(groupElement("dictionarySize")), (short) dictionary.length);
+            file.set(LONG, HEADER.byteOffset(groupElement("recordCount")), count);
+            file.set(LONG, HEADER.byteOffset(groupElement("recordsOffset")), recordsOffset);
+
+            long offset = HEADER.byteSize();
+            for (GemstoneType type : dictionary) {
+                byte[] name = type.name().getBytes(StandardCharsets.US_ASCII);
+                file.set(BYTE, offset, type.code());
+                file.set(BYTE, offset + 1, (byte) name.length);
+                MemorySegment.copy(name, 0, file, BYTE, offset + 2, name.length);
+                offset += 2 + name.length;
+            }
+
+            offset = recordsOffset;
+            long written = 0;
+            for (Gemstone gemstone : gemstones) {
+                if (written++ == count) {
+                    throw new IOException("Collection changed while writing");
+                }
+                file.set(DOUBLE, offset + WEIGHT_OFFSET, gemstone.getWeight());
+                file.set(DOUBLE, offset + PRICE_OFFSET, gemstone.getPrice());
+                file.set(DOUBLE, offset + TRANSPARENCY_OFFSET, gemstone.getTransparency());
+                file.set(BYTE, offset + TYPE_OFFSET, GemstoneType.of(gemstone).code());
+                offset += RECORD_SIZE;
+            }
+            if (written != count) {
+                throw new IOException("Collection changed while writing");
+            }
+
+            file.set(INT, HEADER.byteOffset(groupElement("magic")), MAGIC);
+            file.force();
+        }
+    }
+
+    /**
+     * Maps an inventory file. Only the header and the dictionary are read.
+     *
+     * @param path the file to open
+     * @return a read-only list over the records of the file
+     * @throws IOException if the file cannot be read or is not a valid inventory file
+     */
+    public static MappedGemstoneList open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (file.byteSize() < HEADER.byteSize()
+                    || file.get(INT, HEADER.byteOffset(groupElement("magic"))) != MAGIC) {
+                throw new IOException("Not a gemstone inventory file: " + path);
+            }
+            if (file.get(SHORT, HEADER.byteOffset(groupElement("version"))) != VERSION) {
+                throw new IOException("Unsupported inventory file version: " + path);
+            }
+
+            int dictionarySize = file.get(SHORT, HEADER.byteOffset(groupElement("dictionarySize")));
+            long count = file.get(LONG, HEADER.byteOffset(groupElement("recordCount")));
+            long recordsOffset = file.get(LONG, HEADER.byteOffset(groupElement("recordsOffset")));
+            if (count < 0 || count > GrowthPolicy.MAX_CAPACITY || recordsOffset < HEADER.byteSize()
+                    || recordsOffset + count * RECORD_SIZE > file.byteSize()) {
+                throw new IOException("Truncated inventory file: " + path);
+            }
+
+            GemstoneType[] types = new GemstoneType[256];
+            long offset = HEADER.byteSize();
+            for (int i = 0; i < dictionarySize; ++i) {
+                if (offset + 2 > recordsOffset) {
+                    throw new IOException("Truncated inventory file: " + path);
+                }
+                int code = Byte.toUnsignedInt(file.get(BYTE, offset));
+                int length = Byte.toUnsignedInt(file.get(BYTE, offset + 1));
+                if (offset + 2 + length > recordsOffset) {
+                    throw new IOException("Truncated inventory file: " + path);
+                }
+                byte[] name = new byte[length];
+                MemorySegment.copy(file, BYTE, offset + 2, name, 0, length);
+                try {
+                    types[code] = GemstoneType.valueOf(new String(name, StandardCharsets.US_ASCII));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Unknown gemstone type in inventory file: " + path, e);
+                }
+                offset += 2 + length;
+            }
+
+            MemorySegment records = file.asSlice(recordsOffset, count * RECORD_SIZE);
+            return new MappedGemstoneList(arena, records, types, (int) count);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the weight of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the weight of the gemstone in carats
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double weightAt(int index) {
+        checkIndex(index);
+        return records.get(DOUBLE, index * RECORD_SIZE + WEIGHT_OFFSET);
+    }
+
+    /**
+     * Returns the price of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the price of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double priceAt(int index) {
+        checkIndex(index);
+        return records.get(DOUBLE, index * RECORD_SIZE + PRICE_OFFSET);
+    }
+
+    /**
+     * Returns the transparency of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the transparency of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double transparencyAt(int index) {
+        checkIndex(index);
+        return records.get(DOUBLE, index * RECORD_SIZE + TRANSPARENCY_OFFSET);
+    }
+
+    /**
+     * Returns the type of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the type of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if the record has a code missing from the dictionary
+     */
+    public GemstoneType typeAt(int index) {
+        checkIndex(index);
+        GemstoneType type = types[Byte.toUnsignedInt(records.get(BYTE, index * RECORD_SIZE + TYPE_OFFSET))];
+        if (type == null) {
+            throw new IllegalStateException("Corrupted record at index " + index);
+        }
+        return type;
+    }
+
+    /**
+     * Returns the number of gemstones in the file.
+     *
+     * @return the number of gemstones
+     */
+    @Override
+    public int size() {
+        return currentAmountOfElements;
+    }
+
+    /**
+     * Creates a gemstone from the record stored at the specified position.
+     *
+     * @param index index of the gemstone to return
+     * @return a new gemstone equal to the one stored at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the record holds values that are not valid for a gemstone
+     */
+    @Override
+    public Gemstone get(int index) {
+        return typeAt(index).create(weightAt(index), priceAt(index), transparencyAt(index));
+    }
+
+    /**
+     * Unmaps the file. Closing an already closed list has no effect.
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+    /**
+     * Checks that the index refers to a stored gemstone.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= currentAmountOfElements) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+    }
+}
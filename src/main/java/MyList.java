@@ -1,6 +1,9 @@
 import gemstones.Gemstone;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * The {@code MyList} class is a custom implementation of a dynamic array
@@ -10,11 +13,31 @@ import java.util.*;
  *
  * The internal array grows automatically when the number of gemstones exceeds
  * the current capacity. By default, the array has a capacity of 15 elements,
- * and it increases by 30% when the array is full.
+ * and it increases by 50% when the array is full. Both can be changed through
+ * {@link #MyList(int, GrowthPolicy)}, and the capacity can be managed directly
+ * with {@link #ensureCapacity(int)} and {@link #trimToSize()}.
  *
  * This class also provides two custom iterators: {@code GemstoneIterator} and
  * {@code GemstoneListIterator}, which allow traversing the list in forward and
- * backward directions.
+ * backward directions, and a {@code GemstoneSpliterator} that splits the internal
+ * array into halves for parallel streams.
+ *
+ * Insertions shift the tail of the internal array in place. In gap-buffer mode
+ * (see {@link #setGapBufferMode(boolean)}) the spare capacity is instead kept as a
+ * movable gap at the last insertion point, so clustered insertions and removals,
+ * such as those made through {@link ListIterator#add}, cost O(1) amortized.
+ *
+ * The iterators are fail-fast: a structural modification made other than through the
+ * iterator itself makes them throw a {@link ConcurrentModificationException}. In snapshot
+ * iteration mode (see {@link #setSnapshotIterationMode(boolean)}) {@link #iterator()} and
+ * {@link #spliterator()} instead traverse the list as it was when they were created.
+ *
+ * In hash-index mode (see {@link #setHashIndexMode(boolean)}) the list keeps a hash
+ * index of its elements, so {@link #contains(Object)}, {@link #indexOf(Object)} and
+ * {@link #remove(Object)} do not have to scan the whole list. In interning mode (see
+ * {@link #setInterningMode(boolean)}) equal gemstones are stored as one shared instance.
+ * Other derived structures can follow every change of the list through a
+ * {@link GemstoneListListener}.
  *
  * <p>
  * Example usage:
@@ -38,12 +61,23 @@ public class MyList implements List<Gemstone> {
     /**
      * Default initial capacity of the list.
      */
-    private final int DEFAULT_MAX_SIZE = 15;
+    private static final int DEFAULT_MAX_SIZE = 15;
+
+    /**
+     * Size above which {@link #removeAll(Collection)} and {@link #retainAll(Collection)} copy
+     * an argument that is not a {@link Set} into a {@link HashSet} before the removal pass.
+     */
+    private static final int HASH_LOOKUP_THRESHOLD = 16;
+
+    /**
+     * The capacity the list starts with and returns to on {@link #clear()}.
+     */
+    private final int initialMaxSize;
 
     /**
      * The current maximum size of the list.
      */
-    private int currentMaxSize = DEFAULT_MAX_SIZE;
+    private int currentMaxSize;
 
     /**
      * The number of gemstones currently in the list.
@@ -51,10 +85,64 @@ public class MyList implements List<Gemstone> {
     private int currentAmountOfElements = 0;
 
     /**
-     * The rate at which the internal array grows when resizing is required.
-     * The array size increases by 30% when full.
+     * The policy that decides the new capacity when resizing is required.
+     */
+    private final GrowthPolicy growthPolicy;
+
+    /**
+     * Whether the list keeps its spare capacity as a movable gap at the last insertion point.
+     */
+    private boolean gapBufferMode = false;
+
+    /**
+     * The index of the first element stored after the gap, or -1 if the gap is
+     * at the end of the internal array. Only used in gap-buffer mode.
+     */
+    private int gapStart = -1;
+
+    /**
+     * The number of times the list has been structurally modified. Iterators compare it with
+     * the value they expect to detect concurrent modification.
+     */
+    private int modCount = 0;
+
+    /**
+     * Whether {@link #iterator()} and {@link #spliterator()} traverse snapshots of the list.
+     */
+    private boolean snapshotIterationMode = false;
+
+    /**
+     * Whether the internal array is referenced by a snapshot, so that it must be copied before
+     * any element already in the list is overwritten or moved.
+     */
+    private boolean elementsShared = false;
+
+    /**
+     * The interner that canonicalizes added elements, or {@code null} if interning mode is disabled.
+     */
+    private GemstoneInterner interner = null;
+
+    /**
+     * The listeners notified of every change, or {@code null} if there are none.
+     */
+    private List<GemstoneListListener> listeners = null;
+
+    /**
+     * The number of occurrences of every element, or {@code null} if hash-index mode is disabled.
+     */
+    private HashMap<Gemstone, Integer> occurrences = null;
+
+    /**
+     * The first position of every element within the first {@link #indexedPrefix} elements.
+     * An entry is stale if its position is at or after {@code indexedPrefix} or no longer holds
+     * the element. Only used in hash-index mode.
      */
-    private final double extensionRate = 1.3;
+    private HashMap<Gemstone, Integer> firstPositions = null;
+
+    /**
+     * The number of leading elements whose first positions are recorded in {@link #firstPositions}.
+     */
+    private int indexedPrefix = 0;
 
     /**
      * The {@code GemstoneIterator} class is an implementation of the
@@ -63,6 +151,8 @@ public class MyList implements List<Gemstone> {
      */
     private class GemstoneIterator implements Iterator<Gemstone> {
         private int cursor = 0;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
 
         /**
          * Returns {@code true} if the iteration has more elements.
@@ -79,27 +169,37 @@ public class MyList implements List<Gemstone> {
          *
          * @return the next gemstone in the list
          * @throws NoSuchElementException if the iteration has no more elements
+         * @throws ConcurrentModificationException if the list was structurally modified
          */
         @Override
         public Gemstone next() {
+            checkForComodification(expectedModCount);
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            return elements[cursor++];
+            lastReturned = cursor;
+            return elements[physicalIndex(cursor++)];
         }
 
         /**
          * Removes from the underlying collection the last element returned
          * by this iterator.
          *
-         * @throws IllegalStateException if {@code next()} has not yet been called
+         * @throws IllegalStateException if {@code next()} has not yet been called,
+         * or if the element has already been removed
+         * @throws ConcurrentModificationException if the list was structurally modified
          */
         @Override
         public void remove() {
-            if (cursor <= 0) {
+            if (lastReturned < 0) {
                 throw new IllegalStateException();
             }
-            MyList.this.remove(--cursor);
+            checkForComodification(expectedModCount);
+
+            MyList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
         }
     }
 
@@ -111,6 +211,7 @@ public class MyList implements List<Gemstone> {
     private class GemstoneListIterator implements ListIterator<Gemstone> {
         private int cursor;
         private int lastReturned = -1;
+        private int expectedModCount = modCount;
 
         /**
          * Constructs a {@code GemstoneListIterator} starting at the specified index.
@@ -136,14 +237,16 @@ public class MyList implements List<Gemstone> {
          *
          * @return the next gemstone in the list
          * @throws NoSuchElementException if the iteration has no more elements
+         * @throws ConcurrentModificationException if the list was structurally modified
          */
         @Override
         public Gemstone next() {
+            checkForComodification(expectedModCount);
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
             lastReturned = cursor;
-            return elements[cursor++];
+            return elements[physicalIndex(cursor++)];
         }
 
         /**
@@ -161,14 +264,16 @@ public class MyList implements List<Gemstone> {
          *
          * @return the previous gemstone in the list
          * @throws NoSuchElementException if the iteration has no more elements
+         * @throws ConcurrentModificationException if the list was structurally modified
          */
         @Override
         public Gemstone previous() {
+            checkForComodification(expectedModCount);
             if (!hasPrevious()) {
                 throw new NoSuchElementException();
             }
             lastReturned = --cursor;
-            return elements[cursor];
+            return elements[physicalIndex(cursor)];
         }
 
         /**
@@ -199,16 +304,19 @@ public class MyList implements List<Gemstone> {
          *
          * @throws IllegalStateException if {@code next()} or {@code previous()} hasn't been called,
          * or if the element has already been removed.
+         * @throws ConcurrentModificationException if the list was structurally modified
          */
         @Override
         public void remove() {
             if (lastReturned < 0) {
                 throw new IllegalStateException();
             }
+            checkForComodification(expectedModCount);
 
             MyList.this.remove(lastReturned);
             cursor = lastReturned;
             lastReturned = -1;
+            expectedModCount = modCount;
         }
 
         /**
@@ -219,14 +327,16 @@ public class MyList implements List<Gemstone> {
          * @param gemstone the gemstone to replace the last element returned by the iterator
          * @throws IllegalStateException if {@code next()} or {@code previous()} hasn't been called,
          * or if the element has already been replaced or removed.
+         * @throws ConcurrentModificationException if the list was structurally modified
          */
         @Override
         public void set(Gemstone gemstone) {
             if (lastReturned < 0) {
                 throw new IllegalStateException();
             }
+            checkForComodification(expectedModCount);
 
-            elements[lastReturned] = gemstone;
+            MyList.this.set(lastReturned, gemstone);
         }
 
         /**
@@ -236,20 +346,371 @@ public class MyList implements List<Gemstone> {
          * returned by {@link #previous()}, if any.
          *
          * @param gemstone the gemstone to be added to the list
+         * @throws ConcurrentModificationException if the list was structurally modified
          */
         @Override
         public void add(Gemstone gemstone) {
+            checkForComodification(expectedModCount);
             MyList.this.add(cursor++, gemstone);
             lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+    }
+
+    /**
+     * The {@code GemstoneSpliterator} class is an implementation of the
+     * {@code Spliterator<Gemstone>} interface over a range of the internal array.
+     * Splitting halves the range, so parallel streams get evenly sized tasks.
+     * The end of the range is bound to the size of the list on first use.
+     */
+    private class GemstoneSpliterator implements Spliterator<Gemstone> {
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        /**
+         * Constructs a {@code GemstoneSpliterator} over the specified range.
+         *
+         * @param origin the index of the first element
+         * @param fence the index after the last element, or -1 to use the size of the list
+         * @param expectedModCount the modification count the list is expected to have
+         */
+        public GemstoneSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Returns the end of the range, binding it to the size of the list on first use.
+         *
+         * @return the index after the last element
+         */
+        private int getFence() {
+            if (fence < 0) {
+                closeGap();
+                fence = currentAmountOfElements;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        /**
+         * Splits off the first half of the remaining range.
+         *
+         * @return a spliterator over the first half, or {@code null} if the range is too small to split
+         */
+        @Override
+        public Spliterator<Gemstone> trySplit() {
+            int high = getFence();
+            int middle = (index + high) >>> 1;
+            if (index >= middle) {
+                return null;
+            }
+            Spliterator<Gemstone> prefix = new GemstoneSpliterator(index, middle, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+
+        /**
+         * Performs the action on the next element, if any.
+         *
+         * @param action the action to perform
+         * @return {@code false} if no elements remained
+         * @throws ConcurrentModificationException if the list was structurally modified
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super Gemstone> action) {
+            Objects.requireNonNull(action);
+            if (index >= getFence()) {
+                return false;
+            }
+            action.accept(elements[index++]);
+            checkForComodification(expectedModCount);
+            return true;
+        }
+
+        /**
+         * Performs the action on every remaining element, reading the array without per-element checks.
+         *
+         * @param action the action to perform
+         * @throws ConcurrentModificationException if the list was structurally modified
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super Gemstone> action) {
+            Objects.requireNonNull(action);
+            int high = getFence();
+            Gemstone[] array = elements;
+            for (int i = index; i < high; ++i) {
+                action.accept(array[i]);
+            }
+            index = high;
+            checkForComodification(expectedModCount);
+        }
+
+        /**
+         * Returns the number of remaining elements.
+         *
+         * @return the number of remaining elements
+         */
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        /**
+         * Returns the characteristics of this spliterator.
+         *
+         * @return {@code ORDERED}, {@code SIZED} and {@code SUBSIZED}
+         */
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * The {@code SnapshotIterator} class is an implementation of the
+     * {@code Iterator<Gemstone>} interface over the elements the list held when it
+     * was created. It shares the internal array with the list, which copies the
+     * array before its next write to an existing element.
+     */
+    private static class SnapshotIterator implements Iterator<Gemstone> {
+        private final Gemstone[] snapshot;
+        private final int size;
+        private int cursor = 0;
+
+        /**
+         * Constructs a {@code SnapshotIterator} over the first {@code size} elements of the array.
+         *
+         * @param snapshot the shared array
+         * @param size the number of elements in the snapshot
+         */
+        public SnapshotIterator(Gemstone[] snapshot, int size) {
+            this.snapshot = snapshot;
+            this.size = size;
+        }
+
+        /**
+         * Returns {@code true} if the iteration has more elements.
+         *
+         * @return {@code true} if there are more elements to iterate over
+         */
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        /**
+         * Returns the next gemstone in the iteration.
+         *
+         * @return the next gemstone in the snapshot
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public Gemstone next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return snapshot[cursor++];
+        }
+    }
+
+    /**
+     * The {@code SubList} class is a view of a range of the list returned by {@link #subList(int, int)}.
+     * Every read and write goes through the list, so changes are visible both ways, and structural
+     * changes made through the view move the end of the range and of every enclosing view.
+     * A structural change made to the list other than through the view makes the view throw a
+     * {@link ConcurrentModificationException}.
+     */
+    private class SubList extends AbstractList<Gemstone> implements RandomAccess {
+        private final SubList parent;
+        private final int offset;
+        private int size;
+
+        /**
+         * Constructs a {@code SubList} over {@code size} elements of the list starting at {@code offset}.
+         *
+         * @param parent the enclosing view, or {@code null} for a view of the list itself
+         * @param offset the index in the list of the first element of the view
+         * @param size the number of elements in the view
+         */
+        public SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.modCount = MyList.this.modCount;
+        }
+
+        @Override
+        public int size() {
+            checkComodification();
+            return size;
+        }
+
+        @Override
+        public Gemstone get(int index) {
+            checkIndex(index);
+            checkComodification();
+            return MyList.this.get(offset + index);
+        }
+
+        @Override
+        public Gemstone set(int index, Gemstone element) {
+            checkIndex(index);
+            checkComodification();
+            return MyList.this.set(offset + index, element);
+        }
+
+        @Override
+        public void add(int index, Gemstone element) {
+            checkPositionIndex(index);
+            checkComodification();
+            MyList.this.add(offset + index, element);
+            updateSizeAndModCount(1);
+        }
+
+        @Override
+        public Gemstone remove(int index) {
+            checkIndex(index);
+            checkComodification();
+            Gemstone removed = MyList.this.remove(offset + index);
+            updateSizeAndModCount(-1);
+            return removed;
+        }
+
+        /**
+         * Removes the elements between the specified indices of the view with a single shift
+         * of the rest of the list. {@link #clear()} removes the whole view this way.
+         */
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            checkComodification();
+            MyList.this.removeRange(offset + fromIndex, offset + toIndex);
+            updateSizeAndModCount(fromIndex - toIndex);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Gemstone> c) {
+            return addAll(size, c);
         }
 
+        @Override
+        public boolean addAll(int index, Collection<? extends Gemstone> c) {
+            checkPositionIndex(index);
+            checkComodification();
+            int oldSize = currentAmountOfElements;
+            MyList.this.addAll(offset + index, c);
+            updateSizeAndModCount(currentAmountOfElements - oldSize);
+            return currentAmountOfElements != oldSize;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Gemstone> filter) {
+            Objects.requireNonNull(filter);
+            checkComodification();
+            int oldSize = currentAmountOfElements;
+            boolean modified = batchRemove(filter, offset, offset + size);
+            if (modified) {
+                updateSizeAndModCount(currentAmountOfElements - oldSize);
+            }
+            return modified;
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            Collection<?> lookup = toLookup(c);
+            return removeIf(lookup::contains);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            Collection<?> lookup = toLookup(c);
+            return removeIf(gemstone -> !lookup.contains(gemstone));
+        }
+
+        @Override
+        public void sort(Comparator<? super Gemstone> c) {
+            checkComodification();
+            sortRange(offset, offset + size, c);
+            updateSizeAndModCount(0);
+        }
+
+        @Override
+        public List<Gemstone> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("Invalid index");
+            }
+            checkComodification();
+            return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+        }
+
+        private void checkPositionIndex(int index) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+        }
+
+        private void checkComodification() {
+            if (MyList.this.modCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /**
+         * Adjusts the size of this view and of every enclosing view after a structural change
+         * made through this view, and records the new modification count of the list.
+         *
+         * @param sizeChange the number of elements added, or minus the number removed
+         */
+        private void updateSizeAndModCount(int sizeChange) {
+            for (SubList view = this; view != null; view = view.parent) {
+                view.size += sizeChange;
+                view.modCount = MyList.this.modCount;
+            }
+        }
     }
 
     /**
      * Constructs an empty {@code MyList} with the default initial capacity.
      */
     public MyList() {
-        elements = new Gemstone[currentMaxSize];
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs an empty {@code MyList} with the specified initial capacity.
+     *
+     * @param initialCapacity the initial capacity of the list
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public MyList(int initialCapacity) {
+        this(initialCapacity, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    /**
+     * Constructs an empty {@code MyList} with the specified initial capacity and growth policy.
+     *
+     * @param initialCapacity the initial capacity of the list
+     * @param growthPolicy the policy used to grow the internal array
+     * @throws IllegalArgumentException if the initial capacity is negative
+     * @throws NullPointerException if the growth policy is null
+     */
+    public MyList(int initialCapacity, GrowthPolicy growthPolicy) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        this.growthPolicy = Objects.requireNonNull(growthPolicy);
+        this.initialMaxSize = initialCapacity;
+        this.currentMaxSize = initialCapacity;
+        this.elements = new Gemstone[initialCapacity];
     }
 
     /**
@@ -268,7 +729,7 @@ public class MyList implements List<Gemstone> {
      * @param gemstones the collection of gemstones to be added to the list
      */
     public MyList(Collection<Gemstone> gemstones) {
-        this();
+        this(Math.max(DEFAULT_MAX_SIZE, gemstones.size()));
         this.addAll(gemstones);
     }
 
@@ -282,6 +743,16 @@ public class MyList implements List<Gemstone> {
         return currentAmountOfElements;
     }
 
+    /**
+     * Returns the number of times the list has been structurally modified, for wrappers whose
+     * iterators detect concurrent modification of the lists they are built on.
+     *
+     * @return the modification count
+     */
+    int modCount() {
+        return modCount;
+    }
+
     /**
      * Returns {@code true} if this list contains no elements.
      *
@@ -319,12 +790,23 @@ public class MyList implements List<Gemstone> {
      */
     @Override
     public boolean contains(Object o) {
+        if (o == null) {
+            return indexOf(null) >= 0;
+        }
         if (!(o instanceof Gemstone gemstone)) {
             return false;
         }
 
+        if (occurrences != null) {
+            return occurrences.containsKey(gemstone);
+        }
+        if (interner != null) {
+            return canonicalIndexOf(gemstone) >= 0;
+        }
+
+        closeGap();
         for (int i = 0; i < currentAmountOfElements; ++i) {
-            if (elements[i].equals(gemstone)) {
+            if (gemstone.equals(elements[i])) {
                 return true;
             }
         }
@@ -339,6 +821,7 @@ public class MyList implements List<Gemstone> {
      */
     @Override
     public Object[] toArray() {
+        closeGap();
         return Arrays.copyOf(elements, currentAmountOfElements);
     }
 
@@ -358,6 +841,7 @@ public class MyList implements List<Gemstone> {
      */
     @Override
     public <T> T[] toArray(T[] a) {
+        closeGap();
         if (a.length < currentAmountOfElements) {
             return (T[]) Arrays.copyOf(elements, currentAmountOfElements, a.getClass());
         }
@@ -374,11 +858,15 @@ public class MyList implements List<Gemstone> {
 
     /**
      * Returns a view of the portion of this list between the specified {@code fromIndex}, inclusive,
-     * and {@code toIndex}, exclusive. The returned list is immutable and backed by the array.
+     * and {@code toIndex}, exclusive. The view is created in O(1) without copying: reads and writes
+     * go through to this list, {@code subList(from, to).clear()} removes the range with a single
+     * shift, and {@code sort}, {@code removeIf}, {@code removeAll} and {@code retainAll} work on the
+     * range in place. Views of views are supported. Structural changes made to this list other than
+     * through the view make the view throw a {@link ConcurrentModificationException}.
      *
      * @param fromIndex low endpoint (inclusive) of the subList
      * @param toIndex high endpoint (exclusive) of the subList
-     * @return a list containing the elements between the specified indices
+     * @return a view of the elements between the specified indices
      * @throws IndexOutOfBoundsException if {@code fromIndex} is negative, {@code toIndex} is greater
      *         than the size of the list, or {@code fromIndex} is greater than {@code toIndex}
      */
@@ -388,10 +876,50 @@ public class MyList implements List<Gemstone> {
             throw new IndexOutOfBoundsException("Invalid index");
         }
 
-        Gemstone[] elementsToReturn = new Gemstone[toIndex - fromIndex];
-        System.arraycopy(elements, fromIndex, elementsToReturn, 0, toIndex - fromIndex);
+        return new SubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Removes the elements between the specified indices, shifting the rest of the list
+     * to the left once.
+     *
+     * @param fromIndex index of the first element to be removed
+     * @param toIndex index after the last element to be removed
+     */
+    private void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+
+        closeGap();
+        unshareElements();
+        for (int i = fromIndex; i < toIndex; ++i) {
+            elementRemoved(elements[i]);
+        }
+        invalidatePositionsFrom(fromIndex);
+        ++modCount;
+
+        int newSize = currentAmountOfElements - (toIndex - fromIndex);
+        System.arraycopy(elements, toIndex, elements, fromIndex, currentAmountOfElements - toIndex);
+        Arrays.fill(elements, newSize, currentAmountOfElements, null);
+        currentAmountOfElements = newSize;
+    }
 
-        return List.of(elementsToReturn);
+    /**
+     * Sorts the elements between the specified indices in place. The sort is stable.
+     *
+     * @param fromIndex index of the first element to be sorted
+     * @param toIndex index after the last element to be sorted
+     * @param c the comparator used to compare elements, or {@code null} to use their natural ordering
+     */
+    private void sortRange(int fromIndex, int toIndex, Comparator<? super Gemstone> c) {
+        closeGap();
+        unshareElements();
+        int expectedModCount = modCount;
+        Arrays.sort(elements, fromIndex, toIndex, c);
+        invalidatePositionsFrom(fromIndex);
+        checkForComodification(expectedModCount);
+        ++modCount;
     }
 
     /**
@@ -403,24 +931,78 @@ public class MyList implements List<Gemstone> {
     @Override
     public boolean add(Gemstone element) {
         try {
+            element = intern(element);
+            closeGap();
             if (currentAmountOfElements == currentMaxSize) {
                 extend();
             }
+            indexAppended(element);
             elements[currentAmountOfElements++] = element;
-            return true;
+            ++modCount;
         } catch (Exception e) {
             return false;
         }
+        elementAdded(element);
+        return true;
     }
 
     /**
      * Extends the size of the internal array when the list's capacity is reached.
      */
     private void extend() {
-        currentMaxSize = (int) (currentMaxSize * extensionRate);
-        Gemstone[] newElements = new Gemstone[currentMaxSize];
-        System.arraycopy(elements, 0, newElements, 0, currentAmountOfElements);
-        elements = newElements;
+        grow(currentAmountOfElements + 1);
+    }
+
+    /**
+     * Reallocates the internal array so that it can hold at least {@code minCapacity}
+     * elements, using the growth policy. The gap must be closed.
+     *
+     * @param minCapacity the minimum capacity required
+     * @throws OutOfMemoryError if {@code minCapacity} exceeds the maximum array size
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > GrowthPolicy.MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        currentMaxSize = Math.max(minCapacity, growthPolicy.newCapacity(currentMaxSize, minCapacity));
+        elements = Arrays.copyOf(elements, currentMaxSize);
+        elementsShared = false;
+        ++modCount;
+    }
+
+    /**
+     * Increases the capacity of this list, if necessary, so that it can hold at least
+     * the specified number of elements without reallocating the internal array.
+     *
+     * @param minCapacity the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > currentMaxSize) {
+            closeGap();
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Trims the capacity of this list to its current size, releasing unused memory.
+     */
+    public void trimToSize() {
+        closeGap();
+        if (currentAmountOfElements < currentMaxSize) {
+            currentMaxSize = currentAmountOfElements;
+            elements = Arrays.copyOf(elements, currentMaxSize);
+            elementsShared = false;
+            ++modCount;
+        }
+    }
+
+    /**
+     * Returns the number of elements the list can hold without reallocating its internal array.
+     *
+     * @return the current capacity of the list
+     */
+    public int capacity() {
+        return currentMaxSize;
     }
 
     /**
@@ -438,22 +1020,415 @@ public class MyList implements List<Gemstone> {
         if (index < 0 || index > currentAmountOfElements) {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + currentAmountOfElements);
         }
+        element = intern(element);
 
         if (currentAmountOfElements == currentMaxSize) {
+            closeGap();
             extend();
         }
 
-        Gemstone[] copy = new Gemstone[currentMaxSize];
-        System.arraycopy(elements, 0, copy, 0, index);
-        copy[index] = element;
-        System.arraycopy(elements, index, copy, index + 1, currentAmountOfElements - index - 1);
-
-        ++currentAmountOfElements;
-        elements = copy;
+        unshareElements();
+        invalidatePositionsFrom(index);
+        ++modCount;
+
+        if (gapBufferMode) {
+            moveGapTo(index);
+            elements[index] = element;
+            ++currentAmountOfElements;
+            gapStart = index + 1;
+            if (gapStart == currentAmountOfElements || currentAmountOfElements == currentMaxSize) {
+                gapStart = -1;
+            }
+        } else {
+            System.arraycopy(elements, index, elements, index + 1, currentAmountOfElements - index);
+            elements[index] = element;
+            ++currentAmountOfElements;
+        }
+        elementAdded(element);
     }
 
     /**
-     * Appends all the elements in the specified collection to the end of this list,
+     * Returns whether the list is in gap-buffer mode.
+     *
+     * @return {@code true} if the spare capacity is kept as a movable gap
+     * @see #setGapBufferMode(boolean)
+     */
+    public boolean isGapBufferMode() {
+        return gapBufferMode;
+    }
+
+    /**
+     * Enables or disables gap-buffer mode. In gap-buffer mode {@link #add(int, Gemstone)} and
+     * {@link #remove(int)} move the gap to the affected position and leave it there, so a run of
+     * edits around the same index shifts only the elements between consecutive edit points.
+     * Operations that scan the whole list first move the gap back to the end.
+     *
+     * @param enabled {@code true} to enable gap-buffer mode, {@code false} to disable it
+     */
+    public void setGapBufferMode(boolean enabled) {
+        if (!enabled) {
+            closeGap();
+        }
+        gapBufferMode = enabled;
+    }
+
+    /**
+     * Maps an index of the list to a position in the internal array, skipping the gap.
+     *
+     * @param index index of an element in the list
+     * @return position of the element in {@code elements}
+     */
+    private int physicalIndex(int index) {
+        if (gapStart < 0 || index < gapStart) {
+            return index;
+        }
+        return index + currentMaxSize - currentAmountOfElements;
+    }
+
+    /**
+     * Moves the gap so that it starts at the specified index of the list. Only the elements
+     * between the old and the new gap position are shifted, and vacated slots are cleared.
+     *
+     * @param index the new start of the gap, {@code 0 <= index <= size()}
+     */
+    private void moveGapTo(int index) {
+        int start = gapStart < 0 ? currentAmountOfElements : gapStart;
+        int gapLength = currentMaxSize - currentAmountOfElements;
+        if (gapLength == 0) {
+            gapStart = index;
+            return;
+        }
+
+        if (index < start) {
+            System.arraycopy(elements, index, elements, index + gapLength, start - index);
+            Arrays.fill(elements, index, Math.min(start, index + gapLength), null);
+        } else if (index > start) {
+            System.arraycopy(elements, start + gapLength, elements, start, index - start);
+            Arrays.fill(elements, Math.max(index, start + gapLength), index + gapLength, null);
+        }
+
+        gapStart = index;
+    }
+
+    /**
+     * Moves the gap back to the end of the internal array, so that the elements
+     * occupy positions {@code 0} to {@code size() - 1}.
+     */
+    private void closeGap() {
+        if (gapStart < 0) {
+            return;
+        }
+        moveGapTo(currentAmountOfElements);
+        gapStart = -1;
+    }
+
+    /**
+     * Returns whether the list is in hash-index mode.
+     *
+     * @return {@code true} if the list keeps a hash index of its elements
+     * @see #setHashIndexMode(boolean)
+     */
+    public boolean isHashIndexMode() {
+        return occurrences != null;
+    }
+
+    /**
+     * Enables or disables hash-index mode. In hash-index mode the list counts the occurrences of
+     * every element in a hash map, so {@link #contains(Object)} is O(1) and {@link #indexOf(Object)},
+     * {@link #lastIndexOf(Object)} and {@link #remove(Object)} return immediately for absent elements.
+     * The first position of every element is also recorded; appends keep it up to date, while an
+     * insertion, removal or replacement at an index only discards the positions from that index on,
+     * and the next {@code indexOf} rebuilds them up to the element it finds.
+     *
+     * Enabling the mode builds the index in O(n). Gemstones must not be modified through their
+     * setters while they are in an indexed list, because the index relies on their hash codes.
+     *
+     * @param enabled {@code true} to enable hash-index mode, {@code false} to disable it
+     */
+    public void setHashIndexMode(boolean enabled) {
+        if (!enabled) {
+            occurrences = null;
+            firstPositions = null;
+            indexedPrefix = 0;
+            return;
+        }
+        if (occurrences != null) {
+            return;
+        }
+
+        occurrences = new HashMap<>();
+        firstPositions = new HashMap<>();
+        indexedPrefix = 0;
+        for (int i = 0; i < currentAmountOfElements; ++i) {
+            indexAdded(elements[physicalIndex(i)]);
+        }
+    }
+
+    /**
+     * Returns whether the list is in interning mode.
+     *
+     * @return {@code true} if added elements are replaced by canonical instances
+     * @see #setInterningMode(boolean)
+     */
+    public boolean isInterningMode() {
+        return interner != null;
+    }
+
+    /**
+     * Enables or disables interning mode with the {@linkplain GemstoneInterner#shared() shared interner}.
+     *
+     * @param enabled {@code true} to enable interning mode, {@code false} to disable it
+     * @see #setInterner(GemstoneInterner)
+     */
+    public void setInterningMode(boolean enabled) {
+        setInterner(enabled ? GemstoneInterner.shared() : null);
+    }
+
+    /**
+     * Enables interning mode with the specified interner, or disables it if the interner is null.
+     * In interning mode {@link #add(Gemstone)}, {@link #addAll(Collection)}, {@link #set(int, Gemstone)}
+     * and their variants store the canonical instance equal to the element instead of the element
+     * itself, so equal gemstones share one object. {@link #contains(Object)} and {@link #indexOf(Object)}
+     * look the canonical instance up and compare by identity, and return immediately if there is none.
+     *
+     * Enabling the mode replaces the elements already in the list by their canonical instances in O(n).
+     * Canonical instances are shared with other lists, so they must not be modified through their setters.
+     *
+     * @param interner the interner to use, or {@code null} to disable interning mode
+     */
+    public void setInterner(GemstoneInterner interner) {
+        this.interner = interner;
+        if (interner == null) {
+            return;
+        }
+
+        closeGap();
+        for (int i = 0; i < currentAmountOfElements; ++i) {
+            Gemstone canonical = interner.intern(elements[i]);
+            if (canonical != elements[i]) {
+                unshareElements();
+                elementReplaced(elements[i], canonical);
+                elements[i] = canonical;
+            }
+        }
+    }
+
+    /**
+     * Returns the canonical instance of an element in interning mode, or the element itself otherwise.
+     *
+     * @param element the element to be stored
+     * @return the instance to store
+     */
+    private Gemstone intern(Gemstone element) {
+        return interner == null ? element : interner.intern(element);
+    }
+
+    /**
+     * Returns the index of the first element that is the canonical instance equal to the object.
+     * Only used in interning mode for non-null objects, since every non-null element is canonical.
+     *
+     * @param o element to search for
+     * @return the index of the first occurrence, or -1 if the list does not contain the element
+     */
+    private int canonicalIndexOf(Object o) {
+        Gemstone canonical = interner.lookup(o);
+        if (canonical == null) {
+            return -1;
+        }
+
+        closeGap();
+        for (int i = 0; i < currentAmountOfElements; ++i) {
+            if (elements[i] == canonical) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Registers a listener that is notified of every later change of the contents of this list.
+     *
+     * @param listener the listener to add
+     * @throws NullPointerException if the listener is null
+     */
+    public void addListener(GemstoneListListener listener) {
+        Objects.requireNonNull(listener);
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener to remove
+     * @return {@code true} if the listener was registered
+     */
+    public boolean removeListener(GemstoneListListener listener) {
+        if (listeners == null || !listeners.remove(listener)) {
+            return false;
+        }
+        if (listeners.isEmpty()) {
+            listeners = null;
+        }
+        return true;
+    }
+
+    /**
+     * Updates the hash index and notifies the listeners of an added element.
+     *
+     * @param element the added element
+     */
+    private void elementAdded(Gemstone element) {
+        indexAdded(element);
+        if (listeners != null) {
+            for (GemstoneListListener listener : listeners) {
+                listener.added(element);
+            }
+        }
+    }
+
+    /**
+     * Updates the hash index and notifies the listeners of a removed element.
+     *
+     * @param element the removed element
+     */
+    private void elementRemoved(Gemstone element) {
+        indexRemoved(element);
+        if (listeners != null) {
+            for (GemstoneListListener listener : listeners) {
+                listener.removed(element);
+            }
+        }
+    }
+
+    /**
+     * Updates the hash index and notifies the listeners of a replaced element.
+     *
+     * @param oldElement the replaced element
+     * @param newElement the new element
+     */
+    private void elementReplaced(Gemstone oldElement, Gemstone newElement) {
+        indexRemoved(oldElement);
+        indexAdded(newElement);
+        if (listeners != null) {
+            for (GemstoneListListener listener : listeners) {
+                listener.replaced(oldElement, newElement);
+            }
+        }
+    }
+
+    /**
+     * Records the position of an element appended at the end of the list in the hash index,
+     * if enabled. The occurrence itself is counted by {@link #elementAdded(Gemstone)}.
+     *
+     * @param element the appended element
+     */
+    private void indexAppended(Gemstone element) {
+        if (occurrences == null) {
+            return;
+        }
+
+        if (indexedPrefix == currentAmountOfElements) {
+            if (!isRecordedPosition(firstPositions.get(element), element)) {
+                firstPositions.put(element, indexedPrefix);
+            }
+            ++indexedPrefix;
+        }
+    }
+
+    /**
+     * Counts one more occurrence of the element in the hash index, if enabled.
+     *
+     * @param element the added element
+     */
+    private void indexAdded(Gemstone element) {
+        if (occurrences != null) {
+            occurrences.merge(element, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Counts one less occurrence of the element in the hash index, if enabled.
+     *
+     * @param element the removed element
+     */
+    private void indexRemoved(Gemstone element) {
+        if (occurrences == null) {
+            return;
+        }
+
+        Integer count = occurrences.get(element);
+        if (count == null) {
+            return;
+        }
+        if (count == 1) {
+            occurrences.remove(element);
+            firstPositions.remove(element);
+        } else {
+            occurrences.put(element, count - 1);
+        }
+    }
+
+    /**
+     * Discards the recorded first positions at or after the specified index.
+     *
+     * @param index the index of the first changed element
+     */
+    private void invalidatePositionsFrom(int index) {
+        if (index < indexedPrefix) {
+            indexedPrefix = index;
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of the element using the hash index, extending
+     * the recorded positions until the element is found.
+     *
+     * @param o element to search for
+     * @return the index of the first occurrence of the element, or -1 if the list does not contain it
+     */
+    private int indexedIndexOf(Object o) {
+        if (!occurrences.containsKey(o)) {
+            return -1;
+        }
+
+        Integer position = firstPositions.get(o);
+        if (isRecordedPosition(position, o)) {
+            return position;
+        }
+
+        while (indexedPrefix < currentAmountOfElements) {
+            Gemstone element = elements[physicalIndex(indexedPrefix)];
+            if (!isRecordedPosition(firstPositions.get(element), element)) {
+                firstPositions.put(element, indexedPrefix);
+                if (Objects.equals(element, o)) {
+                    return indexedPrefix++;
+                }
+            }
+            ++indexedPrefix;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns whether a recorded first position is still valid. Every element occurring within the
+     * first {@link #indexedPrefix} elements has its first position recorded, so a position inside
+     * the prefix that holds the element is its first occurrence.
+     *
+     * @param position the recorded position, or {@code null} if none is recorded
+     * @param o the element the position was recorded for
+     * @return {@code true} if {@code position} is the first occurrence of the element
+     */
+    private boolean isRecordedPosition(Integer position, Object o) {
+        return position != null && position < indexedPrefix
+                && Objects.equals(elements[physicalIndex(position)], o);
+    }
+
+    /**
+     * Appends all the elements in the specified collection to the end of this list,
      * in the order that they are returned by the specified collection's iterator.
      *
      * @param c collection containing elements to be added to this list
@@ -481,28 +1456,36 @@ public class MyList implements List<Gemstone> {
             throw new IndexOutOfBoundsException("Index out of range");
         }
 
+        closeGap();
+        Object[] elementsToAdd;
         try {
-            while (currentMaxSize < currentAmountOfElements + c.size()) {
-                currentMaxSize = (int) (currentMaxSize * extensionRate);
+            elementsToAdd = c.toArray();
+            int amountToAdd = elementsToAdd.length;
+            if (interner != null) {
+                for (int i = 0; i < amountToAdd; ++i) {
+                    elementsToAdd[i] = interner.intern((Gemstone) elementsToAdd[i]);
+                }
             }
-
-            Gemstone[] newElements = new Gemstone[currentMaxSize];
-            System.arraycopy(elements, 0, newElements, 0, index);
-
-            int j = 0;
-            for (Gemstone g : c) {
-                newElements[index + j] = g;
-                ++j;
+            if (currentMaxSize - currentAmountOfElements < amountToAdd) {
+                grow(currentAmountOfElements + amountToAdd);
             }
+            if (index < currentAmountOfElements) {
+                unshareElements();
+            }
+            ++modCount;
 
-            System.arraycopy(elements, index, newElements, index + c.size(), currentAmountOfElements - index);
+            System.arraycopy(elements, index, elements, index + amountToAdd, currentAmountOfElements - index);
+            System.arraycopy(elementsToAdd, 0, elements, index, amountToAdd);
+            invalidatePositionsFrom(index);
 
-            elements = newElements;
-            currentAmountOfElements += c.size();
-            return true;
+            currentAmountOfElements += amountToAdd;
         } catch (Exception e) {
             return false;
         }
+        for (Object element : elementsToAdd) {
+            elementAdded((Gemstone) element);
+        }
+        return true;
     }
 
 
@@ -515,13 +1498,7 @@ public class MyList implements List<Gemstone> {
      */
     @Override
     public boolean remove(Object o) {
-        int indexToRemove = -1;
-        for (int i = 0; i < currentAmountOfElements; ++i) {
-            if (elements[i].equals(o)) {
-                indexToRemove = i;
-                break;
-            }
-        }
+        int indexToRemove = indexOf(o);
 
         if (indexToRemove == -1) {
             return false;
@@ -546,11 +1523,23 @@ public class MyList implements List<Gemstone> {
             throw new IndexOutOfBoundsException("Index out of range");
         }
 
+        unshareElements();
+        elementRemoved(elements[physicalIndex(index)]);
+        invalidatePositionsFrom(index);
+        ++modCount;
+
+        if (gapBufferMode) {
+            moveGapTo(index + 1);
+            Gemstone elementToRemove = elements[index];
+            elements[index] = null;
+            --currentAmountOfElements;
+            gapStart = index == currentAmountOfElements ? -1 : index;
+            return elementToRemove;
+        }
+
         Gemstone elementToRemove = elements[index];
 
-        for (int i = index; i < currentAmountOfElements - 1; ++i) {
-            elements[i] = elements[i + 1];
-        }
+        System.arraycopy(elements, index + 1, elements, index, currentAmountOfElements - index - 1);
 
         --currentAmountOfElements;
         elements[currentAmountOfElements] = null;
@@ -560,48 +1549,153 @@ public class MyList implements List<Gemstone> {
 
     /**
      * Removes from this list all of its elements that are contained in the specified collection.
+     * The list is compacted in a single pass; a large collection that is not a {@code Set} is
+     * first copied into a {@code HashSet}, so the call takes O(n + m) time.
      *
      * @param c collection containing elements to be removed from this list
      * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the specified collection is null
      */
     @Override
     public boolean removeAll(Collection<?> c) {
-        int currentAmountOfElementsAtStart = currentAmountOfElements;
-        for (Object g : c) {
-            remove(g);
-        }
-        return currentAmountOfElementsAtStart != currentAmountOfElements;
+        Collection<?> lookup = toLookup(c);
+        return batchRemove(lookup::contains);
     }
 
     /**
      * Retains only the elements in this list that are contained in the specified collection.
      * In other words, removes from this list all of its elements that are not contained in the specified collection.
+     * The list is compacted in a single pass, as in {@link #removeAll(Collection)}.
      *
      * @param c collection containing elements to be retained in this list
      * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the specified collection is null
      */
     @Override
     public boolean retainAll(Collection<?> c) {
-        int currentAmountOfElementsAtStart = currentAmountOfElements;
+        Collection<?> lookup = toLookup(c);
+        return batchRemove(gemstone -> !lookup.contains(gemstone));
+    }
 
-        for (int i = 0; i < currentAmountOfElements; ++i) {
-            if (!c.contains(elements[i])) {
-                remove(i);
-                --i;
-            }
+    /**
+     * Removes all the elements of this list that satisfy the given predicate, compacting
+     * the list in a single pass.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     * @throws NullPointerException if the specified filter is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Gemstone> filter) {
+        Objects.requireNonNull(filter);
+        return batchRemove(filter);
+    }
+
+    /**
+     * Returns a collection with fast {@code contains} holding the same elements as the specified one.
+     *
+     * @param c the collection to look elements up in
+     * @return {@code c} itself if it is a set or small, otherwise a {@code HashSet} copy of it
+     */
+    private static Collection<?> toLookup(Collection<?> c) {
+        if (c instanceof Set || c.size() <= HASH_LOOKUP_THRESHOLD) {
+            return c;
+        }
+        return new HashSet<>(c);
+    }
+
+    /**
+     * Removes the elements that satisfy the predicate by moving every kept element directly
+     * to its final position. If the predicate throws, the elements not yet examined are kept
+     * and the list stays consistent.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    private boolean batchRemove(Predicate<? super Gemstone> filter) {
+        return batchRemove(filter, 0, currentAmountOfElements);
+    }
+
+    /**
+     * Removes the elements between the specified indices that satisfy the predicate, as
+     * {@link #batchRemove(Predicate)} does for the whole list.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @param fromIndex index of the first element to be tested
+     * @param toIndex index after the last element to be tested
+     * @return {@code true} if any elements were removed
+     */
+    private boolean batchRemove(Predicate<? super Gemstone> filter, int fromIndex, int toIndex) {
+        closeGap();
+        int read = fromIndex;
+        while (read < toIndex && !filter.test(elements[read])) {
+            ++read;
+        }
+        if (read == toIndex) {
+            return false;
         }
 
-        return currentAmountOfElementsAtStart != currentAmountOfElements;
+        unshareElements();
+        invalidatePositionsFrom(read);
+        ++modCount;
+        int write = read;
+        try {
+            elementRemoved(elements[read++]);
+            for (; read < toIndex; ++read) {
+                Gemstone element = elements[read];
+                if (filter.test(element)) {
+                    elementRemoved(element);
+                } else {
+                    elements[write++] = element;
+                }
+            }
+        } finally {
+            System.arraycopy(elements, read, elements, write, currentAmountOfElements - read);
+            write += currentAmountOfElements - read;
+            Arrays.fill(elements, write, currentAmountOfElements, null);
+            currentAmountOfElements = write;
+        }
+        return true;
     }
 
     /**
-     * Removes all the elements from this list. The list will be empty after this call returns.
+     * Removes all the elements from this list. The list will be empty after this call returns,
+     * and its capacity is reset to the initial capacity.
      */
     @Override
     public void clear() {
-        currentMaxSize = DEFAULT_MAX_SIZE;
-        elements = new Gemstone[currentMaxSize];
+        clear(false);
+    }
+
+    /**
+     * Removes all the elements from this list. The list will be empty after this call returns.
+     *
+     * @param retainCapacity {@code true} to keep the current internal array for reuse,
+     *                       {@code false} to reset the capacity to the initial capacity
+     */
+    public void clear(boolean retainCapacity) {
+        if (retainCapacity && !elementsShared) {
+            Arrays.fill(elements, null);
+        } else {
+            if (!retainCapacity) {
+                currentMaxSize = initialMaxSize;
+            }
+            elements = new Gemstone[currentMaxSize];
+            elementsShared = false;
+        }
         currentAmountOfElements = 0;
+        ++modCount;
+        gapStart = -1;
+        if (occurrences != null) {
+            occurrences.clear();
+            firstPositions.clear();
+            indexedPrefix = 0;
+        }
+        if (listeners != null) {
+            for (GemstoneListListener listener : listeners) {
+                listener.cleared();
+            }
+        }
     }
 
     /**
@@ -617,7 +1711,7 @@ public class MyList implements List<Gemstone> {
         if (index < 0 || index >= currentAmountOfElements) {
             throw new IndexOutOfBoundsException("Index out of range");
         }
-        return elements[index];
+        return elements[physicalIndex(index)];
     }
 
     /**
@@ -635,8 +1729,13 @@ public class MyList implements List<Gemstone> {
             throw new IndexOutOfBoundsException("Index out of range");
         }
 
-        Gemstone elementToReturn = elements[index];
-        elements[index] = element;
+        element = intern(element);
+        unshareElements();
+        int position = physicalIndex(index);
+        Gemstone elementToReturn = elements[position];
+        elementReplaced(elementToReturn, element);
+        invalidatePositionsFrom(index);
+        elements[position] = element;
         return elementToReturn;
     }
 
@@ -648,10 +1747,18 @@ public class MyList implements List<Gemstone> {
      */
     @Override
     public int indexOf(Object o) {
+        if (occurrences != null) {
+            return indexedIndexOf(o);
+        }
+        if (interner != null && o != null) {
+            return canonicalIndexOf(o);
+        }
+
+        closeGap();
         int index = -1;
 
         for (int i = 0; i < currentAmountOfElements; ++i) {
-            if (elements[i].equals(o)) {
+            if (Objects.equals(elements[i], o)) {
                 index = i;
                 break;
             }
@@ -668,10 +1775,15 @@ public class MyList implements List<Gemstone> {
      */
     @Override
     public int lastIndexOf(Object o) {
+        if (occurrences != null && !occurrences.containsKey(o)) {
+            return -1;
+        }
+
+        closeGap();
         int index = -1;
 
         for (int i = currentAmountOfElements - 1; i >= 0; --i) {
-            if (elements[i].equals(o)) {
+            if (Objects.equals(elements[i], o)) {
                 index = i;
                 break;
             }
@@ -687,6 +1799,9 @@ public class MyList implements List<Gemstone> {
      */
     @Override
     public Iterator<Gemstone> iterator() {
+        if (snapshotIterationMode) {
+            return new SnapshotIterator(shareElements(), currentAmountOfElements);
+        }
         return new GemstoneIterator();
     }
 
@@ -717,4 +1832,149 @@ public class MyList implements List<Gemstone> {
         return new GemstoneListIterator(0);
     }
 
+    /**
+     * Returns a spliterator over the elements in this list that reports {@code ORDERED},
+     * {@code SIZED} and {@code SUBSIZED} and splits the list into halves.
+     *
+     * @return a spliterator over the elements in this list
+     */
+    @Override
+    public Spliterator<Gemstone> spliterator() {
+        if (snapshotIterationMode) {
+            return Arrays.spliterator(shareElements(), 0, currentAmountOfElements);
+        }
+        return new GemstoneSpliterator(0, -1, modCount);
+    }
+
+    /**
+     * Performs the given action for each element of the list, reading the internal array directly.
+     *
+     * @param action the action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    public void forEach(Consumer<? super Gemstone> action) {
+        Objects.requireNonNull(action);
+        closeGap();
+        int expectedModCount = modCount;
+        Gemstone[] array = elements;
+        int size = currentAmountOfElements;
+        for (int i = 0; i < size && modCount == expectedModCount; ++i) {
+            action.accept(array[i]);
+        }
+        checkForComodification(expectedModCount);
+    }
+
+    /**
+     * Replaces each element of this list with the result of applying the operator to that element.
+     *
+     * @param operator the operator to apply to each element
+     * @throws NullPointerException if the specified operator is null
+     */
+    @Override
+    public void replaceAll(UnaryOperator<Gemstone> operator) {
+        Objects.requireNonNull(operator);
+        closeGap();
+        unshareElements();
+        invalidatePositionsFrom(0);
+        int expectedModCount = modCount;
+        for (int i = 0; i < currentAmountOfElements && modCount == expectedModCount; ++i) {
+            Gemstone element = intern(operator.apply(elements[i]));
+            elementReplaced(elements[i], element);
+            elements[i] = element;
+        }
+        checkForComodification(expectedModCount);
+        ++modCount;
+    }
+
+    /**
+     * Sorts this list in place according to the order induced by the specified comparator.
+     * The sort is stable.
+     *
+     * @param c the comparator used to compare elements, or {@code null} to use their natural ordering
+     * @throws ClassCastException if {@code c} is null and the elements are not {@code Comparable}
+     */
+    @Override
+    public void sort(Comparator<? super Gemstone> c) {
+        sortRange(0, currentAmountOfElements, c);
+    }
+
+    /**
+     * Sorts this list in place with the radix sort of the specified sorter, which extracts the
+     * sort keys into primitive arrays instead of comparing gemstones. The sort is stable, and
+     * large lists are sorted in parallel.
+     *
+     * @param sorter the sorter defining the sort keys
+     * @throws NullPointerException if the sorter or any element is null
+     * @throws IllegalArgumentException if the sorter has a type key and a gemstone is not one
+     *         of the {@link gemstones.GemstoneType} classes
+     */
+    public void sortBy(GemstoneSorter sorter) {
+        Objects.requireNonNull(sorter);
+        closeGap();
+        unshareElements();
+        sorter.sort(elements, 0, currentAmountOfElements);
+        invalidatePositionsFrom(0);
+        ++modCount;
+    }
+
+    /**
+     * Returns whether the list is in snapshot iteration mode.
+     *
+     * @return {@code true} if {@link #iterator()} and {@link #spliterator()} traverse snapshots
+     * @see #setSnapshotIterationMode(boolean)
+     */
+    public boolean isSnapshotIterationMode() {
+        return snapshotIterationMode;
+    }
+
+    /**
+     * Enables or disables snapshot iteration mode. In snapshot iteration mode {@link #iterator()}
+     * and {@link #spliterator()}, and therefore for-each loops and streams, traverse the elements
+     * the list held when they were created and never throw {@link ConcurrentModificationException}.
+     * A snapshot does not copy the list: it shares the internal array, and the list copies the array
+     * only before the first later change to an element already in it, so appends stay cheap.
+     * Snapshot iterators do not support {@code remove}.
+     *
+     * @param enabled {@code true} to enable snapshot iteration mode, {@code false} to disable it
+     */
+    public void setSnapshotIterationMode(boolean enabled) {
+        snapshotIterationMode = enabled;
+    }
+
+    /**
+     * Marks the internal array as shared with a snapshot and returns it. The gap is closed first,
+     * so the elements occupy positions {@code 0} to {@code size() - 1}.
+     *
+     * @return the internal array
+     */
+    private Gemstone[] shareElements() {
+        closeGap();
+        elementsShared = true;
+        return elements;
+    }
+
+    /**
+     * Copies the internal array if it is shared with a snapshot, so that existing elements
+     * can be overwritten or moved.
+     */
+    private void unshareElements() {
+        if (elementsShared) {
+            elements = elements.clone();
+            elementsShared = false;
+        }
+    }
+
+    /**
+     * Throws if the list was structurally modified since an iterator recorded its modification count.
+     *
+     * @param expectedModCount the modification count recorded by the iterator
+     * @throws ConcurrentModificationException if the list was structurally modified
+     */
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
 }
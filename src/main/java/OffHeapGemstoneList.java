@@ -0,0 +1,347 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.util.*;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE_UNALIGNED;
+
+/**
+ * The {@code OffHeapGemstoneList} class stores gemstones outside the Java heap, in a
+ * {@link MemorySegment} allocated from an {@link Arena}. Every gemstone takes one packed
+ * 25-byte record (see {@link #RECORD}): its weight, price and transparency as unaligned
+ * {@code double}s followed by its {@link GemstoneType} code.
+ *
+ * The class implements the {@code List<Gemstone>} interface. {@link #get(int)} creates a
+ * gemstone of the stored type from the record, so the returned object is a detached copy.
+ * Null elements are not supported.
+ *
+ * The memory is released when the list is closed, or when the internal segment is replaced
+ * by a larger one. Any access after {@link #close()} throws {@link IllegalStateException}.
+ * The arenas are shared, so the list can be read from other threads, for example by
+ * {@link #parallelStream()}; closing one on growth costs a handshake with those threads, but
+ * the list only grows O(log n) times.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     try (OffHeapGemstoneList gemstones = new OffHeapGemstoneList(100_000_000)) {
+ *         gemstones.add(new Diamond(1, 1, 1));
+ *         double price = gemstones.priceAt(0);
+ *     }
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ * @see GemstoneColumns
+ */
+public class OffHeapGemstoneList extends AbstractList<Gemstone> implements RandomAccess, AutoCloseable {
+
+    /**
+     * Layout of a single gemstone record.
+     */
+    public static final StructLayout RECORD = MemoryLayout.structLayout(
+            JAVA_DOUBLE_UNALIGNED.withName("weight"),
+            JAVA_DOUBLE_UNALIGNED.withName("price"),
+            JAVA_DOUBLE_UNALIGNED.withName("transparency"),
+            JAVA_BYTE.withName("type"));
+
+    private static final long RECORD_SIZE = RECORD.byteSize();
+    private static final long WEIGHT_OFFSET = RECORD.byteOffset(groupElement("weight"));
+    private static final long PRICE_OFFSET = RECORD.byteOffset(groupElement("price"));
+    private static final long TRANSPARENCY_OFFSET = RECORD.byteOffset(groupElement("transparency"));
+    private static final long TYPE_OFFSET = RECORD.byteOffset(groupElement("type"));
+
+    /**
+     * Default initial capacity of the list.
+     */
+    private static final int DEFAULT_MAX_SIZE = 15;
+
+    /**
+     * The arena that owns {@link #records}.
+     */
+    private Arena arena;
+
+    /**
+     * Segment that holds the gemstone records.
+     */
+    private MemorySegment records;
+
+    /**
+     * The current maximum size of the list.
+     */
+    private int currentMaxSize;
+
+    /**
+     * The number of gemstones currently in the list.
+     */
+    private int currentAmountOfElements = 0;
+
+    /**
+     * The policy that decides the new capacity when resizing is required.
+     */
+    private final GrowthPolicy growthPolicy;
+
+    /**
+     * Constructs an empty list with the default initial capacity.
+     */
+    public OffHeapGemstoneList() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     *
+     * @param initialCapacity the initial capacity of the list
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public OffHeapGemstoneList(int initialCapacity) {
+        this(initialCapacity, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity and growth policy.
+     *
+     * @param initialCapacity the initial capacity of the list
+     * @param growthPolicy the policy used to grow the internal segment
+     * @throws IllegalArgumentException if the initial capacity is negative
+     * @throws NullPointerException if the growth policy is null
+     */
+    public OffHeapGemstoneList(int initialCapacity, GrowthPolicy growthPolicy) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        this.growthPolicy = Objects.requireNonNull(growthPolicy);
+        this.arena = Arena.ofShared();
+        this.records = arena.allocate(initialCapacity * RECORD_SIZE, 1);
+        this.currentMaxSize = initialCapacity;
+    }
+
+    /**
+     * Returns the weight of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the weight of the gemstone in carats
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double weightAt(int index) {
+        checkIndex(index);
+        return records.get(JAVA_DOUBLE_UNALIGNED, index * RECORD_SIZE + WEIGHT_OFFSET);
+    }
+
+    /**
+     * Returns the price of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the price of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double priceAt(int index) {
+        checkIndex(index);
+        return records.get(JAVA_DOUBLE_UNALIGNED, index * RECORD_SIZE + PRICE_OFFSET);
+    }
+
+    /**
+     * Returns the transparency of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the transparency of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double transparencyAt(int index) {
+        checkIndex(index);
+        return records.get(JAVA_DOUBLE_UNALIGNED, index * RECORD_SIZE + TRANSPARENCY_OFFSET);
+    }
+
+    /**
+     * Returns the type of the gemstone at the specified position.
+     *
+     * @param index index of the gemstone
+     * @return the type of the gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public GemstoneType typeAt(int index) {
+        checkIndex(index);
+        return GemstoneType.fromCode(records.get(JAVA_BYTE, index * RECORD_SIZE + TYPE_OFFSET));
+    }
+
+    /**
+     * Returns the number of gemstones in the list.
+     *
+     * @return the number of gemstones
+     */
+    @Override
+    public int size() {
+        return currentAmountOfElements;
+    }
+
+    /**
+     * Creates a gemstone from the record stored at the specified position.
+     *
+     * @param index index of the gemstone to return
+     * @return a new gemstone equal to the one stored at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone get(int index) {
+        return typeAt(index).create(weightAt(index), priceAt(index), transparencyAt(index));
+    }
+
+    /**
+     * Replaces the record at the specified position with the values of the specified gemstone.
+     *
+     * @param index index of the gemstone to replace
+     * @param element gemstone whose values are to be stored
+     * @return a gemstone equal to the one previously stored at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the gemstone is null
+     */
+    @Override
+    public Gemstone set(int index, Gemstone element) {
+        Gemstone previous = get(index);
+        store(index, GemstoneType.of(element), element);
+        return previous;
+    }
+
+    /**
+     * Inserts the values of the specified gemstone at the specified position, shifting
+     * subsequent records to the right.
+     *
+     * @param index index at which the gemstone is to be inserted
+     * @param element gemstone to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     * @throws NullPointerException if the gemstone is null
+     */
+    @Override
+    public void add(int index, Gemstone element) {
+        if (index < 0 || index > currentAmountOfElements) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + currentAmountOfElements);
+        }
+        GemstoneType type = GemstoneType.of(element);
+
+        ensureCapacity(currentAmountOfElements + 1);
+        shift(index, index + 1, currentAmountOfElements - index);
+        store(index, type, element);
+        ++currentAmountOfElements;
+        ++modCount;
+    }
+
+    /**
+     * Appends all gemstones of the specified collection, growing the segment at most once.
+     *
+     * @param c collection containing gemstones to be added
+     * @return {@code true} if the list changed as a result of the call
+     * @throws NullPointerException if the collection or any of its elements is null
+     */
+    @Override
+    public boolean addAll(Collection<? extends Gemstone> c) {
+        ensureCapacity(currentAmountOfElements + c.size());
+        return super.addAll(c);
+    }
+
+    /**
+     * Removes the gemstone at the specified position, shifting subsequent records to the left.
+     *
+     * @param index the index of the gemstone to be removed
+     * @return a gemstone equal to the removed one
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone remove(int index) {
+        Gemstone removed = get(index);
+        shift(index + 1, index, currentAmountOfElements - index - 1);
+        --currentAmountOfElements;
+        ++modCount;
+        return removed;
+    }
+
+    /**
+     * Removes all gemstones. The allocated memory is kept.
+     */
+    @Override
+    public void clear() {
+        currentAmountOfElements = 0;
+        ++modCount;
+    }
+
+    /**
+     * Increases the capacity of the list, if necessary, so that it can hold at least the
+     * specified number of gemstones. Growing allocates a new segment in a new arena, copies
+     * the records and closes the old arena, releasing its memory.
+     *
+     * @param minCapacity the desired minimum capacity
+     * @throws OutOfMemoryError if {@code minCapacity} exceeds the maximum list size
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= currentMaxSize) {
+            return;
+        }
+        if (minCapacity > GrowthPolicy.MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required list size too large");
+        }
+
+        int newMaxSize = Math.max(minCapacity, growthPolicy.newCapacity(currentMaxSize, minCapacity));
+        Arena newArena = Arena.ofShared();
+        MemorySegment newRecords = newArena.allocate(newMaxSize * RECORD_SIZE, 1);
+        MemorySegment.copy(records, 0, newRecords, 0, currentAmountOfElements * RECORD_SIZE);
+
+        arena.close();
+        arena = newArena;
+        records = newRecords;
+        currentMaxSize = newMaxSize;
+    }
+
+    /**
+     * Releases the off-heap memory of the list. Closing an already closed list has no effect.
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+    /**
+     * Writes the values of the gemstone into the record at the specified position.
+     *
+     * @param index position to write to
+     * @param type the type of the gemstone
+     * @param element the gemstone
+     */
+    private void store(int index, GemstoneType type, Gemstone element) {
+        long offset = index * RECORD_SIZE;
+        records.set(JAVA_DOUBLE_UNALIGNED, offset + WEIGHT_OFFSET, element.getWeight());
+        records.set(JAVA_DOUBLE_UNALIGNED, offset + PRICE_OFFSET, element.getPrice());
+        records.set(JAVA_DOUBLE_UNALIGNED, offset + TRANSPARENCY_OFFSET, element.getTransparency());
+        records.set(JAVA_BYTE, offset + TYPE_OFFSET, type.code());
+    }
+
+    /**
+     * Moves a range of records inside the segment.
+     *
+     * @param from first record to move
+     * @param to destination of the first record
+     * @param length number of records to move
+     */
+    private void shift(int from, int to, int length) {
+        MemorySegment.copy(records, from * RECORD_SIZE, records, to * RECORD_SIZE, length * RECORD_SIZE);
+    }
+
+    /**
+     * Checks that the index refers to a stored gemstone.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= currentAmountOfElements) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+    }
+}
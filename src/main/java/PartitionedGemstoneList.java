@@ -0,0 +1,520 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.PreciousGemstone;
+import gemstones.SemiPreciousGemstone;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The {@code PartitionedGemstoneList} class keeps one dense {@link MyList} per concrete gemstone
+ * class, so queries restricted to one class or to one category never look at other stones.
+ * {@link #countOf(Class)} takes O(1) time, and {@link #ofType(Class)} returns a view that
+ * iterates over only the {@code Diamond}s, or only the precious stones, without a
+ * {@code getClass()} check per element. {@link #contains(Object)} and {@link #remove(Object)}
+ * search only the partition of the argument's class, because gemstones of different classes
+ * are never equal.
+ *
+ * The class is a {@code Collection<Gemstone>} rather than a {@code List}: {@link #add(Gemstone)}
+ * appends to the end of the partition of the gemstone, so there is no global position to insert
+ * at or to sort by. Iteration visits the partitions in {@link GemstoneType} order, all agates
+ * first, then all diamonds, and so on. Positional access, replacement and sorting go through
+ * {@link #partition(GemstoneType)}, a live list of one partition that accepts only gemstones of
+ * its type. Null elements are not supported.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     PartitionedGemstoneList gemstones = new PartitionedGemstoneList(myList);
+ *     int diamonds = gemstones.countOf(Diamond.class);
+ *     for (PreciousGemstone gemstone : gemstones.ofType(PreciousGemstone.class)) {
+ *         total += gemstone.getPrice();
+ *     }
+ *     gemstones.partition(GemstoneType.DIAMOND).sort(Comparator.comparingDouble(Gemstone::getPrice));
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ * @see GemstoneType
+ */
+public class PartitionedGemstoneList extends AbstractCollection<Gemstone> {
+
+    /**
+     * The partitions, in the order of {@link GemstoneType#values()}.
+     */
+    private final MyList[] partitions;
+
+    /**
+     * The {@code PartitionView} class is a read-only, live view of a sequence of partitions.
+     *
+     * @param <T> the common type of the gemstones in the partitions
+     */
+    private static class PartitionView<T extends Gemstone> extends AbstractList<T> implements RandomAccess {
+        private final MyList[] viewed;
+
+        PartitionView(MyList[] viewed) {
+            this.viewed = viewed;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (MyList partition : viewed) {
+                size += partition.size();
+            }
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            return (T) locate(viewed, index);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int partition = 0;
+                private Iterator<Gemstone> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && partition < viewed.length) {
+                        current = viewed[partition++].iterator();
+                    }
+                    return current.hasNext();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return (T) current.next();
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            for (MyList partition : viewed) {
+                partition.forEach(gemstone -> action.accept((T) gemstone));
+            }
+        }
+    }
+
+    /**
+     * The {@code Partition} class is a live, modifiable list of the gemstones of one type, or of
+     * a range of them. It writes through to its backing list and rejects gemstones of any other
+     * type. Its iterators are those of the backing {@link MyList}, so they fail fast on changes
+     * made through the {@code PartitionedGemstoneList} or through another view of the partition.
+     */
+    private static final class Partition extends AbstractList<Gemstone> implements RandomAccess {
+        private final GemstoneType type;
+        private final List<Gemstone> backing;
+
+        Partition(GemstoneType type, List<Gemstone> backing) {
+            this.type = type;
+            this.backing = backing;
+        }
+
+        @Override
+        public int size() {
+            return backing.size();
+        }
+
+        @Override
+        public Gemstone get(int index) {
+            return backing.get(index);
+        }
+
+        @Override
+        public Gemstone set(int index, Gemstone element) {
+            checkType(element);
+            return backing.set(index, element);
+        }
+
+        @Override
+        public void add(int index, Gemstone element) {
+            checkType(element);
+            backing.add(index, element);
+        }
+
+        @Override
+        public Gemstone remove(int index) {
+            return backing.remove(index);
+        }
+
+        @Override
+        public void clear() {
+            backing.clear();
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Gemstone> filter) {
+            return backing.removeIf(filter);
+        }
+
+        @Override
+        public void sort(Comparator<? super Gemstone> c) {
+            backing.sort(c);
+        }
+
+        @Override
+        public Iterator<Gemstone> iterator() {
+            return backing.iterator();
+        }
+
+        @Override
+        public ListIterator<Gemstone> listIterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<Gemstone> listIterator(int index) {
+            ListIterator<Gemstone> iterator = backing.listIterator(index);
+            return new ListIterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Gemstone next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return iterator.hasPrevious();
+                }
+
+                @Override
+                public Gemstone previous() {
+                    return iterator.previous();
+                }
+
+                @Override
+                public int nextIndex() {
+                    return iterator.nextIndex();
+                }
+
+                @Override
+                public int previousIndex() {
+                    return iterator.previousIndex();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+
+                @Override
+                public void set(Gemstone element) {
+                    checkType(element);
+                    iterator.set(element);
+                }
+
+                @Override
+                public void add(Gemstone element) {
+                    checkType(element);
+                    iterator.add(element);
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<Gemstone> spliterator() {
+            return backing.spliterator();
+        }
+
+        @Override
+        public void forEach(Consumer<? super Gemstone> action) {
+            backing.forEach(action);
+        }
+
+        @Override
+        public List<Gemstone> subList(int fromIndex, int toIndex) {
+            return new Partition(type, backing.subList(fromIndex, toIndex));
+        }
+
+        private void checkType(Gemstone element) {
+            if (GemstoneType.of(element) != type) {
+                throw new IllegalArgumentException("Gemstone type mismatch");
+            }
+        }
+    }
+
+    /**
+     * Constructs an empty list.
+     */
+    public PartitionedGemstoneList() {
+        partitions = new MyList[GemstoneType.valueList().size()];
+        for (int i = 0; i < partitions.length; ++i) {
+            partitions[i] = new MyList();
+        }
+    }
+
+    /**
+     * Constructs a list containing all gemstones from the specified collection.
+     *
+     * @param gemstones the collection of gemstones to be added
+     * @throws NullPointerException if the collection or any of its elements is null
+     * @throws IllegalArgumentException if a gemstone is not of a known class
+     */
+    public PartitionedGemstoneList(Collection<? extends Gemstone> gemstones) {
+        this();
+        addAll(gemstones);
+    }
+
+    /**
+     * Returns the number of gemstones in this list.
+     *
+     * @return the number of gemstones
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (MyList partition : partitions) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of gemstones of the specified class in O(1) time, from the sizes of the
+     * partitions. The class can be a concrete gemstone class, {@code PreciousGemstone},
+     * {@code SemiPreciousGemstone} or {@code Gemstone}.
+     *
+     * @param gemstoneClass the class to count
+     * @return the number of gemstones of this class
+     * @throws IllegalArgumentException if the class is not a known gemstone class or category
+     * @throws NullPointerException if the class is null
+     */
+    public int countOf(Class<? extends Gemstone> gemstoneClass) {
+        if (gemstoneClass == Gemstone.class) {
+            return size();
+        }
+        if (gemstoneClass == PreciousGemstone.class || gemstoneClass == SemiPreciousGemstone.class) {
+            boolean precious = gemstoneClass == PreciousGemstone.class;
+            int count = 0;
+            for (GemstoneType type : GemstoneType.valueList()) {
+                if (type.isPrecious() == precious) {
+                    count += partitions[type.ordinal()].size();
+                }
+            }
+            return count;
+        }
+        return partitions[GemstoneType.of(gemstoneClass).ordinal()].size();
+    }
+
+    /**
+     * Returns a read-only, live view of the gemstones of the specified class. The class can be a
+     * concrete gemstone class, {@code PreciousGemstone}, {@code SemiPreciousGemstone} or {@code Gemstone}.
+     *
+     * @param gemstoneClass the class of the gemstones to view
+     * @param <T> the class of the gemstones
+     * @return a view of the gemstones of this class
+     * @throws IllegalArgumentException if the class is not a known gemstone class or category
+     * @throws NullPointerException if the class is null
+     */
+    public <T extends Gemstone> List<T> ofType(Class<T> gemstoneClass) {
+        List<MyList> viewed = new ArrayList<>();
+        if (gemstoneClass == Gemstone.class || gemstoneClass == PreciousGemstone.class
+                || gemstoneClass == SemiPreciousGemstone.class) {
+            for (GemstoneType type : GemstoneType.valueList()) {
+                if (gemstoneClass.isAssignableFrom(type.gemstoneClass())) {
+                    viewed.add(partitions[type.ordinal()]);
+                }
+            }
+        } else {
+            viewed.add(partitions[GemstoneType.of(gemstoneClass).ordinal()]);
+        }
+        return new PartitionView<>(viewed.toArray(new MyList[0]));
+    }
+
+    /**
+     * Returns a live, modifiable list of the gemstones of the specified type, in insertion order
+     * unless it was reordered. It supports positional access, insertion, removal and sorting, and
+     * its changes are reflected by this collection; it rejects gemstones of any other type.
+     *
+     * @param type the type of the partition
+     * @return the partition of this type
+     * @throws NullPointerException if the type is null
+     */
+    public List<Gemstone> partition(GemstoneType type) {
+        return new Partition(type, partitions[type.ordinal()]);
+    }
+
+    /**
+     * Appends the gemstone to the end of the partition of its class.
+     *
+     * @param element gemstone to be added
+     * @return {@code true}
+     * @throws IllegalArgumentException if the gemstone is not of a known class
+     * @throws NullPointerException if the gemstone is null
+     */
+    @Override
+    public boolean add(Gemstone element) {
+        partitions[GemstoneType.of(element).ordinal()].add(element);
+        return true;
+    }
+
+    /**
+     * Removes the first occurrence of the specified gemstone, searching only the partition of its class.
+     *
+     * @param o gemstone to be removed, if present
+     * @return {@code true} if this list contained the gemstone
+     */
+    @Override
+    public boolean remove(Object o) {
+        MyList partition = partitionOf(o);
+        return partition != null && partition.remove(o);
+    }
+
+    /**
+     * Returns {@code true} if this list contains the specified gemstone, searching only the partition of its class.
+     *
+     * @param o gemstone whose presence is to be tested
+     * @return {@code true} if this list contains the gemstone
+     */
+    @Override
+    public boolean contains(Object o) {
+        MyList partition = partitionOf(o);
+        return partition != null && partition.contains(o);
+    }
+
+    /**
+     * Removes all gemstones that satisfy the predicate, compacting every partition in a single pass.
+     *
+     * @param filter a predicate which returns {@code true} for gemstones to be removed
+     * @return {@code true} if any gemstones were removed
+     * @throws NullPointerException if the predicate is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Gemstone> filter) {
+        Objects.requireNonNull(filter);
+        boolean modified = false;
+        for (MyList partition : partitions) {
+            modified |= partition.removeIf(filter);
+        }
+        return modified;
+    }
+
+    /**
+     * Removes all gemstones from this list.
+     */
+    @Override
+    public void clear() {
+        for (MyList partition : partitions) {
+            partition.clear();
+        }
+    }
+
+    /**
+     * Returns an iterator over the gemstones, reading the partitions one after another. It is
+     * fail-fast: it throws {@link ConcurrentModificationException} if any partition was
+     * structurally modified other than through the iterator.
+     *
+     * @return an iterator over the gemstones in {@link GemstoneType} order
+     */
+    @Override
+    public Iterator<Gemstone> iterator() {
+        return new Iterator<>() {
+            private int partition = 0;
+            private Iterator<Gemstone> current = Collections.emptyIterator();
+            private Iterator<Gemstone> lastReturnedFrom = null;
+            private int expectedModCount = modCount();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && partition < partitions.length) {
+                    current = partitions[partition++].iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Gemstone next() {
+                if (modCount() != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturnedFrom = current;
+                return current.next();
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturnedFrom == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount() != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                lastReturnedFrom.remove();
+                expectedModCount = modCount();
+                lastReturnedFrom = null;
+            }
+        };
+    }
+
+    /**
+     * Returns the sum of the modification counts of the partitions, which changes with every
+     * structural modification of any of them.
+     *
+     * @return the modification count of this collection
+     */
+    private int modCount() {
+        int modCount = 0;
+        for (MyList partition : partitions) {
+            modCount += partition.modCount();
+        }
+        return modCount;
+    }
+
+    /**
+     * Returns the partition that would hold the specified object.
+     *
+     * @param o an object
+     * @return the partition of the object's class, or {@code null} if the object is not a known gemstone
+     */
+    private MyList partitionOf(Object o) {
+        if (!(o instanceof Gemstone)) {
+            return null;
+        }
+        for (GemstoneType type : GemstoneType.valueList()) {
+            if (type.gemstoneClass() == o.getClass()) {
+                return partitions[type.ordinal()];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the gemstone at the specified position of the concatenation of the partitions.
+     *
+     * @param viewed the partitions
+     * @param index an index into their concatenation
+     * @return the gemstone at that index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private static Gemstone locate(MyList[] viewed, int index) {
+        if (index >= 0) {
+            int offset = index;
+            for (MyList partition : viewed) {
+                if (offset < partition.size()) {
+                    return partition.get(offset);
+                }
+                offset -= partition.size();
+            }
+        }
+        throw new IndexOutOfBoundsException("Index out of range");
+    }
+}
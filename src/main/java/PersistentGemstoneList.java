@@ -0,0 +1,648 @@
+import gemstones.Gemstone;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * The {@code PersistentGemstoneList} class is a list of gemstones stored in an immutable,
+ * structurally shared tree, so that {@link #snapshot()} takes O(1) time and memory.
+ *
+ * The elements are kept in-order in chunks of at most {@value #CHUNK_SIZE} gemstones, one chunk
+ * per node of a height-balanced (AVL) binary tree whose nodes also record the number of elements
+ * in their subtree, so a list costs about 6 bytes per element on top of the gemstones instead of
+ * a whole node per element. Nodes and chunks are never modified: {@link #get(int)},
+ * {@link #set(int, Gemstone)}, {@link #add(int, Gemstone)} and {@link #remove(int)} cost
+ * O(log n), and an edit copies only the nodes on the path to the changed position and the chunk
+ * it touches, splitting a full chunk in two, while every other node stays shared with earlier
+ * versions. {@link #addAll(int, Collection)} splits the tree at the index and joins a balanced tree
+ * built from the collection in O(m + log n), and the bulk removals rebuild the tree in one pass.
+ *
+ * A snapshot is an unmodifiable {@code PersistentGemstoneList} holding the current tree. Writers
+ * keep editing the original list while readers traverse snapshots without locking; the root of
+ * the original list is published through a volatile field, so a snapshot may be taken from any
+ * thread. Edits themselves must come from one thread at a time.
+ *
+ * Iterators traverse the version of the list current at their creation; {@link #listIterator()}
+ * is fail-fast like other {@code AbstractList}s. Null elements are supported.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     PersistentGemstoneList inventory = new PersistentGemstoneList(myList);
+ *     List&lt;Gemstone&gt; report = inventory.snapshot();
+ *     inventory.remove(0);  // report is unchanged
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ */
+public class PersistentGemstoneList extends AbstractList<Gemstone> {
+
+    /**
+     * Maximum number of elements in the chunk of a node.
+     */
+    static final int CHUNK_SIZE = 32;
+
+    /**
+     * The root of the current version, or {@code null} if the list is empty.
+     */
+    private volatile Node root;
+
+    /**
+     * Whether this list is a snapshot and rejects every modification.
+     */
+    private final boolean snapshot;
+
+    /**
+     * An immutable tree node holding a non-empty chunk of elements.
+     */
+    private static final class Node {
+        private final Node left;
+        private final Gemstone[] values;
+        private final Node right;
+        private final int size;
+        private final int height;
+
+        /**
+         * Constructs a node; the subtrees must already be balanced against each other.
+         *
+         * @param left the elements before {@code values}
+         * @param values the chunk of the node, which must not be modified afterwards
+         * @param right the elements after {@code values}
+         */
+        Node(Node left, Gemstone[] values, Node right) {
+            this.left = left;
+            this.values = values;
+            this.right = right;
+            this.size = size(left) + values.length + size(right);
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    /**
+     * The {@code VersionIterator} class is an implementation of the {@code Iterator<Gemstone>}
+     * interface that walks one version of the tree in order, keeping the path to the next node
+     * on a stack and the position in the chunk of the current node.
+     */
+    private static class VersionIterator implements Iterator<Gemstone> {
+        private final Deque<Node> path = new ArrayDeque<>();
+        private Gemstone[] chunk = new Gemstone[0];
+        private int position = 0;
+
+        /**
+         * Constructs a {@code VersionIterator} over the specified tree.
+         *
+         * @param root the root of the version to traverse
+         */
+        public VersionIterator(Node root) {
+            pushLeftSpine(root);
+        }
+
+        /**
+         * Returns {@code true} if the iteration has more elements.
+         *
+         * @return {@code true} if there are more elements to iterate over
+         */
+        @Override
+        public boolean hasNext() {
+            return position < chunk.length || !path.isEmpty();
+        }
+
+        /**
+         * Returns the next gemstone in the iteration.
+         *
+         * @return the next gemstone in the version
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public Gemstone next() {
+            if (position == chunk.length) {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = path.pop();
+                pushLeftSpine(node.right);
+                chunk = node.values;
+                position = 0;
+            }
+            return chunk[position++];
+        }
+
+        private void pushLeftSpine(Node node) {
+            for (; node != null; node = node.left) {
+                path.push(node);
+            }
+        }
+    }
+
+    /**
+     * Constructs an empty list.
+     */
+    public PersistentGemstoneList() {
+        this(null, false);
+    }
+
+    /**
+     * Constructs a list containing all gemstones from the specified collection.
+     *
+     * @param gemstones the collection of gemstones to be added to the list
+     * @throws NullPointerException if the collection is null
+     */
+    public PersistentGemstoneList(Collection<? extends Gemstone> gemstones) {
+        this(build(gemstones.toArray()), false);
+    }
+
+    private PersistentGemstoneList(Node root, boolean snapshot) {
+        this.root = root;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns an unmodifiable view of the current version of this list. Later edits of this
+     * list are not visible through the snapshot. Takes O(1) time and copies nothing.
+     *
+     * @return the snapshot
+     */
+    public PersistentGemstoneList snapshot() {
+        return snapshot ? this : new PersistentGemstoneList(root, true);
+    }
+
+    /**
+     * Returns whether this list is a snapshot.
+     *
+     * @return {@code true} if this list cannot be modified
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     *
+     * @return the number of elements in the list
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the element at the specified position in this list.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone get(int index) {
+        Node node = root;
+        checkIndex(index, size(node));
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+                continue;
+            }
+            index -= leftSize;
+            if (index < node.values.length) {
+                return node.values[index];
+            }
+            index -= node.values.length;
+            node = node.right;
+        }
+    }
+
+    /**
+     * Replaces the element at the specified position, copying the path to it.
+     *
+     * @param index index of the element to replace
+     * @param element element to be stored at the specified position
+     * @return the element previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public Gemstone set(int index, Gemstone element) {
+        checkModifiable();
+        Gemstone previous = get(index);
+        root = set(root, index, element);
+        return previous;
+    }
+
+    /**
+     * Inserts the specified element at the specified position, copying the path to it.
+     *
+     * @param index index at which the specified element is to be inserted
+     * @param element element to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public void add(int index, Gemstone element) {
+        checkModifiable();
+        Node current = root;
+        if (index < 0 || index > size(current)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(current));
+        }
+        root = insert(current, index, element);
+        ++modCount;
+    }
+
+    /**
+     * Removes the element at the specified position, copying the path to it.
+     *
+     * @param index the index of the element to be removed
+     * @return the element that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public Gemstone remove(int index) {
+        checkModifiable();
+        Gemstone removed = get(index);
+        root = remove(root, index);
+        ++modCount;
+        return removed;
+    }
+
+    /**
+     * Removes the first occurrence of the specified element from this list, if it is present.
+     *
+     * @param o element to be removed from this list, if present
+     * @return {@code true} if this list contained the specified element
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public boolean remove(Object o) {
+        checkModifiable();
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Removes all the elements that satisfy the given predicate, rebuilding the tree from the
+     * remaining elements in one pass.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     * @throws NullPointerException if the filter is null
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Gemstone> filter) {
+        checkModifiable();
+        Objects.requireNonNull(filter);
+        Node current = root;
+        Gemstone[] kept = new Gemstone[size(current)];
+        int size = 0;
+        for (Iterator<Gemstone> iterator = new VersionIterator(current); iterator.hasNext(); ) {
+            Gemstone gemstone = iterator.next();
+            if (!filter.test(gemstone)) {
+                kept[size++] = gemstone;
+            }
+        }
+        if (size == kept.length) {
+            return false;
+        }
+        root = build(kept, size);
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Removes from this list all of its elements that are contained in the specified collection.
+     *
+     * @param c collection containing elements to be removed from this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the collection is null
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    /**
+     * Retains only the elements in this list that are contained in the specified collection.
+     *
+     * @param c collection containing elements to be retained in this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the collection is null
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(gemstone -> !c.contains(gemstone));
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element in this list.
+     *
+     * @param o element to search for
+     * @return the index of the first occurrence, or -1 if this list does not contain the element
+     */
+    @Override
+    public int indexOf(Object o) {
+        int index = 0;
+        for (Iterator<Gemstone> iterator = iterator(); iterator.hasNext(); ++index) {
+            if (Objects.equals(o, iterator.next())) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts all the elements of the specified collection at the specified position by
+     * splitting the tree and joining a balanced tree built from the collection.
+     *
+     * @param index index at which to insert the first element from the specified collection
+     * @param c collection containing elements to be added to this list
+     * @return {@code true} if the list changed as a result of the call
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends Gemstone> c) {
+        checkModifiable();
+        Node current = root;
+        if (index < 0 || index > size(current)) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        Object[] elementsToAdd = c.toArray();
+        if (elementsToAdd.length == 0) {
+            return false;
+        }
+
+        Node[] parts = split(current, index);
+        root = concat(concat(parts[0], build(elementsToAdd)), parts[1]);
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Appends all the elements of the specified collection to the end of this list.
+     *
+     * @param c collection containing elements to be added to this list
+     * @return {@code true} if the list changed as a result of the call
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public boolean addAll(Collection<? extends Gemstone> c) {
+        return addAll(size(), c);
+    }
+
+    /**
+     * Removes all the elements from this list.
+     *
+     * @throws UnsupportedOperationException if this list is a snapshot
+     */
+    @Override
+    public void clear() {
+        checkModifiable();
+        root = null;
+        ++modCount;
+    }
+
+    /**
+     * Returns an iterator over the version of this list current at the time of the call.
+     *
+     * @return an iterator over the elements in this list in proper sequence
+     */
+    @Override
+    public Iterator<Gemstone> iterator() {
+        return new VersionIterator(root);
+    }
+
+    private void checkModifiable() {
+        if (snapshot) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Creates a node from subtrees whose heights differ by at most two, rotating once or
+     * twice to restore the AVL balance.
+     *
+     * @param left the elements before {@code values}
+     * @param values the chunk of the new node
+     * @param right the elements after {@code values}
+     * @return a balanced tree of {@code left}, {@code values} and {@code right}
+     */
+    private static Node balance(Node left, Gemstone[] values, Node right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.left, left.values, new Node(left.right, values, right));
+            }
+            return new Node(new Node(left.left, left.values, left.right.left), left.right.values,
+                    new Node(left.right.right, values, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(new Node(left, values, right.left), right.values, right.right);
+            }
+            return new Node(new Node(left, values, right.left.left), right.left.values,
+                    new Node(right.left.right, right.values, right.right));
+        }
+        return new Node(left, values, right);
+    }
+
+    private static Node set(Node node, int index, Gemstone element) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node(set(node.left, index, element), node.values, node.right);
+        }
+        int offset = index - leftSize;
+        if (offset >= node.values.length) {
+            return new Node(node.left, node.values, set(node.right, offset - node.values.length, element));
+        }
+        Gemstone[] values = node.values.clone();
+        values[offset] = element;
+        return new Node(node.left, values, node.right);
+    }
+
+    /**
+     * Inserts an element into the chunk that holds its position, or at the end of the chunk
+     * before it. A chunk that overflows is split in two.
+     */
+    private static Node insert(Node node, int index, Gemstone element) {
+        if (node == null) {
+            return new Node(null, new Gemstone[] {element}, null);
+        }
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(insert(node.left, index, element), node.values, node.right);
+        }
+        int offset = index - leftSize;
+        int length = node.values.length;
+        if (offset > length) {
+            return balance(node.left, node.values, insert(node.right, offset - length, element));
+        }
+
+        Gemstone[] values = new Gemstone[length + 1];
+        System.arraycopy(node.values, 0, values, 0, offset);
+        values[offset] = element;
+        System.arraycopy(node.values, offset, values, offset + 1, length - offset);
+        if (values.length <= CHUNK_SIZE) {
+            return new Node(node.left, values, node.right);
+        }
+        int half = values.length >>> 1;
+        return balance(node.left, Arrays.copyOf(values, half),
+                join(null, Arrays.copyOfRange(values, half, values.length), node.right));
+    }
+
+    /**
+     * Removes an element from its chunk, and the node with it if the chunk becomes empty.
+     */
+    private static Node remove(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(remove(node.left, index), node.values, node.right);
+        }
+        int offset = index - leftSize;
+        int length = node.values.length;
+        if (offset >= length) {
+            return balance(node.left, node.values, remove(node.right, offset - length));
+        }
+        if (length > 1) {
+            Gemstone[] values = new Gemstone[length - 1];
+            System.arraycopy(node.values, 0, values, 0, offset);
+            System.arraycopy(node.values, offset + 1, values, offset, length - offset - 1);
+            return new Node(node.left, values, node.right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        return balance(node.left, firstChunk(node.right), removeFirstChunk(node.right));
+    }
+
+    private static Gemstone[] firstChunk(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.values;
+    }
+
+    private static Node removeFirstChunk(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(removeFirstChunk(node.left), node.values, node.right);
+    }
+
+    /**
+     * Joins two trees of any heights around a middle chunk in O(|height difference|) time.
+     *
+     * @param left the elements before {@code values}
+     * @param values the middle chunk
+     * @param right the elements after {@code values}
+     * @return a balanced tree of {@code left}, {@code values} and {@code right}
+     */
+    private static Node join(Node left, Gemstone[] values, Node right) {
+        if (height(left) > height(right) + 1) {
+            return balance(left.left, left.values, join(left.right, values, right));
+        }
+        if (height(right) > height(left) + 1) {
+            return balance(join(left, values, right.left), right.values, right.right);
+        }
+        return new Node(left, values, right);
+    }
+
+    /**
+     * Concatenates two trees in O(log n) time.
+     *
+     * @param left the first elements
+     * @param right the following elements
+     * @return a balanced tree of {@code left} followed by {@code right}
+     */
+    private static Node concat(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return join(left, firstChunk(right), removeFirstChunk(right));
+    }
+
+    /**
+     * Splits a tree before the specified index in O(log n) time, splitting the chunk that holds
+     * the index if it is not at a chunk boundary.
+     *
+     * @param node the tree to split
+     * @param index the number of elements that go to the first part
+     * @return the tree of the first {@code index} elements and the tree of the rest
+     */
+    private static Node[] split(Node node, int index) {
+        if (node == null) {
+            return new Node[2];
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            Node[] parts = split(node.left, index);
+            parts[1] = join(parts[1], node.values, node.right);
+            return parts;
+        }
+        int offset = index - leftSize;
+        int length = node.values.length;
+        if (offset >= length) {
+            Node[] parts = split(node.right, offset - length);
+            parts[0] = join(node.left, node.values, parts[0]);
+            return parts;
+        }
+        return new Node[] {join(node.left, Arrays.copyOf(node.values, offset), null),
+                join(null, Arrays.copyOfRange(node.values, offset, length), node.right)};
+    }
+
+    private static Node build(Object[] elements) {
+        return build(elements, elements.length);
+    }
+
+    /**
+     * Builds a perfectly balanced tree of full chunks from the first elements of an array in O(n) time.
+     *
+     * @param elements the elements, in order
+     * @param size the number of elements to take
+     * @return the root of the tree, or {@code null} if {@code size} is 0
+     */
+    private static Node build(Object[] elements, int size) {
+        return build(elements, size, 0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    private static Node build(Object[] elements, int size, int fromChunk, int toChunk) {
+        if (fromChunk >= toChunk) {
+            return null;
+        }
+        int middle = (fromChunk + toChunk) >>> 1;
+        int start = middle * CHUNK_SIZE;
+        Gemstone[] values = Arrays.copyOfRange(elements, start, Math.min(size, start + CHUNK_SIZE), Gemstone[].class);
+        return new Node(build(elements, size, fromChunk, middle), values, build(elements, size, middle + 1, toChunk));
+    }
+}
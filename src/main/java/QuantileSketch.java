@@ -0,0 +1,318 @@
+import gemstones.Gemstone;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * The {@code QuantileSketch} class estimates quantiles of a stream of values, such as the
+ * median price per carat or the 99th percentile of the weight, in a small fixed amount of memory.
+ *
+ * The sketch is a KLL sketch: a stack of compactors, where every value stored at level
+ * {@code h} stands for {@code 2^h} values of the stream. When a level exceeds its capacity it is
+ * sorted and every other value, starting at a random offset, is promoted to the next level, so
+ * the sketch keeps O(k log(n / k)) values and answers {@link #quantile(double)} and
+ * {@link #rank(double)} with a rank error of about 1.7% for the default {@code k} of
+ * {@value #DEFAULT_K}. The smallest and the largest value are kept exactly.
+ *
+ * Sketches are mergeable: {@link #merge(QuantileSketch)} combines the sketches of two streams
+ * with the accuracy of one sketch of both, so {@link #collector(ToDoubleFunction)} builds sketches
+ * in parallel streams and per group with {@code Collectors.groupingBy}. A sketch does not support
+ * removing values; {@link GemstoneIndex#quantile(gemstones.GemstoneAttribute, double)} answers
+ * exact quantiles of an attribute that follow the changes of a {@link MyList}.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     Map&lt;GemstoneType, QuantileSketch&gt; pricePerCarat = myList.parallelStream().collect(
+ *             Collectors.groupingBy(GemstoneType::of, QuantileSketch.collector(g -&gt; g.getPrice() / g.getWeight())));
+ *     double medianDiamond = pricePerCarat.get(GemstoneType.DIAMOND).quantile(0.5);
+ * </pre>
+ * </p>
+ *
+ * @see GemstoneTopK
+ */
+public final class QuantileSketch {
+
+    /**
+     * Default capacity of the highest level, which determines the accuracy of the sketch.
+     */
+    public static final int DEFAULT_K = 200;
+
+    /**
+     * Smallest capacity of a level.
+     */
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * Ratio between the capacities of two neighbouring levels.
+     */
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    /**
+     * The generator every sketch splits its own generator from, so that the compactions of
+     * different sketches, such as the partial sketches of a parallel stream, are independent.
+     * Splitting is not thread-safe, so it is guarded by this generator's lock.
+     */
+    private static final SplittableRandom SEEDS = new SplittableRandom();
+
+    private final int k;
+    private final SplittableRandom random;
+    private double[][] levels = new double[1][MIN_CAPACITY];
+    private int[] sizes = new int[1];
+    private int[] capacities;
+    private long count = 0;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Constructs an empty sketch with the default accuracy.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Constructs an empty sketch. The rank error decreases roughly as {@code 1 / k}.
+     *
+     * @param k the capacity of the highest level, at least {@value #MIN_CAPACITY}
+     * @throws IllegalArgumentException if {@code k} is less than {@value #MIN_CAPACITY}
+     */
+    public QuantileSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("Invalid k");
+        }
+        this.k = k;
+        synchronized (SEEDS) {
+            this.random = SEEDS.split();
+        }
+        this.capacities = new int[] {k};
+    }
+
+    /**
+     * Returns a collector that sketches a key of gemstones. Null gemstones are ignored.
+     *
+     * @param key the key to sketch
+     * @return the collector
+     * @throws NullPointerException if the key is null
+     */
+    public static Collector<Gemstone, ?, QuantileSketch> collector(ToDoubleFunction<? super Gemstone> key) {
+        Objects.requireNonNull(key);
+        return Collector.of(QuantileSketch::new, (sketch, gemstone) -> {
+            if (gemstone != null) {
+                sketch.update(key.applyAsDouble(gemstone));
+            }
+        }, QuantileSketch::merge, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Adds a value to the sketch in amortized O(1) time.
+     *
+     * @param value the value, ignored if it is NaN
+     */
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count++ == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        append(0, value);
+        if (sizes[0] >= capacities[0]) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds the values of another sketch to this one. A sketch merged with itself counts every
+     * value twice.
+     *
+     * @param other the other sketch
+     * @return this sketch
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        while (levels.length < other.levels.length) {
+            addLevel();
+        }
+        int[] otherSizes = other == this ? sizes.clone() : other.sizes;
+        for (int level = 0; level < other.levels.length; ++level) {
+            for (int i = 0; i < otherSizes[level]; ++i) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compress();
+        return this;
+    }
+
+    /**
+     * Returns the number of values added to the sketch.
+     *
+     * @return the number of values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest value added to the sketch.
+     *
+     * @return the smallest value, or NaN if the sketch is empty
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * Returns the largest value added to the sketch.
+     *
+     * @return the largest value, or NaN if the sketch is empty
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Returns an estimate of the value at the specified quantile: the smallest stored value
+     * such that at least a fraction {@code q} of the values are not larger.
+     *
+     * @param q the quantile, between 0 and 1 (inclusive)
+     * @return the estimated value, or NaN if the sketch is empty
+     * @throws IllegalArgumentException if {@code q} is not between 0 and 1
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Invalid quantile");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        sortLevels();
+        long totalWeight = 0;
+        for (int level = 0; level < levels.length; ++level) {
+            totalWeight += (long) sizes[level] << level;
+        }
+        double target = q * totalWeight;
+        int[] positions = new int[levels.length];
+        long weight = 0;
+        while (true) {
+            int smallest = -1;
+            for (int level = 0; level < levels.length; ++level) {
+                if (positions[level] < sizes[level] && (smallest < 0
+                        || levels[level][positions[level]] < levels[smallest][positions[smallest]])) {
+                    smallest = level;
+                }
+            }
+            if (smallest < 0) {
+                return max;
+            }
+            weight += 1L << smallest;
+            double value = levels[smallest][positions[smallest]++];
+            if (weight >= target) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Returns an estimate of the fraction of the values that are not larger than the specified value.
+     *
+     * @param value the value
+     * @return the estimated rank between 0 and 1, or NaN if the sketch is empty
+     */
+    public double rank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long below = 0;
+        long totalWeight = 0;
+        for (int level = 0; level < levels.length; ++level) {
+            for (int i = 0; i < sizes[level]; ++i) {
+                if (levels[level][i] <= value) {
+                    below += 1L << level;
+                }
+            }
+            totalWeight += (long) sizes[level] << level;
+        }
+        return (double) below / totalWeight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QuantileSketch[count=%d, min=%s, median=%s, max=%s]", count, min, quantile(0.5), max);
+    }
+
+
+    /**
+     * Compacts every level that exceeds its capacity, from the lowest one up.
+     */
+    private void compress() {
+        for (int level = 0; level < levels.length; ++level) {
+            if (sizes[level] >= capacities[level]) {
+                compact(level);
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and promotes every other value of it to the next level, starting at a random
+     * offset. If the level holds an odd number of values, its smallest value stays.
+     */
+    private void compact(int level) {
+        if (level == levels.length - 1) {
+            addLevel();
+        }
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+        int kept = size & 1;
+        for (int i = kept + (random.nextBoolean() ? 1 : 0); i < size; i += 2) {
+            append(level + 1, values[i]);
+        }
+        sizes[level] = kept;
+    }
+
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    /**
+     * Adds a level on top and recomputes the capacities: {@code k} for the highest level,
+     * shrinking by a factor of 2/3 per level below it, but at least {@value #MIN_CAPACITY}.
+     */
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levels[levels.length - 1] = new double[MIN_CAPACITY];
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        capacities = new int[levels.length];
+        for (int level = 0; level < levels.length; ++level) {
+            int depth = levels.length - 1 - level;
+            capacities[level] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, depth)));
+        }
+    }
+
+    private void sortLevels() {
+        for (int level = 0; level < levels.length; ++level) {
+            Arrays.sort(levels[level], 0, sizes[level]);
+        }
+    }
+}
@@ -0,0 +1,751 @@
+import gemstones.Gemstone;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+/**
+ * The {@code StripedGemstoneList} class is a thread-safe list of gemstones whose index space
+ * is split into segments of a fixed size, each guarded by its own {@link StampedLock}. Segment
+ * {@code k} holds the elements with indices {@code k * segmentSize} to {@code (k + 1) * segmentSize - 1};
+ * every segment before the one holding the last element is full.
+ *
+ * {@link #get(int)} reads its segment under an optimistic stamp and only takes the read lock if
+ * a writer interfered, and {@link #set(int, Gemstone)} write-locks only its own segment, so point
+ * reads and writes to different segments never contend. {@link #add(int, Gemstone)} and
+ * {@link #remove(int)} write-lock the affected segment and the following ones up to the end of the
+ * list, always in ascending order, and carry one element across each boundary. Segments are ring
+ * buffers, so the carry is O(1) and a structural edit costs O(segmentSize + size / segmentSize).
+ *
+ * {@link #iterator()} and {@link #spliterator()} are weakly consistent: they read one element at
+ * a time under its segment's lock, end early if elements were removed concurrently, and never throw
+ * {@link ConcurrentModificationException}; the searches and {@link #equals(Object)} read the list
+ * the same way. Removals by value, such as {@link #remove(Object)} and {@link #removeIf(Predicate)},
+ * lock every segment and compact the list in one pass. Null elements are not supported.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     StripedGemstoneList inventory = new StripedGemstoneList();
+ *     inventory.add(new Diamond(1, 1, 1));
+ *     // from many request threads:
+ *     Gemstone gemstone = inventory.get(0);
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ * @see ConcurrentGemstoneList
+ */
+public class StripedGemstoneList extends AbstractList<Gemstone> implements RandomAccess {
+
+    /**
+     * Default number of elements per segment.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 1024;
+
+    /**
+     * Initial length of the segment directory.
+     */
+    private static final int INITIAL_SEGMENTS = 16;
+
+    /**
+     * {@code log2(segmentSize)}.
+     */
+    private final int segmentShift;
+
+    /**
+     * {@code segmentSize - 1}.
+     */
+    private final int segmentMask;
+
+    /**
+     * Directory of the segments. Entries after the last used segment may be {@code null}.
+     * A segment is created, and the directory grown, only by a thread holding the write lock
+     * of the segment before it.
+     */
+    private volatile Segment[] segments;
+
+    /**
+     * The number of elements, written only by a thread holding the lock of the last segment.
+     */
+    private volatile int size = 0;
+
+    /**
+     * A fixed-capacity ring buffer of gemstones with its own lock.
+     */
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private final Gemstone[] items;
+        private final int mask;
+        private int head = 0;
+        private int count = 0;
+
+        /**
+         * Constructs an empty segment.
+         *
+         * @param capacity the capacity of the segment, a power of two
+         */
+        Segment(int capacity) {
+            items = new Gemstone[capacity];
+            mask = capacity - 1;
+        }
+
+        boolean isFull() {
+            return count == items.length;
+        }
+
+        Gemstone get(int offset) {
+            return items[(head + offset) & mask];
+        }
+
+        Gemstone set(int offset, Gemstone element) {
+            int position = (head + offset) & mask;
+            Gemstone previous = items[position];
+            items[position] = element;
+            return previous;
+        }
+
+        /**
+         * Inserts an element, moving whichever side of the offset is shorter. The segment must not be full.
+         *
+         * @param offset position of the new element, {@code 0 <= offset <= count}
+         * @param element the element to insert
+         */
+        void insert(int offset, Gemstone element) {
+            if (offset < count - offset) {
+                head = (head - 1) & mask;
+                for (int i = 0; i < offset; ++i) {
+                    items[(head + i) & mask] = items[(head + i + 1) & mask];
+                }
+            } else {
+                for (int i = count; i > offset; --i) {
+                    items[(head + i) & mask] = items[(head + i - 1) & mask];
+                }
+            }
+            items[(head + offset) & mask] = element;
+            ++count;
+        }
+
+        /**
+         * Removes an element, moving whichever side of the offset is shorter.
+         *
+         * @param offset position of the element, {@code 0 <= offset < count}
+         * @return the removed element
+         */
+        Gemstone remove(int offset) {
+            Gemstone removed = get(offset);
+            if (offset < count - 1 - offset) {
+                for (int i = offset; i > 0; --i) {
+                    items[(head + i) & mask] = items[(head + i - 1) & mask];
+                }
+                items[head] = null;
+                head = (head + 1) & mask;
+            } else {
+                for (int i = offset; i < count - 1; ++i) {
+                    items[(head + i) & mask] = items[(head + i + 1) & mask];
+                }
+                items[(head + count - 1) & mask] = null;
+            }
+            --count;
+            return removed;
+        }
+
+        void clear() {
+            Arrays.fill(items, null);
+            head = 0;
+            count = 0;
+        }
+    }
+
+    /**
+     * The {@code WeaklyConsistentIterator} class is an implementation of the {@code Iterator<Gemstone>}
+     * interface that reads the next element ahead in {@link #hasNext()}, so that {@link #next()}
+     * never fails after {@code hasNext()} returned {@code true}, even if the list shrank in between.
+     */
+    private final class WeaklyConsistentIterator implements Iterator<Gemstone> {
+        private int cursor = 0;
+        private Gemstone next = null;
+
+        /**
+         * Returns {@code true} if the element at the cursor still exists.
+         *
+         * @return {@code true} if there are more elements to iterate over
+         */
+        @Override
+        public boolean hasNext() {
+            if (next == null && cursor < size) {
+                next = elementAt(cursor);
+            }
+            return next != null;
+        }
+
+        /**
+         * Returns the next gemstone in the iteration.
+         *
+         * @return the next gemstone in the list
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public Gemstone next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Gemstone element = next;
+            next = null;
+            ++cursor;
+            return element;
+        }
+    }
+
+    /**
+     * The segments write-locked by one structural operation, in ascending order.
+     */
+    private static final class LockedRange {
+        private final int first;
+        private Segment[] locked = new Segment[4];
+        private long[] stamps = new long[4];
+        private int amount = 0;
+
+        /**
+         * @param first the number of the first segment that will be locked
+         */
+        LockedRange(int first) {
+            this.first = first;
+        }
+
+        void lock(Segment segment) {
+            if (amount == locked.length) {
+                locked = Arrays.copyOf(locked, amount * 2);
+                stamps = Arrays.copyOf(stamps, amount * 2);
+            }
+            stamps[amount] = segment.lock.writeLock();
+            locked[amount++] = segment;
+        }
+
+        Segment last() {
+            return locked[amount - 1];
+        }
+
+        void unlockAll() {
+            for (int i = amount - 1; i >= 0; --i) {
+                locked[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Constructs an empty list with the default segment size.
+     */
+    public StripedGemstoneList() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructs an empty list with the specified segment size. Smaller segments make structural
+     * edits cheaper to shift, larger ones make them lock fewer segments.
+     *
+     * @param segmentSize the number of elements per segment, a power of two
+     * @throws IllegalArgumentException if the segment size is not a positive power of two
+     */
+    public StripedGemstoneList(int segmentSize) {
+        if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("Invalid segment size");
+        }
+        segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        segmentMask = segmentSize - 1;
+        Segment[] directory = new Segment[INITIAL_SEGMENTS];
+        directory[0] = new Segment(segmentSize);
+        segments = directory;
+    }
+
+    /**
+     * Constructs a list with the default segment size containing all gemstones from the specified collection.
+     *
+     * @param gemstones the collection of gemstones to be added
+     * @throws NullPointerException if the collection or any of its elements is null
+     */
+    public StripedGemstoneList(Collection<? extends Gemstone> gemstones) {
+        this();
+        addAll(gemstones);
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     *
+     * @return the number of elements in the list
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the element at the specified position, reading its segment optimistically.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone get(int index) {
+        Gemstone element = elementAt(index);
+        if (element == null) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return element;
+    }
+
+    /**
+     * Returns an iterator that reads the elements one at a time under their segment's lock and
+     * stops at the current end of the list; it never throws {@link ConcurrentModificationException}.
+     *
+     * @return a weakly consistent iterator over the elements in this list
+     */
+    @Override
+    public Iterator<Gemstone> iterator() {
+        return new WeaklyConsistentIterator();
+    }
+
+    /**
+     * Returns a weakly consistent spliterator over the elements in this list.
+     *
+     * @return a spliterator over the elements in this list
+     */
+    @Override
+    public Spliterator<Gemstone> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Reads the element at the specified position, optimistically and then under the read lock
+     * of its segment if a writer interfered.
+     *
+     * @param index index of the element to read
+     * @return the element, or {@code null} if the index is out of range
+     */
+    private Gemstone elementAt(int index) {
+        Segment[] directory = segments;
+        int number = index >>> segmentShift;
+        if (index < 0 || number >= directory.length || directory[number] == null) {
+            return null;
+        }
+        Segment segment = directory[number];
+        int offset = index & segmentMask;
+
+        long stamp = segment.lock.tryOptimisticRead();
+        int count = segment.count;
+        Gemstone element = offset < count ? segment.get(offset) : null;
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                count = segment.count;
+                element = offset < count ? segment.get(offset) : null;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return offset < count ? element : null;
+    }
+
+    /**
+     * Replaces the element at the specified position, locking only its segment.
+     *
+     * @param index index of the element to replace
+     * @param element element to be stored at the specified position
+     * @return the element previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the element is null
+     */
+    @Override
+    public Gemstone set(int index, Gemstone element) {
+        Objects.requireNonNull(element);
+        Segment segment = segmentOf(index);
+        int offset = index & segmentMask;
+
+        long stamp = segment.lock.writeLock();
+        try {
+            if (offset >= segment.count) {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+            return segment.set(offset, element);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     *
+     * @param element element to be appended to this list
+     * @return {@code true}
+     * @throws NullPointerException if the element is null
+     */
+    @Override
+    public boolean add(Gemstone element) {
+        Objects.requireNonNull(element);
+        while (!insert(size, element, true)) {
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the specified position, locking the segments from
+     * that position to the end of the list.
+     *
+     * @param index index at which the specified element is to be inserted
+     * @param element element to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     * @throws NullPointerException if the element is null
+     */
+    @Override
+    public void add(int index, Gemstone element) {
+        Objects.requireNonNull(element);
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        insert(index, element, false);
+    }
+
+    /**
+     * Removes the element at the specified position, locking the segments from that position
+     * to the end of the list.
+     *
+     * @param index the index of the element to be removed
+     * @return the element that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone remove(int index) {
+        int first = index >>> segmentShift;
+        Segment[] directory = segments;
+        if (index < 0 || first >= directory.length || directory[first] == null) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        LockedRange range = new LockedRange(first);
+        try {
+            int number = first;
+            range.lock(directory[number]);
+            while (range.last().isFull()) {
+                directory = segments;
+                if (number + 1 >= directory.length || directory[number + 1] == null) {
+                    break;
+                }
+                range.lock(directory[++number]);
+            }
+
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+
+            Gemstone removed = range.locked[0].remove(index & segmentMask);
+            for (int i = 1; i < range.amount && range.locked[i].count > 0; ++i) {
+                Segment previous = range.locked[i - 1];
+                previous.insert(previous.count, range.locked[i].remove(0));
+            }
+            --size;
+            return removed;
+        } finally {
+            range.unlockAll();
+        }
+    }
+
+    /**
+     * Removes the first occurrence of the specified element from this list, if it is present.
+     *
+     * @param o element to be removed from this list, if present
+     * @return {@code true} if this list contained the specified element
+     */
+    @Override
+    public boolean remove(Object o) {
+        return o != null && removeMatching(o::equals, true);
+    }
+
+    /**
+     * Removes all the elements that satisfy the given predicate, locking every segment.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     * @throws NullPointerException if the filter is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Gemstone> filter) {
+        Objects.requireNonNull(filter);
+        return removeMatching(filter, false);
+    }
+
+    /**
+     * Removes from this list all of its elements that are contained in the specified collection.
+     *
+     * @param c collection containing elements to be removed from this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the collection is null
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    /**
+     * Retains only the elements in this list that are contained in the specified collection.
+     *
+     * @param c collection containing elements to be retained in this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the collection is null
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(gemstone -> !c.contains(gemstone));
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element in this list.
+     *
+     * @param o element to search for
+     * @return the index of the first occurrence, or -1 if this list does not contain the element
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        Gemstone element;
+        for (int index = 0; (element = elementAt(index)) != null; ++index) {
+            if (o.equals(element)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last occurrence of the specified element in this list.
+     *
+     * @param o element to search for
+     * @return the index of the last occurrence, or -1 if this list does not contain the element
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        for (int index = size - 1; index >= 0; --index) {
+            if (o.equals(elementAt(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the specified object with this list for equality, reading this list with its
+     * weakly consistent iterator.
+     *
+     * @param o the object to be compared for equality with this list
+     * @return {@code true} if the specified object is a list with equal elements in the same order
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof List<?> other)) {
+            return false;
+        }
+        Iterator<Gemstone> iterator = iterator();
+        Iterator<?> otherIterator = other.iterator();
+        while (iterator.hasNext() && otherIterator.hasNext()) {
+            if (!iterator.next().equals(otherIterator.next())) {
+                return false;
+            }
+        }
+        return !iterator.hasNext() && !otherIterator.hasNext();
+    }
+
+    /**
+     * Removes all the elements from this list, locking every segment.
+     */
+    @Override
+    public void clear() {
+        LockedRange range = new LockedRange(0);
+        try {
+            lockAll(range);
+            for (int i = 0; i < range.amount; ++i) {
+                range.locked[i].clear();
+            }
+            size = 0;
+        } finally {
+            range.unlockAll();
+        }
+    }
+
+    /**
+     * Removes the elements that satisfy a predicate with every segment locked: the predicate is
+     * tested on all elements first, so that an exception leaves the list unchanged, and the kept
+     * elements are then moved down in one pass.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @param firstOnly {@code true} to remove only the first matching element
+     * @return {@code true} if any elements were removed
+     */
+    private boolean removeMatching(Predicate<? super Gemstone> filter, boolean firstOnly) {
+        LockedRange range = new LockedRange(0);
+        try {
+            lockAll(range);
+            int oldSize = size;
+            BitSet removed = new BitSet();
+            for (int index = 0; index < oldSize; ++index) {
+                if (filter.test(range.locked[index >>> segmentShift].get(index & segmentMask))) {
+                    removed.set(index);
+                    if (firstOnly) {
+                        break;
+                    }
+                }
+            }
+            if (removed.isEmpty()) {
+                return false;
+            }
+
+            int kept = removed.nextSetBit(0);
+            for (int index = kept + 1; index < oldSize; ++index) {
+                if (!removed.get(index)) {
+                    Gemstone element = range.locked[index >>> segmentShift].get(index & segmentMask);
+                    range.locked[kept >>> segmentShift].set(kept & segmentMask, element);
+                    ++kept;
+                }
+            }
+            for (int i = 0; i < range.amount; ++i) {
+                Segment segment = range.locked[i];
+                int count = Math.max(0, Math.min(segment.count, kept - (i << segmentShift)));
+                for (int offset = count; offset < segment.count; ++offset) {
+                    segment.set(offset, null);
+                }
+                segment.count = count;
+            }
+            size = kept;
+            return true;
+        } finally {
+            range.unlockAll();
+        }
+    }
+
+    /**
+     * Write-locks every segment in ascending order. A segment is only created by a thread
+     * holding the lock of the segment before it, so no segment can appear behind the range.
+     *
+     * @param range the empty range of segment 0 to lock the segments into
+     */
+    private void lockAll(LockedRange range) {
+        Segment[] directory = segments;
+        for (int number = 0; number < directory.length && directory[number] != null; ++number) {
+            range.lock(directory[number]);
+            directory = segments;
+        }
+    }
+
+    /**
+     * Inserts an element after write-locking the segment of the index and every following full
+     * segment, creating a new segment when all of them are full.
+     *
+     * @param index index at which the element is to be inserted
+     * @param element element to be inserted
+     * @param append {@code true} if the element must end up last; the call then fails instead of
+     *               throwing when {@code index} is no longer the size of the list
+     * @return {@code false} if an append raced with another structural edit and must be retried
+     * @throws IndexOutOfBoundsException if the index is greater than the size of the list
+     * @throws OutOfMemoryError if the list is full
+     */
+    private boolean insert(int index, Gemstone element, boolean append) {
+        int first = index >>> segmentShift;
+        Segment[] directory = segments;
+        if (first > 0 && (first >= directory.length || directory[first] == null)) {
+            --first;
+        }
+        if (first >= directory.length || directory[first] == null) {
+            if (append) {
+                return false;
+            }
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        LockedRange range = new LockedRange(first);
+        try {
+            int number = first;
+            range.lock(directory[number]);
+            while (range.last().isFull()) {
+                range.lock(segmentAfter(number++));
+            }
+
+            int currentSize = size;
+            if (append ? index != currentSize : index > currentSize) {
+                if (append) {
+                    return false;
+                }
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + currentSize);
+            }
+            if (currentSize == GrowthPolicy.MAX_CAPACITY) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+
+            Gemstone carry = element;
+            for (int i = 0; i < range.amount && carry != null; ++i) {
+                int offset = index - ((range.first + i) << segmentShift);
+                if (offset > segmentMask) {
+                    continue;
+                }
+                Segment segment = range.locked[i];
+                Gemstone last = segment.isFull() ? segment.remove(segment.count - 1) : null;
+                segment.insert(Math.max(offset, 0), carry);
+                carry = last;
+            }
+            ++size;
+            return true;
+        } finally {
+            range.unlockAll();
+        }
+    }
+
+    /**
+     * Returns the segment after the specified one, creating it and growing the directory if
+     * needed. The caller must hold the write lock of segment {@code number}.
+     *
+     * @param number the number of a full segment
+     * @return segment {@code number + 1}
+     * @throws OutOfMemoryError if the directory cannot grow further
+     */
+    private Segment segmentAfter(int number) {
+        Segment[] directory = segments;
+        int next = number + 1;
+        if (next == directory.length) {
+            if (directory.length > GrowthPolicy.MAX_CAPACITY / 2) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+            directory = Arrays.copyOf(directory, directory.length * 2);
+        }
+        if (directory[next] == null) {
+            directory[next] = new Segment(segmentMask + 1);
+        }
+        segments = directory;
+        return directory[next];
+    }
+
+    /**
+     * Returns the segment that holds the specified index.
+     *
+     * @param index an index of the list
+     * @return the segment of the index
+     * @throws IndexOutOfBoundsException if the index is negative or beyond every segment
+     */
+    private Segment segmentOf(int index) {
+        Segment[] directory = segments;
+        int number = index >>> segmentShift;
+        if (index < 0 || number >= directory.length || directory[number] == null) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return directory[number];
+    }
+}
@@ -0,0 +1,418 @@
+import gemstones.Gemstone;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The {@code TieredGemstoneList} class is a list of gemstones stored in fixed-size chunks
+ * instead of one contiguous array, so that growing the list never copies existing elements
+ * and never allocates an array larger than one chunk.
+ *
+ * The list is a tiered vector: a directory of chunks, all of them full except the last one.
+ * Every chunk is a circular buffer whose size is a power of two, so {@link #get(int)} and
+ * {@link #set(int, Gemstone)} find an element with a shift and two masks in O(1). An insertion
+ * or removal at an index shifts elements only within the chunk of the index, and moves one
+ * element between every pair of neighbouring chunks after it by rotating their buffers, so it
+ * costs O(k + n / k) for chunks of size k, or O(&radic;n) when k is close to &radic;n.
+ * When the list is full a new chunk is allocated, and only the directory of chunk references is
+ * ever reallocated. With the default chunk size of 4096 elements every chunk stays far below the
+ * size at which G1 allocates humongous objects.
+ *
+ * The list offers the {@code List<Gemstone>} interface and the capacity methods of {@link MyList}.
+ * The iterators are the fail-fast iterators of {@link AbstractList}. Null elements are supported.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     TieredGemstoneList gemstones = new TieredGemstoneList();
+ *     gemstones.addAll(myList);
+ *     gemstones.add(gemstones.size() / 2, new Diamond(1, 1, 1));
+ * </pre>
+ * </p>
+ *
+ * @see MyList
+ */
+public class TieredGemstoneList extends AbstractList<Gemstone> implements RandomAccess {
+
+    /**
+     * Default number of elements in a chunk.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 12;
+
+    /**
+     * Initial length of the chunk directory.
+     */
+    private static final int DEFAULT_DIRECTORY_SIZE = 8;
+
+    /**
+     * Binary logarithm of the chunk size.
+     */
+    private final int chunkShift;
+
+    /**
+     * The chunk size minus one, masking a position within a chunk.
+     */
+    private final int chunkMask;
+
+    /**
+     * The directory of chunks; the first {@link #allocatedChunks} entries are allocated.
+     */
+    private Gemstone[][] chunks;
+
+    /**
+     * The position in its chunk of the first element of every chunk.
+     */
+    private int[] heads;
+
+    /**
+     * The number of allocated chunks, including empty ones after the last element.
+     */
+    private int allocatedChunks = 0;
+
+    /**
+     * The number of gemstones in the list.
+     */
+    private int size = 0;
+
+    /**
+     * Constructs an empty {@code TieredGemstoneList} with the default chunk size.
+     */
+    public TieredGemstoneList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs an empty {@code TieredGemstoneList} with the specified chunk size.
+     *
+     * @param chunkSize the number of elements in a chunk, a power of two of at least 2
+     * @throws IllegalArgumentException if the chunk size is not a power of two of at least 2
+     */
+    public TieredGemstoneList(int chunkSize) {
+        if (chunkSize < 2 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Invalid chunk size");
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+        this.chunks = new Gemstone[DEFAULT_DIRECTORY_SIZE][];
+        this.heads = new int[DEFAULT_DIRECTORY_SIZE];
+    }
+
+    /**
+     * Constructs a {@code TieredGemstoneList} with the default chunk size containing all
+     * gemstones from the specified collection.
+     *
+     * @param gemstones the collection of gemstones to be added to the list
+     * @throws NullPointerException if the collection is null
+     */
+    public TieredGemstoneList(Collection<? extends Gemstone> gemstones) {
+        this();
+        addAll(gemstones);
+    }
+
+    /**
+     * Returns the number of gemstones in the list.
+     *
+     * @return the number of gemstones
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the gemstone at the specified position.
+     *
+     * @param index index of the gemstone to return
+     * @return the gemstone at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone get(int index) {
+        checkIndex(index);
+        int chunk = index >>> chunkShift;
+        return chunks[chunk][(heads[chunk] + index) & chunkMask];
+    }
+
+    /**
+     * Replaces the gemstone at the specified position.
+     *
+     * @param index index of the gemstone to replace
+     * @param element gemstone to be stored at the specified position
+     * @return the gemstone previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone set(int index, Gemstone element) {
+        checkIndex(index);
+        int chunk = index >>> chunkShift;
+        int position = (heads[chunk] + index) & chunkMask;
+        Gemstone previous = chunks[chunk][position];
+        chunks[chunk][position] = element;
+        return previous;
+    }
+
+    /**
+     * Appends the specified gemstone to the end of the list in O(1).
+     *
+     * @param element gemstone to be appended
+     * @return {@code true}
+     */
+    @Override
+    public boolean add(Gemstone element) {
+        if (size == capacity()) {
+            allocateChunk();
+        }
+        int chunk = size >>> chunkShift;
+        chunks[chunk][(heads[chunk] + size) & chunkMask] = element;
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Inserts the specified gemstone at the specified position. Each chunk after the one holding
+     * the position passes its last element on to the next chunk, and only the elements of that
+     * chunk on the shorter side of the position are shifted.
+     *
+     * @param index index at which the gemstone is to be inserted
+     * @param element gemstone to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
+    @Override
+    public void add(int index, Gemstone element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        if (index == size) {
+            add(element);
+            return;
+        }
+        if (size == capacity()) {
+            allocateChunk();
+        }
+
+        int chunk = index >>> chunkShift;
+        int last = size >>> chunkShift;
+        for (int c = last; c > chunk; --c) {
+            Gemstone[] previous = chunks[c - 1];
+            int position = (heads[c - 1] + chunkMask) & chunkMask;
+            heads[c] = (heads[c] - 1) & chunkMask;
+            chunks[c][heads[c]] = previous[position];
+            previous[position] = null;
+        }
+
+        Gemstone[] elements = chunks[chunk];
+        int count = chunk == last ? size & chunkMask : chunkMask;
+        int local = index & chunkMask;
+        int head = heads[chunk];
+        if (local < count / 2) {
+            head = (head - 1) & chunkMask;
+            for (int i = 0; i < local; ++i) {
+                elements[(head + i) & chunkMask] = elements[(head + i + 1) & chunkMask];
+            }
+            heads[chunk] = head;
+        } else {
+            for (int i = count; i > local; --i) {
+                elements[(head + i) & chunkMask] = elements[(head + i - 1) & chunkMask];
+            }
+        }
+        elements[(head + local) & chunkMask] = element;
+        ++size;
+        ++modCount;
+    }
+
+    /**
+     * Removes the gemstone at the specified position. Only the elements of its chunk on the
+     * shorter side of the position are shifted, and each later chunk passes its first element
+     * back to the previous chunk.
+     *
+     * @param index the index of the gemstone to be removed
+     * @return the removed gemstone
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Gemstone remove(int index) {
+        checkIndex(index);
+        int chunk = index >>> chunkShift;
+        int last = (size - 1) >>> chunkShift;
+        Gemstone[] elements = chunks[chunk];
+        int count = chunk == last ? size - (chunk << chunkShift) : chunkMask + 1;
+        int local = index & chunkMask;
+        int head = heads[chunk];
+        Gemstone removed = elements[(head + local) & chunkMask];
+
+        if (local < count / 2) {
+            for (int i = local; i > 0; --i) {
+                elements[(head + i) & chunkMask] = elements[(head + i - 1) & chunkMask];
+            }
+            elements[head] = null;
+            heads[chunk] = (head + 1) & chunkMask;
+        } else {
+            for (int i = local; i < count - 1; ++i) {
+                elements[(head + i) & chunkMask] = elements[(head + i + 1) & chunkMask];
+            }
+            elements[(head + count - 1) & chunkMask] = null;
+        }
+
+        for (int c = chunk + 1; c <= last; ++c) {
+            Gemstone[] next = chunks[c];
+            chunks[c - 1][(heads[c - 1] + chunkMask) & chunkMask] = next[heads[c]];
+            next[heads[c]] = null;
+            heads[c] = (heads[c] + 1) & chunkMask;
+        }
+        --size;
+        ++modCount;
+        return removed;
+    }
+
+    /**
+     * Appends all gemstones of the specified collection, allocating the chunks they need once.
+     *
+     * @param c collection containing gemstones to be added
+     * @return {@code true} if the list changed as a result of the call
+     * @throws NullPointerException if the collection is null
+     */
+    @Override
+    public boolean addAll(Collection<? extends Gemstone> c) {
+        ensureCapacity(size + c.size());
+        for (Gemstone element : c) {
+            add(element);
+        }
+        return !c.isEmpty();
+    }
+
+    /**
+     * Removes the gemstones between the specified indices by moving the rest of the list
+     * down once. The emptied chunks stay allocated until {@link #trimToSize()}.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int removed = toIndex - fromIndex;
+        if (removed <= 0) {
+            return;
+        }
+        for (int i = fromIndex; i < size - removed; ++i) {
+            int from = i + removed;
+            int sourceChunk = from >>> chunkShift;
+            int targetChunk = i >>> chunkShift;
+            chunks[targetChunk][(heads[targetChunk] + i) & chunkMask] =
+                    chunks[sourceChunk][(heads[sourceChunk] + from) & chunkMask];
+        }
+        for (int i = size - removed; i < size; ++i) {
+            int chunk = i >>> chunkShift;
+            chunks[chunk][(heads[chunk] + i) & chunkMask] = null;
+        }
+        size -= removed;
+        ++modCount;
+    }
+
+    /**
+     * Removes all gemstones and releases every chunk.
+     */
+    @Override
+    public void clear() {
+        chunks = new Gemstone[DEFAULT_DIRECTORY_SIZE][];
+        heads = new int[DEFAULT_DIRECTORY_SIZE];
+        allocatedChunks = 0;
+        size = 0;
+        ++modCount;
+    }
+
+    /**
+     * Performs the given action for each gemstone, walking every chunk directly.
+     *
+     * @param action the action to be performed for each gemstone
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    public void forEach(Consumer<? super Gemstone> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (int chunk = 0, start = 0; start < size && modCount == expectedModCount; ++chunk, start += chunkMask + 1) {
+            Gemstone[] elements = chunks[chunk];
+            int head = heads[chunk];
+            int count = Math.min(chunkMask + 1, size - start);
+            for (int i = 0; i < count; ++i) {
+                action.accept(elements[(head + i) & chunkMask]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns the number of gemstones the list can hold without allocating another chunk.
+     *
+     * @return the current capacity of the list
+     */
+    public int capacity() {
+        return allocatedChunks << chunkShift;
+    }
+
+    /**
+     * Returns the number of elements in a chunk.
+     *
+     * @return the chunk size
+     */
+    public int chunkSize() {
+        return chunkMask + 1;
+    }
+
+    /**
+     * Allocates chunks, if necessary, so that the list can hold at least the specified number
+     * of gemstones. Existing chunks are never copied.
+     *
+     * @param minCapacity the desired minimum capacity
+     * @throws OutOfMemoryError if {@code minCapacity} exceeds the maximum array size
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > GrowthPolicy.MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        while (capacity() < minCapacity) {
+            allocateChunk();
+        }
+    }
+
+    /**
+     * Releases the chunks after the one holding the last gemstone and trims the directory.
+     */
+    public void trimToSize() {
+        int usedChunks = (size + chunkMask) >>> chunkShift;
+        Arrays.fill(chunks, usedChunks, allocatedChunks, null);
+        Arrays.fill(heads, usedChunks, allocatedChunks, 0);
+        allocatedChunks = usedChunks;
+        chunks = Arrays.copyOf(chunks, Math.max(usedChunks, 1));
+        heads = Arrays.copyOf(heads, chunks.length);
+    }
+
+    /**
+     * Appends an empty chunk, doubling the directory if it is full.
+     *
+     * @throws OutOfMemoryError if the list would exceed the maximum array size
+     */
+    private void allocateChunk() {
+        if ((long) (allocatedChunks + 1) << chunkShift > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        if (allocatedChunks == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            heads = Arrays.copyOf(heads, chunks.length);
+        }
+        chunks[allocatedChunks++] = new Gemstone[chunkMask + 1];
+    }
+
+    /**
+     * Checks that the index refers to a gemstone of the list.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+    }
+}
@@ -88,6 +88,16 @@ public abstract class Gemstone {
         return transparency;
     }
 
+    /**
+     * Returns an immutable value with the type and the current attributes of the gemstone.
+     * @return the value of the gemstone
+     * @throws IllegalArgumentException if the gemstone is not one of the {@link GemstoneType} classes
+     * @see GemstoneValue#of(Gemstone)
+     */
+    public GemstoneValue toValue() {
+        return GemstoneValue.of(this);
+    }
+
     /**
      * Returns a string representation of the gemstone, including its class name, weight, price, and transparency.
      * @return a string describing the gemstone
@@ -99,6 +109,21 @@ public abstract class Gemstone {
     }
 
 
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}, computed from the concrete class
+     * and the bits of the weight, price, and transparency. Adding {@code 0.0} maps {@code -0.0} to
+     * {@code 0.0}, because {@code equals} compares the attributes with {@code ==}.
+     * @return a hash code for the gemstone
+     */
+    @Override
+    public int hashCode() {
+        int result = getClass().hashCode();
+        result = 31 * result + Double.hashCode(weight + 0.0);
+        result = 31 * result + Double.hashCode(price + 0.0);
+        result = 31 * result + Double.hashCode(transparency + 0.0);
+        return result;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -0,0 +1,29 @@
+package gemstones;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The <code>gemstones.GemstoneAttribute</code> enum lists the numeric attributes of a {@link Gemstone}.
+ * It lets indexes, sorts and aggregations select an attribute without a getter call per switch.
+ */
+public enum GemstoneAttribute {
+    WEIGHT(Gemstone::getWeight),
+    PRICE(Gemstone::getPrice),
+    TRANSPARENCY(Gemstone::getTransparency);
+
+    private final ToDoubleFunction<Gemstone> getter;
+
+    GemstoneAttribute(ToDoubleFunction<Gemstone> getter) {
+        this.getter = getter;
+    }
+
+    /**
+     * Returns the value of this attribute for the specified gemstone.
+     * @param gemstone the gemstone
+     * @return the value of the attribute
+     * @throws NullPointerException if the gemstone is null
+     */
+    public double of(Gemstone gemstone) {
+        return getter.applyAsDouble(gemstone);
+    }
+}
@@ -0,0 +1,144 @@
+package gemstones;
+
+import gemstones.imp.*;
+
+import java.util.List;
+
+/**
+ * The <code>gemstones.GemstoneType</code> enum lists the concrete gemstone classes and gives each a compact code.
+ * It is used by storage formats that keep gemstone attributes as primitives and need to recreate the right class.
+ */
+public enum GemstoneType {
+    AGATE(Agate.class, Agate::new),
+    DIAMOND(Diamond.class, Diamond::new),
+    EMERALD(Emerald.class, Emerald::new),
+    LAZURITE(Lazurite.class, Lazurite::new),
+    OPAL(Opal.class, Opal::new),
+    RUBIN(Rubin.class, Rubin::new);
+
+    /**
+     * Creates a gemstone of a specific class from its attributes.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        /**
+         * Creates a gemstone with the specified weight, price, and transparency.
+         * @param weight       the weight of the gemstone in carats, must be positive
+         * @param price        the price of the gemstone, must be positive
+         * @param transparency the transparency of the gemstone, must be between 0 and 1 (inclusive)
+         * @return the new gemstone
+         * @throws IllegalArgumentException if any parameter is outside its valid range
+         */
+        Gemstone create(double weight, double price, double transparency);
+    }
+
+    private static final GemstoneType[] VALUES = values();
+    private static final List<GemstoneType> VALUE_LIST = List.of(VALUES);
+
+    private final Class<? extends Gemstone> gemstoneClass;
+    private final Factory factory;
+    private final boolean precious;
+
+    GemstoneType(Class<? extends Gemstone> gemstoneClass, Factory factory) {
+        this.gemstoneClass = gemstoneClass;
+        this.factory = factory;
+        this.precious = PreciousGemstone.class.isAssignableFrom(gemstoneClass);
+    }
+
+    /**
+     * Returns the code of this type, stable across releases as long as constants are only appended.
+     * @return the code of this type
+     */
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Returns the concrete gemstone class of this type.
+     * @return the gemstone class
+     */
+    public Class<? extends Gemstone> gemstoneClass() {
+        return gemstoneClass;
+    }
+
+    /**
+     * Returns whether this type is a {@link PreciousGemstone}.
+     * @return {@code true} for precious gemstones, {@code false} for semi-precious ones
+     */
+    public boolean isPrecious() {
+        return precious;
+    }
+
+    /**
+     * Creates a gemstone of this type.
+     * @param weight       the weight of the gemstone in carats, must be positive
+     * @param price        the price of the gemstone, must be positive
+     * @param transparency the transparency of the gemstone, must be between 0 and 1 (inclusive)
+     * @return the new gemstone
+     * @throws IllegalArgumentException if any parameter is outside its valid range
+     */
+    public Gemstone create(double weight, double price, double transparency) {
+        return factory.create(weight, price, transparency);
+    }
+
+    /**
+     * Returns all types in declaration order, the order of their codes. Unlike {@link #values()},
+     * this does not copy an array on every call.
+     * @return an unmodifiable list of the types
+     */
+    public static List<GemstoneType> valueList() {
+        return VALUE_LIST;
+    }
+
+    /**
+     * Returns the type with the specified code.
+     * @param code the code returned by {@link #code()}
+     * @return the type with this code
+     * @throws IllegalArgumentException if no type has this code
+     */
+    public static GemstoneType fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown gemstone type code: " + code);
+        }
+        return VALUES[code];
+    }
+
+    /**
+     * Returns the type of the specified gemstone class.
+     * @param gemstoneClass a concrete gemstone class
+     * @return the type of this class
+     * @throws IllegalArgumentException if the class is not one of the known gemstone classes
+     */
+    public static GemstoneType of(Class<?> gemstoneClass) {
+        GemstoneType type = find(gemstoneClass);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown gemstone type: " + gemstoneClass.getName());
+        }
+        return type;
+    }
+
+    /**
+     * Returns the type of the specified gemstone class, for callers that accept other classes.
+     * @param gemstoneClass a gemstone class
+     * @return the type of this class, or {@code null} if it is not one of the known gemstone classes
+     */
+    public static GemstoneType find(Class<?> gemstoneClass) {
+        for (GemstoneType type : VALUES) {
+            if (type.gemstoneClass == gemstoneClass) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type of the specified gemstone.
+     * @param gemstone the gemstone
+     * @return the type of the gemstone
+     * @throws IllegalArgumentException if the gemstone is not of a known class
+     * @throws NullPointerException if the gemstone is null
+     */
+    public static GemstoneType of(Gemstone gemstone) {
+        return of(gemstone.getClass());
+    }
+}
@@ -0,0 +1,123 @@
+package gemstones;
+
+import java.util.Objects;
+
+/**
+ * The <code>gemstones.GemstoneValue</code> record is an immutable counterpart of {@link Gemstone}:
+ * a type together with a weight, a price and a transparency, validated like the setters of
+ * {@link Gemstone}. Changing an attribute returns a new value through {@link #withWeight(double)},
+ * {@link #withPrice(double)} or {@link #withTransparency(double)}.
+ *
+ * Values can be shared and cached freely, and because they have no identity that anything
+ * depends on, a value that does not escape a loop body can be scalar-replaced by the JIT, so
+ * that creating it costs no allocation at all. Values convert to and from the mutable
+ * <code>gemstones.imp</code> classes with {@link #of(Gemstone)}, {@link Gemstone#toValue()} and
+ * {@link #toGemstone()}.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ *     double total = 0;
+ *     for (Gemstone gemstone : myList) {
+ *         GemstoneValue discounted = gemstone.toValue().withPrice(gemstone.getPrice() * 0.9);
+ *         total += discounted.price() * discounted.weight();
+ *     }
+ * </pre>
+ * </p>
+ *
+ * @param type         the type of the gemstone
+ * @param weight       the weight of the gemstone in carats, must be positive
+ * @param price        the price of the gemstone, must be positive
+ * @param transparency the transparency of the gemstone, must be between 0 and 1 (inclusive)
+ */
+public record GemstoneValue(GemstoneType type, double weight, double price, double transparency) {
+
+    /**
+     * Constructs a new <code>gemstones.GemstoneValue</code> with the specified type, weight, price, and transparency.
+     * {@code -0.0} is stored as {@code 0.0}, so that values equal as gemstones are equal as records.
+     * @throws NullPointerException if the type is null
+     * @throws IllegalArgumentException if any attribute is outside its valid range
+     */
+    public GemstoneValue {
+        Objects.requireNonNull(type, "type");
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Invalid weight");
+        }
+        if (price <= 0) {
+            throw new IllegalArgumentException("Invalid price");
+        }
+        if (transparency < 0 || transparency > 1) {
+            throw new IllegalArgumentException("Invalid transparency");
+        }
+        transparency += 0.0;
+    }
+
+    /**
+     * Returns the value of a gemstone.
+     * @param gemstone the gemstone
+     * @return a value with the type and the attributes of the gemstone
+     * @throws IllegalArgumentException if the gemstone is not one of the {@link GemstoneType} classes
+     */
+    public static GemstoneValue of(Gemstone gemstone) {
+        return new GemstoneValue(GemstoneType.of(gemstone), gemstone.getWeight(), gemstone.getPrice(), gemstone.getTransparency());
+    }
+
+    /**
+     * Returns a copy of this value with the specified weight.
+     * @param weight the new weight in carats, must be positive
+     * @return a value with the new weight and the other attributes of this value
+     * @throws IllegalArgumentException if the weight is negative or zero
+     */
+    public GemstoneValue withWeight(double weight) {
+        return new GemstoneValue(type, weight, price, transparency);
+    }
+
+    /**
+     * Returns a copy of this value with the specified price.
+     * @param price the new price, must be positive
+     * @return a value with the new price and the other attributes of this value
+     * @throws IllegalArgumentException if the price is negative or zero
+     */
+    public GemstoneValue withPrice(double price) {
+        return new GemstoneValue(type, weight, price, transparency);
+    }
+
+    /**
+     * Returns a copy of this value with the specified transparency.
+     * @param transparency the new transparency, must be between 0 and 1 (inclusive)
+     * @return a value with the new transparency and the other attributes of this value
+     * @throws IllegalArgumentException if the transparency is not between 0 and 1
+     */
+    public GemstoneValue withTransparency(double transparency) {
+        return new GemstoneValue(type, weight, price, transparency);
+    }
+
+    /**
+     * Returns whether the type of this value is a precious gemstone.
+     * @return {@code true} if the type is precious
+     */
+    public boolean isPrecious() {
+        return type.isPrecious();
+    }
+
+    /**
+     * Creates a new mutable gemstone of this type with the attributes of this value.
+     * @return a new gemstone equal to this value
+     */
+    public Gemstone toGemstone() {
+        return type.create(weight, price, transparency);
+    }
+
+    /**
+     * Returns whether a gemstone has the type and the attributes of this value, without creating
+     * a gemstone. Usable as a predicate, for example {@code list.removeIf(value::matches)}.
+     * @param gemstone the gemstone to compare with, may be null
+     * @return {@code true} if the gemstone is equal to {@link #toGemstone()}
+     */
+    public boolean matches(Gemstone gemstone) {
+        return gemstone != null && gemstone.getClass() == type.gemstoneClass()
+                && gemstone.getWeight() == weight
+                && gemstone.getPrice() == price
+                && gemstone.getTransparency() == transparency;
+    }
+}
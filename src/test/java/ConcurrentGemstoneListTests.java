@@ -0,0 +1,88 @@
+import gemstones.Gemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentGemstoneListTests {
+    private ConcurrentGemstoneList list;
+    private Agate agate;
+    private Diamond diamond;
+
+    @BeforeEach
+    public void setUp() {
+        agate = new Agate(1, 2, 0.5);
+        diamond = new Diamond(3, 4, 1);
+        list = new ConcurrentGemstoneList(List.of(agate, diamond));
+    }
+
+    @Test
+    public void singleThreadTest() {
+        assertEquals(2, list.size());
+        assertEquals(diamond, list.get(1));
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {list.get(2);});
+        assertEquals("Index out of range", exception.getMessage());
+
+        List<Gemstone> expected = new ArrayList<>(list);
+        for (int i = 0; i < 1000; ++i) {
+            list.add(new Opal(1, i + 1, 1));
+            expected.add(new Opal(1, i + 1, 1));
+        }
+        assertEquals(expected, list);
+        assertEquals(agate, list.set(0, diamond));
+        assertEquals(diamond, list.get(0));
+
+        assertThrows(NullPointerException.class, () -> {list.add(null);});
+        assertThrows(UnsupportedOperationException.class, () -> {list.remove(0);});
+        assertEquals(1002, list.size());
+    }
+
+    @Test
+    public void chunkBoundaryTest() {
+        List<Gemstone> expected = new ArrayList<>(list);
+        for (int size = 1; expected.size() < 20_000; size = size * 3 + 1) {
+            List<Gemstone> batch = new ArrayList<>();
+            for (int i = 0; i < size; ++i) {
+                batch.add(new Opal(1, expected.size() + i + 1, 1));
+            }
+            list.addAll(batch);
+            expected.addAll(batch);
+            list.add(diamond);
+            expected.add(diamond);
+        }
+        assertEquals(expected, list);
+    }
+
+    @Test
+    public void concurrentAddTest() throws InterruptedException {
+        int threadCount = 8;
+        int perThread = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; ++t) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perThread; ++i) {
+                    if (i % 100 == 0) {
+                        list.addAll(List.of(new Rubin(thread + 1, i + 1, 1)));
+                    } else {
+                        list.add(new Rubin(thread + 1, i + 1, 1));
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2 + threadCount * perThread, list.size());
+        Set<Gemstone> distinct = new HashSet<>(list);
+        assertEquals(2 + threadCount * perThread, distinct.size());
+    }
+}
@@ -0,0 +1,75 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneAggregatesTests {
+    private MyList list;
+    private GemstoneColumns columns;
+
+    @BeforeEach
+    public void setUp() {
+        Random random = new Random(3);
+        list = new MyList();
+        for (int i = 0; i < 1_003; ++i) {
+            list.add(new Opal(0.5 + random.nextInt(20), 1 + random.nextInt(1_000), random.nextInt(11) / 10.0));
+        }
+        columns = new GemstoneColumns(list);
+    }
+
+    @Test
+    public void aggregatesTest() {
+        for (GemstoneAggregates aggregates : List.of(GemstoneAggregates.create(), GemstoneAggregates.scalar())) {
+            double price = 0;
+            double weight = 0;
+            double clearPrice = 0;
+            int cheap = 0;
+            double minTransparency = 1;
+            double maxPrice = 0;
+            int[] histogram = new int[4];
+            for (Gemstone gemstone : list) {
+                price += gemstone.getPrice();
+                weight += gemstone.getWeight();
+                minTransparency = Math.min(minTransparency, gemstone.getTransparency());
+                maxPrice = Math.max(maxPrice, gemstone.getPrice());
+                if (gemstone.getTransparency() >= 0.8) {
+                    clearPrice += gemstone.getPrice();
+                }
+                if (gemstone.getPrice() <= 100) {
+                    ++cheap;
+                }
+                ++histogram[Math.min((int) (gemstone.getTransparency() * 4), 3)];
+            }
+
+            assertEquals(price, aggregates.sum(columns, GemstoneAttribute.PRICE), 1e-6);
+            assertEquals(weight / list.size(), aggregates.mean(columns, GemstoneAttribute.WEIGHT), 1e-9);
+            assertEquals(price / weight, aggregates.pricePerCarat(columns), 1e-9);
+            assertEquals(minTransparency, aggregates.min(columns, GemstoneAttribute.TRANSPARENCY));
+            assertEquals(maxPrice, aggregates.max(columns, GemstoneAttribute.PRICE));
+            assertEquals(cheap, aggregates.count(columns, GemstoneAttribute.PRICE, 0, 100));
+            assertEquals(clearPrice, aggregates.sumWhere(columns, GemstoneAttribute.PRICE,
+                    GemstoneAttribute.TRANSPARENCY, 0.8, 1), 1e-6);
+            assertArrayEquals(histogram, aggregates.histogram(columns, GemstoneAttribute.TRANSPARENCY, 0, 1, 4));
+        }
+    }
+
+    @Test
+    public void emptyAndInvalidTest() {
+        GemstoneAggregates aggregates = GemstoneAggregates.create();
+        GemstoneColumns empty = new GemstoneColumns();
+        assertEquals(0, aggregates.sum(empty, GemstoneAttribute.PRICE));
+        assertTrue(Double.isNaN(aggregates.mean(empty, GemstoneAttribute.PRICE)));
+        assertTrue(Double.isNaN(aggregates.min(empty, GemstoneAttribute.PRICE)));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {aggregates.histogram(columns, GemstoneAttribute.PRICE, 0, 1, 0);});
+        assertEquals("Invalid number of bins", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {aggregates.histogram(columns, GemstoneAttribute.PRICE, 1, 1, 4);});
+        assertEquals("Invalid range", exception.getMessage());
+    }
+}
@@ -0,0 +1,121 @@
+import gemstones.Gemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneCodecTests {
+
+    private static MyList randomList(int size) {
+        Random random = new Random(5);
+        MyList list = new MyList();
+        for (int i = 0; i < size; ++i) {
+            double price = i % 3 == 0 ? 100 : 1 + random.nextDouble() * 1_000;
+            list.add(i % 2 == 0 ? new Diamond(0.5, price, 0.9) : new Lazurite(random.nextInt(50) + 1, price, random.nextDouble()));
+        }
+        return list;
+    }
+
+    @Test
+    public void singleGemstoneTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        GemstoneCodec.encode(new Emerald(1.25, 300, 0.75), buffer);
+        GemstoneCodec.encode(new Opal(2, 3, 0), buffer);
+        assertEquals(50, buffer.position());
+
+        buffer.flip();
+        assertEquals(new Emerald(1.25, 300, 0.75), GemstoneCodec.decode(buffer));
+        assertEquals(new Opal(2, 3, 0), GemstoneCodec.decode(buffer));
+        assertThrows(BufferUnderflowException.class, () -> {GemstoneCodec.decode(buffer);});
+    }
+
+    @Test
+    public void listRoundTripTest() {
+        MyList list = randomList(2_500);
+        for (GemstoneCodec.Encoding encoding : GemstoneCodec.Encoding.values()) {
+            GemstoneCodec codec = new GemstoneCodec(encoding);
+            ByteBuffer buffer = ByteBuffer.allocate(GemstoneCodec.maxEncodedSize(list.size()));
+            codec.encode(list, buffer);
+            buffer.flip();
+            ByteBuffer exact = ByteBuffer.allocate(buffer.limit());
+            codec.encode(list, exact);
+            assertEquals(buffer, exact.flip());
+
+            MyList copy = new MyList();
+            assertEquals(list.size(), codec.decode(buffer, copy));
+            assertArrayEquals(list.toArray(), copy.toArray());
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void byteOrderTest() {
+        MyList list = randomList(50);
+        for (GemstoneCodec.Encoding encoding : GemstoneCodec.Encoding.values()) {
+            GemstoneCodec codec = new GemstoneCodec(encoding);
+            ByteBuffer bigEndian = ByteBuffer.allocate(GemstoneCodec.maxEncodedSize(list.size()));
+            codec.encode(list, bigEndian);
+            ByteBuffer littleEndian = ByteBuffer.allocate(GemstoneCodec.maxEncodedSize(list.size())).order(ByteOrder.LITTLE_ENDIAN);
+            codec.encode(list, littleEndian);
+            assertEquals(ByteOrder.LITTLE_ENDIAN, littleEndian.order());
+            assertEquals(bigEndian.flip(), littleEndian.flip());
+
+            MyList copy = new MyList();
+            assertEquals(list.size(), codec.decode(littleEndian, copy));
+            assertArrayEquals(list.toArray(), copy.toArray());
+            assertEquals(ByteOrder.LITTLE_ENDIAN, littleEndian.order());
+
+            copy.clear();
+            bigEndian.rewind().order(ByteOrder.LITTLE_ENDIAN);
+            codec.decode(bigEndian, copy);
+            assertArrayEquals(list.toArray(), copy.toArray());
+        }
+
+        ByteBuffer single = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        GemstoneCodec.encode(new Emerald(1.25, 300, 0.75), single);
+        assertEquals(new Emerald(1.25, 300, 0.75), GemstoneCodec.decode(single.flip().order(ByteOrder.BIG_ENDIAN)));
+    }
+
+    @Test
+    public void xorEncodingTest() {
+        List<Gemstone> repeated = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            repeated.add(new Agate(1, 50, 0.5));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(GemstoneCodec.maxEncodedSize(repeated.size()));
+        new GemstoneCodec(GemstoneCodec.Encoding.XOR).encode(repeated, buffer);
+        assertTrue(buffer.position() < 100 * 5);
+
+        buffer.flip();
+        List<Gemstone> copy = new ArrayList<>();
+        new GemstoneCodec().decode(buffer, copy);
+        assertEquals(repeated, copy);
+
+        ByteBuffer empty = ByteBuffer.allocate(GemstoneCodec.maxEncodedSize(0));
+        new GemstoneCodec().encode(List.of(), empty);
+        empty.flip();
+        assertEquals(0, new GemstoneCodec().decode(empty, copy));
+    }
+
+    @Test
+    public void corruptionTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(GemstoneCodec.maxEncodedSize(10));
+        GemstoneCodec codec = new GemstoneCodec();
+        codec.encode(randomList(10), buffer);
+        buffer.flip();
+
+        buffer.put(20, (byte) (buffer.get(20) ^ 1));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {codec.decode(buffer, new MyList());});
+        assertEquals("Checksum mismatch", exception.getMessage());
+
+        ByteBuffer truncated = buffer.duplicate().limit(buffer.limit() - 10).position(0);
+        assertThrows(BufferUnderflowException.class, () -> {codec.decode(truncated, new MyList());});
+    }
+}
@@ -0,0 +1,91 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.GemstoneValue;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneColumnsTests {
+    private GemstoneColumns columns;
+    private Agate agate;
+    private Diamond diamond;
+    private Opal opal;
+
+    @BeforeEach
+    public void setUp() {
+        agate = new Agate(1, 2, 0.5);
+        diamond = new Diamond(3, 4, 1);
+        opal = new Opal(5, 6, 0);
+
+        MyList list = new MyList(agate);
+        list.add(diamond);
+        columns = new GemstoneColumns(list);
+    }
+
+    @Test
+    public void primitiveAccessorsTest() {
+        assertEquals(2, columns.size());
+        assertEquals(1, columns.weightAt(0));
+        assertEquals(4, columns.priceAt(1));
+        assertEquals(0.5, columns.transparencyAt(0));
+        assertEquals(GemstoneType.DIAMOND, columns.typeAt(1));
+
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {columns.priceAt(2);});
+        assertEquals("Index out of range", exception.getMessage());
+    }
+
+    @Test
+    public void getTest() {
+        assertEquals(agate, columns.get(0));
+        assertEquals(Diamond.class, columns.get(1).getClass());
+        assertTrue(columns.contains(new Diamond(3, 4, 1)));
+        assertFalse(columns.contains(new Rubin(3, 4, 1)));
+    }
+
+    @Test
+    public void modificationTest() {
+        columns.add(1, opal);
+        columns.add(new Emerald(7, 8, 0.1));
+        assertEquals(List.of(agate, opal, diamond, new Emerald(7, 8, 0.1)), columns);
+
+        assertEquals(opal, columns.remove(1));
+        assertEquals(agate, columns.set(0, new Lazurite(9, 9, 0.9)));
+        assertEquals(GemstoneType.LAZURITE, columns.typeAt(0));
+        assertEquals(9, columns.weightAt(0));
+
+        List<Gemstone> expected = new ArrayList<>(columns);
+        for (int i = 0; i < 50; ++i) {
+            columns.add(new Rubin(1, i + 1, 1));
+            expected.add(new Rubin(1, i + 1, 1));
+        }
+        assertEquals(expected, columns);
+
+        columns.clear();
+        assertTrue(columns.isEmpty());
+    }
+
+    @Test
+    public void nullTest() {
+        assertThrows(NullPointerException.class, () -> {columns.add(null);});
+        assertEquals(2, columns.size());
+    }
+
+    @Test
+    public void valueTest() {
+        assertEquals(new GemstoneValue(GemstoneType.DIAMOND, 3, 4, 1), columns.valueAt(1));
+
+        columns.setValue(0, columns.valueAt(0).withPrice(20));
+        assertEquals(new Agate(1, 20, 0.5), columns.get(0));
+        columns.addValue(opal.toValue());
+        assertEquals(List.of(new Agate(1, 20, 0.5), diamond, opal), columns);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> {columns.valueAt(3);});
+        assertThrows(NullPointerException.class, () -> {columns.addValue(null);});
+        assertEquals(3, columns.size());
+    }
+}
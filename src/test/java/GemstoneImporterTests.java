@@ -0,0 +1,115 @@
+import gemstones.Gemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneImporterTests {
+
+    private static ReadableByteChannel channelOf(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void csvTest() throws IOException {
+        String feed = "type,weight,price,transparency\r\n"
+                + "Diamond,1.5,900,0.85\r\n"
+                + "\n"
+                + "opal,2,10.25,0.1\n"
+                + "RUBIN,0.3,1e3,1";
+        List<Gemstone> gemstones = new ArrayList<>();
+        GemstoneImporter.Statistics statistics = new GemstoneImporter(5, 2)
+                .importFrom(channelOf(feed), GemstoneImporter.Format.CSV, gemstones);
+
+        assertEquals(List.of(new Diamond(1.5, 900, 0.85), new Opal(2, 10.25, 0.1), new Rubin(0.3, 1000, 1)), gemstones);
+        assertEquals(3, statistics.rows());
+        assertEquals(feed.length(), statistics.bytes());
+        assertTrue(statistics.rowsPerSecond() > 0);
+    }
+
+    @Test
+    public void jsonLinesTest() throws IOException {
+        String feed = "{\"type\":\"Agate\",\"weight\":1,\"price\":2,\"transparency\":0.5}\n"
+                + "{ \"price\": 3.75, \"origin\": \"Ural\", \"transparency\": 0, \"weight\": 4, \"type\": \"lazurite\" }\n";
+        List<Gemstone> gemstones = new ArrayList<>();
+        new GemstoneImporter(16, 1).importFrom(channelOf(feed), GemstoneImporter.Format.JSON_LINES, gemstones);
+
+        assertEquals(List.of(new Agate(1, 2, 0.5), new Lazurite(4, 3.75, 0)), gemstones);
+
+        gemstones.clear();
+        new GemstoneImporter().importFrom(channelOf("Opal,.5,+2.,1E0\nOpal,1.25e-1,12345678901234567890,-0.0\n"),
+                GemstoneImporter.Format.CSV, gemstones);
+        assertEquals(List.of(new Opal(0.5, 2, 1), new Opal(0.125, 12345678901234567890.0, 0)), gemstones);
+    }
+
+    @Test
+    public void invalidRowTest() {
+        GemstoneImporter importer = new GemstoneImporter();
+        List<Gemstone> gemstones = new ArrayList<>();
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {importer.importFrom(
+                channelOf("Diamond,1,1,1\nDiamond,1,-5,1\n"), GemstoneImporter.Format.CSV, gemstones);});
+        assertEquals("Invalid row at line 2: Invalid price (0 rows already appended)", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {importer.importFrom(
+                channelOf("Pearl,1,1,1\n"), GemstoneImporter.Format.CSV, gemstones);});
+        assertEquals("Invalid row at line 1: Unknown gemstone type: Pearl (0 rows already appended)", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {importer.importFrom(
+                channelOf("Opal,1,1\n"), GemstoneImporter.Format.CSV, gemstones);});
+        assertEquals("Invalid row at line 1: Missing field (0 rows already appended)", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {importer.importFrom(
+                channelOf("{\"type\":\"Opal\",\"weight\":1,\"price\":1}\n"), GemstoneImporter.Format.JSON_LINES, gemstones);});
+        assertEquals("Invalid row at line 1: Missing field (0 rows already appended)", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> {new GemstoneImporter(0, 1);});
+
+        for (String number : List.of("NaN", "-.", "+.", ".", "-", "Infinity", "-Infinity", "1.5f", "1.5d",
+                "0x1p1", "1e400", "1e", "1e+", "1..5", "1.5.", "1 5")) {
+            exception = assertThrows(IllegalArgumentException.class, () -> {importer.importFrom(
+                    channelOf("Diamond,1,2," + number + "\n"), GemstoneImporter.Format.CSV, gemstones);});
+            assertEquals("Invalid row at line 1: Invalid number (0 rows already appended)", exception.getMessage());
+        }
+        exception = assertThrows(IllegalArgumentException.class, () -> {importer.importFrom(
+                channelOf("{\"type\":\"Opal\",\"weight\":1,\"price\":1,\"transparency\":NaN}\n"),
+                GemstoneImporter.Format.JSON_LINES, gemstones);});
+        assertEquals("Invalid row at line 1: Invalid number (0 rows already appended)", exception.getMessage());
+
+        gemstones.clear();
+        exception = assertThrows(IllegalArgumentException.class, () -> {new GemstoneImporter(8, 2).importFrom(
+                channelOf("Opal,1,1,1\nOpal,1,2,1\nOpal,1,3,1\nOpal,1,4,1\nOpal,1,5,1\nOpal,1,6\n"),
+                GemstoneImporter.Format.CSV, gemstones);});
+        assertEquals("Invalid row at line 6: Missing field (4 rows already appended)", exception.getMessage());
+        assertEquals(4, gemstones.size());
+    }
+
+    @Test
+    public void fileTest() throws IOException {
+        Path file = Files.createTempFile("gemstones", ".csv");
+        try {
+            StringBuilder feed = new StringBuilder("type,weight,price,transparency\n");
+            for (int i = 1; i <= 10_000; ++i) {
+                feed.append(i % 2 == 0 ? "Emerald" : "Agate").append(',').append(i / 100.0).append(',')
+                        .append(i).append(",0.").append(i % 10).append('\n');
+            }
+            Files.writeString(file, feed);
+
+            MyList gemstones = new MyList();
+            GemstoneImporter.Statistics statistics = new GemstoneImporter(4096, 1000).importFile(file, gemstones);
+            assertEquals(10_000, statistics.rows());
+            assertEquals(10_000, gemstones.size());
+            assertTrue(gemstones.capacity() >= 10_000);
+            assertEquals(new Agate(0.01, 1, 0.1), gemstones.get(0));
+            assertEquals(new Emerald(100, 10_000, 0), gemstones.get(9_999));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneIndexTests {
+    private MyList list;
+    private GemstoneIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        list = new MyList();
+        for (int i = 0; i < 10; ++i) {
+            list.add(new Opal(10 - i, i + 1, 0.5));
+        }
+        list.add(null);
+        index = new GemstoneIndex(list);
+    }
+
+    @Test
+    public void rangeQueryTest() {
+        assertEquals(10, index.size());
+        assertEquals(List.of(new Opal(8, 3, 0.5), new Opal(7, 4, 0.5), new Opal(6, 5, 0.5)),
+                index.rangeQuery(GemstoneAttribute.PRICE, 3, 5));
+        assertEquals(List.of(new Opal(5, 6, 0.5), new Opal(6, 5, 0.5), new Opal(7, 4, 0.5)),
+                index.rangeQuery(GemstoneAttribute.WEIGHT, 5, 7));
+        assertEquals(10, index.rangeQuery(GemstoneAttribute.TRANSPARENCY, 0.5, 0.5).size());
+        assertTrue(index.rangeQuery(GemstoneAttribute.PRICE, 20, 30).isEmpty());
+        assertTrue(index.rangeQuery(GemstoneAttribute.PRICE, 5, 3).isEmpty());
+        assertEquals(3, index.countInRange(GemstoneAttribute.PRICE, 2.5, 5));
+    }
+
+    @Test
+    public void rankQueryTest() {
+        assertEquals(new Opal(10, 1, 0.5), index.select(GemstoneAttribute.PRICE, 0));
+        assertEquals(new Opal(1, 10, 0.5), index.select(GemstoneAttribute.PRICE, 9));
+        assertEquals(5, index.quantile(GemstoneAttribute.PRICE, 0.5));
+        assertEquals(10, index.quantile(GemstoneAttribute.WEIGHT, 0.99));
+        assertEquals(1, index.quantile(GemstoneAttribute.WEIGHT, 0));
+        assertEquals(List.of(new Opal(1, 10, 0.5), new Opal(2, 9, 0.5)), index.top(GemstoneAttribute.PRICE, 2));
+        assertEquals(10, index.top(GemstoneAttribute.PRICE, 50).size());
+
+        list.add(new Opal(20, 100, 0.5));
+        list.remove(new Opal(1, 10, 0.5));
+        assertEquals(List.of(new Opal(20, 100, 0.5), new Opal(2, 9, 0.5)), index.top(GemstoneAttribute.PRICE, 2));
+        assertEquals(100, index.quantile(GemstoneAttribute.PRICE, 1));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> {index.select(GemstoneAttribute.PRICE, 10);});
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {index.quantile(GemstoneAttribute.PRICE, 1.5);});
+        assertEquals("Invalid quantile", exception.getMessage());
+        list.clear();
+        assertTrue(Double.isNaN(index.quantile(GemstoneAttribute.PRICE, 0.5)));
+    }
+
+    @Test
+    public void listModificationTest() {
+        list.add(new Diamond(1, 4, 1));
+        list.remove(new Opal(7, 4, 0.5));
+        list.set(0, new Rubin(1, 100, 0.9));
+        assertEquals(List.of(new Diamond(1, 4, 1)), index.rangeQuery(GemstoneAttribute.PRICE, 4, 4));
+        assertEquals(List.of(new Rubin(1, 100, 0.9)), index.rangeQuery(GemstoneAttribute.PRICE, 50, 200));
+        assertEquals(List.of(new Diamond(1, 4, 1)), index.rangeQuery(GemstoneAttribute.TRANSPARENCY, 1, 1));
+
+        list.removeIf(gemstone -> gemstone instanceof Opal);
+        assertEquals(2, index.size());
+        list.clear();
+        assertEquals(0, index.size());
+
+        index.detach();
+        list.add(new Opal(1, 1, 1));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void listenerOrderTest() {
+        List<Integer> sizes = new ArrayList<>();
+        list.addListener(new GemstoneListListener() {
+            @Override
+            public void added(Gemstone gemstone) {
+                sizes.add(list.size());
+                if (gemstone instanceof Rubin) {
+                    throw new IllegalStateException("Rejected");
+                }
+            }
+
+            @Override
+            public void removed(Gemstone gemstone) {
+            }
+
+            @Override
+            public void cleared() {
+            }
+        });
+
+        list.add(new Diamond(1, 1, 1));
+        list.add(0, new Diamond(1, 2, 1));
+        list.addAll(1, List.of(new Agate(1, 3, 1), new Agate(1, 4, 1)));
+        assertEquals(List.of(12, 13, 15, 15), sizes);
+
+        Exception exception = assertThrows(IllegalStateException.class, () -> {list.add(new Rubin(1, 5, 1));});
+        assertEquals("Rejected", exception.getMessage());
+        assertThrows(IllegalStateException.class, () -> {list.addAll(List.of(new Rubin(1, 6, 1)));});
+        assertEquals(17, list.size());
+        assertEquals(new Rubin(1, 6, 1), list.get(16));
+        assertEquals(16, index.size());
+    }
+
+    @Test
+    public void largeIndexTest() {
+        Random random = new Random(7);
+        List<Gemstone> expected = new ArrayList<>();
+        list.clear();
+        for (int i = 0; i < 5_000; ++i) {
+            Gemstone gemstone = new Agate(1, 1 + random.nextInt(1_000), 1);
+            list.add(gemstone);
+            expected.add(gemstone);
+        }
+        for (int i = 0; i < 2_000; ++i) {
+            expected.remove(list.remove(random.nextInt(list.size())));
+        }
+
+        for (int lo = 0; lo < 1_000; lo += 97) {
+            final int from = lo;
+            long count = expected.stream().filter(g -> g.getPrice() >= from && g.getPrice() <= from + 50).count();
+            List<Gemstone> found = index.rangeQuery(GemstoneAttribute.PRICE, from, from + 50);
+            assertEquals(count, index.countInRange(GemstoneAttribute.PRICE, from, from + 50));
+            assertEquals(count, found.size());
+            for (int i = 1; i < found.size(); ++i) {
+                assertTrue(found.get(i - 1).getPrice() <= found.get(i).getPrice());
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import gemstones.Gemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneInternerTests {
+
+    @Test
+    public void internTest() {
+        GemstoneInterner interner = new GemstoneInterner();
+        Gemstone diamond = new Diamond(1, 2, 0.5);
+        assertSame(diamond, interner.intern(diamond));
+        assertSame(diamond, interner.intern(new Diamond(1, 2, 0.5)));
+        assertNotSame(diamond, interner.intern(new Rubin(1, 2, 0.5)));
+        assertNull(interner.intern(null));
+
+        assertEquals(3, interner.lookups());
+        assertEquals(1, interner.deduplicated());
+        assertEquals(1 / 3.0, interner.dedupeRatio(), 1e-9);
+        assertEquals(2, interner.size());
+        assertSame(diamond, interner.lookup(new Diamond(1, 2, 0.5)));
+        assertNull(interner.lookup(new Diamond(1, 2, 0.25)));
+        assertNull(interner.lookup("diamond"));
+    }
+
+    @Test
+    public void modifiedCanonicalTest() {
+        GemstoneInterner interner = new GemstoneInterner();
+        Gemstone opal = interner.intern(new Opal(1, 1, 1));
+        opal.setPrice(5);
+
+        Gemstone fresh = new Opal(1, 1, 1);
+        assertSame(fresh, interner.intern(fresh));
+        assertSame(fresh, interner.intern(new Opal(1, 1, 1)));
+    }
+
+    @Test
+    public void concurrentInternTest() throws InterruptedException {
+        GemstoneInterner interner = new GemstoneInterner();
+        Set<Gemstone> canonical = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; ++i) {
+                    canonical.add(interner.intern(new Agate(1 + i % 10, 1, 1)));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(10, canonical.size());
+        assertEquals(40_000, interner.lookups());
+        assertEquals(40_000 - 10, interner.deduplicated());
+    }
+}
@@ -0,0 +1,87 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.GemstoneType;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneSorterTests {
+
+    private static Gemstone[] randomGemstones(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        GemstoneType[] types = GemstoneType.values();
+        Gemstone[] gemstones = new Gemstone[size];
+        for (int i = 0; i < size; ++i) {
+            gemstones[i] = types[random.nextInt(types.length)]
+                    .create(1 + random.nextInt(20) / 4.0, Math.pow(10, random.nextDouble(-3, 6)), random.nextInt(5) / 4.0);
+        }
+        return gemstones;
+    }
+
+    @Test
+    public void singleKeyTest() {
+        MyList list = new MyList(List.of(new Agate(3, 10, 1), new Opal(1, 0.5, 0), new Diamond(2, 1e9, 0.5)));
+        list.sortBy(GemstoneSorter.by(GemstoneAttribute.PRICE));
+        assertArrayEquals(new Gemstone[] {new Opal(1, 0.5, 0), new Agate(3, 10, 1), new Diamond(2, 1e9, 0.5)}, list.toArray());
+
+        list.sortBy(GemstoneSorter.by(GemstoneAttribute.WEIGHT).descending());
+        assertArrayEquals(new Gemstone[] {new Agate(3, 10, 1), new Diamond(2, 1e9, 0.5), new Opal(1, 0.5, 0)}, list.toArray());
+
+        list.sortBy(GemstoneSorter.byType());
+        assertArrayEquals(new Gemstone[] {new Agate(3, 10, 1), new Diamond(2, 1e9, 0.5), new Opal(1, 0.5, 0)}, list.toArray());
+
+        list.set(1, null);
+        assertThrows(NullPointerException.class, () -> {list.sortBy(GemstoneSorter.byType());});
+    }
+
+    @Test
+    public void multiKeyTest() {
+        GemstoneSorter sorter = GemstoneSorter.byType().thenBy(GemstoneAttribute.WEIGHT).descending()
+                .thenBy(GemstoneAttribute.PRICE);
+        Gemstone[] gemstones = randomGemstones(5_000, 1);
+        MyList list = new MyList(Arrays.asList(gemstones));
+
+        Gemstone[] expected = gemstones.clone();
+        Arrays.sort(expected, sorter.comparator());
+        list.sortBy(sorter);
+        assertArrayEquals(expected, list.toArray());
+        for (int i = 0; i < expected.length; ++i) {
+            assertSame(expected[i], list.get(i));
+        }
+    }
+
+    @Test
+    public void stabilityTest() {
+        Gemstone[] gemstones = randomGemstones(2_000, 2);
+        List<Gemstone> list = new ArrayList<>(Arrays.asList(gemstones));
+        List<Gemstone> expected = new ArrayList<>(list);
+        expected.sort(GemstoneSorter.by(GemstoneAttribute.TRANSPARENCY).comparator());
+
+        GemstoneSorter.by(GemstoneAttribute.TRANSPARENCY).sort(list);
+        for (int i = 0; i < expected.size(); ++i) {
+            assertSame(expected.get(i), list.get(i));
+        }
+    }
+
+    @Test
+    public void parallelTest() {
+        GemstoneSorter sorter = GemstoneSorter.byType().thenBy(GemstoneAttribute.PRICE);
+        Gemstone[] gemstones = randomGemstones(GemstoneSorter.PARALLEL_THRESHOLD * 2, 3);
+        Gemstone[] expected = gemstones.clone();
+        Arrays.sort(expected, sorter.comparator());
+
+        Gemstone[] sorted = gemstones.clone();
+        sorter.sort(sorted, 0, sorted.length, true);
+        assertArrayEquals(expected, sorted);
+
+        MyList list = new MyList(Arrays.asList(gemstones));
+        list.sortBy(sorter);
+        assertArrayEquals(expected, list.toArray());
+    }
+}
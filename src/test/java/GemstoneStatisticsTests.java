@@ -0,0 +1,191 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneAttribute;
+import gemstones.GemstoneType;
+import gemstones.PreciousGemstone;
+import gemstones.SemiPreciousGemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneStatisticsTests {
+    private MyList list;
+    private GemstoneStatistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        list = new MyList();
+        list.add(new Diamond(1, 100, 0.9));
+        list.add(new Rubin(2, 50, 0.8));
+        list.add(new Opal(3, 10, 0.5));
+        list.add(null);
+        statistics = new GemstoneStatistics(list);
+    }
+
+    @Test
+    public void countTest() {
+        assertEquals(3, statistics.count());
+        assertEquals(2, statistics.countOf(PreciousGemstone.class));
+        assertEquals(1, statistics.countOf(SemiPreciousGemstone.class));
+        assertEquals(3, statistics.countOf(Gemstone.class));
+        assertEquals(1, statistics.countOf(Diamond.class));
+        assertEquals(0, statistics.countOf(Agate.class));
+
+        list.add(new Agate(1, 5, 0.3));
+        list.set(0, new Emerald(1, 80, 0.7));
+        list.remove(1);
+        assertEquals(3, statistics.count());
+        assertEquals(1, statistics.countOf(PreciousGemstone.class));
+        assertEquals(0, statistics.countOf(GemstoneType.DIAMOND));
+        assertEquals(1, statistics.countOf(GemstoneType.EMERALD));
+        assertEquals(1, statistics.countOf(Agate.class));
+    }
+
+    @Test
+    public void unknownClassTest() {
+        list.add(new Diamond(1, 1, 1) {});
+        assertEquals(4, statistics.count());
+        assertEquals(3, statistics.countOf(PreciousGemstone.class));
+        assertEquals(1, statistics.countOf(GemstoneType.DIAMOND));
+        assertEquals(GemstoneType.DIAMOND, GemstoneType.find(Diamond.class));
+        assertNull(GemstoneType.find(list.get(4).getClass()));
+        assertEquals(List.of(GemstoneType.values()), GemstoneType.valueList());
+    }
+
+    @Test
+    public void sumTest() {
+        assertEquals(160, statistics.totalValue(), 1e-9);
+        assertEquals(6, statistics.totalCarats(), 1e-9);
+        assertEquals(2, statistics.mean(GemstoneAttribute.WEIGHT), 1e-9);
+        assertEquals(2.0 / 3, statistics.variance(GemstoneAttribute.WEIGHT), 1e-9);
+
+        list.addAll(List.of(new Opal(4, 20, 0.5), new Agate(5, 30, 0.5)));
+        list.remove(new Diamond(1, 100, 0.9));
+        assertEquals(110, statistics.totalValue(), 1e-9);
+        assertEquals(14, statistics.totalCarats(), 1e-9);
+        assertEquals(1.25, statistics.variance(GemstoneAttribute.WEIGHT), 1e-9);
+
+        list.clear();
+        assertEquals(0, statistics.count());
+        assertEquals(0, statistics.totalValue());
+        assertTrue(Double.isNaN(statistics.mean(GemstoneAttribute.PRICE)));
+        assertTrue(Double.isNaN(statistics.variance(GemstoneAttribute.PRICE)));
+        list.add(new Opal(2, 7, 0.5));
+        assertEquals(7, statistics.totalValue(), 1e-9);
+        assertEquals(0, statistics.variance(GemstoneAttribute.PRICE));
+    }
+
+    @Test
+    public void extremaTest() {
+        assertEquals(10, statistics.min(GemstoneAttribute.PRICE));
+        assertEquals(100, statistics.max(GemstoneAttribute.PRICE));
+
+        list.remove(0);
+        assertEquals(50, statistics.max(GemstoneAttribute.PRICE));
+        list.set(2, new Opal(3, 1, 0.5));
+        assertEquals(1, statistics.min(GemstoneAttribute.PRICE));
+        list.add(new Diamond(9, 500, 1));
+        assertEquals(9, statistics.max(GemstoneAttribute.WEIGHT));
+        assertEquals(0.5, statistics.min(GemstoneAttribute.TRANSPARENCY));
+
+        list.clear();
+        assertTrue(Double.isNaN(statistics.min(GemstoneAttribute.PRICE)));
+    }
+
+    @Test
+    public void detachTest() {
+        list.remove(0);
+        statistics.detach();
+        list.add(new Diamond(9, 500, 1));
+        list.remove(1);
+
+        assertEquals(2, statistics.count());
+        assertEquals(60, statistics.totalValue());
+        assertEquals(10, statistics.min(GemstoneAttribute.PRICE));
+        assertEquals(50, statistics.max(GemstoneAttribute.PRICE));
+        assertEquals(3, statistics.max(GemstoneAttribute.WEIGHT));
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        Random random = new Random(25);
+        for (int i = 0; i < 2000; ++i) {
+            int operation = random.nextInt(10);
+            Gemstone gemstone = randomGemstone(random);
+            if (operation < 4 || list.isEmpty()) {
+                list.add(random.nextInt(list.size() + 1), gemstone);
+            } else if (operation < 6) {
+                list.set(random.nextInt(list.size()), gemstone);
+            } else if (operation < 8) {
+                list.remove(random.nextInt(list.size()));
+            } else if (operation == 8) {
+                int from = random.nextInt(list.size());
+                list.subList(from, Math.min(list.size(), from + random.nextInt(4))).clear();
+            } else {
+                list.removeIf(g -> g != null && g.getPrice() > 990);
+            }
+            if (i % 100 == 0) {
+                assertMatchesList();
+            }
+        }
+        assertMatchesList();
+
+        int count = statistics.count();
+        statistics.detach();
+        list.add(new Diamond(1, 1, 0.5));
+        assertEquals(count, statistics.count());
+    }
+
+    private void assertMatchesList() {
+        int count = 0;
+        int precious = 0;
+        for (Gemstone gemstone : list) {
+            if (gemstone != null) {
+                ++count;
+                if (gemstone instanceof PreciousGemstone) {
+                    ++precious;
+                }
+            }
+        }
+        assertEquals(count, statistics.count());
+        assertEquals(precious, statistics.countOf(PreciousGemstone.class));
+        if (count == 0) {
+            return;
+        }
+        for (GemstoneAttribute attribute : GemstoneAttribute.values()) {
+            double sum = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (Gemstone gemstone : list) {
+                if (gemstone != null) {
+                    sum += attribute.of(gemstone);
+                    min = Math.min(min, attribute.of(gemstone));
+                    max = Math.max(max, attribute.of(gemstone));
+                }
+            }
+            double mean = sum / count;
+            double squares = 0;
+            for (Gemstone gemstone : list) {
+                if (gemstone != null) {
+                    squares += (attribute.of(gemstone) - mean) * (attribute.of(gemstone) - mean);
+                }
+            }
+            assertEquals(sum, statistics.sum(attribute), 1e-6);
+            assertEquals(squares / count, statistics.variance(attribute), 1e-6);
+            assertEquals(min, statistics.min(attribute));
+            assertEquals(max, statistics.max(attribute));
+        }
+    }
+
+    private static Gemstone randomGemstone(Random random) {
+        if (random.nextInt(20) == 0) {
+            return null;
+        }
+        GemstoneType type = GemstoneType.values()[random.nextInt(GemstoneType.values().length)];
+        return type.create(random.nextInt(100) / 10.0 + 0.1, random.nextInt(1000) + 1, random.nextInt(11) / 10.0);
+    }
+}
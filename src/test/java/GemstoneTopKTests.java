@@ -0,0 +1,60 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneTopKTests {
+
+    private static final ToDoubleFunction<Gemstone> VALUE = gemstone -> gemstone.getPrice() * gemstone.getWeight();
+
+    @Test
+    public void selectionTest() {
+        List<Gemstone> gemstones = new ArrayList<>();
+        for (int i = 1; i <= 10; ++i) {
+            gemstones.add(new Agate(i, 11 - i % 5, 1));
+        }
+        gemstones.add(null);
+
+        List<Gemstone> expected = gemstones.stream().filter(Objects::nonNull)
+                .sorted(Comparator.comparingDouble(VALUE).reversed()).limit(3).toList();
+        assertEquals(expected, GemstoneTopK.of(gemstones, 3, VALUE));
+        assertEquals(10, GemstoneTopK.of(gemstones, 20, VALUE).size());
+        assertTrue(GemstoneTopK.of(gemstones, 0, VALUE).isEmpty());
+
+        GemstoneTopK topK = new GemstoneTopK(2, VALUE);
+        assertEquals(Double.NEGATIVE_INFINITY, topK.threshold());
+        gemstones.forEach(topK::add);
+        assertEquals(VALUE.applyAsDouble(expected.get(1)), topK.threshold());
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {new GemstoneTopK(-1, VALUE);});
+        assertEquals("Invalid k", exception.getMessage());
+    }
+
+    @Test
+    public void parallelTest() {
+        MyList list = new MyList();
+        SplittableRandom random = new SplittableRandom(5);
+        GemstoneType[] types = GemstoneType.values();
+        for (int i = 0; i < 100_000; ++i) {
+            list.add(types[random.nextInt(types.length)].create(random.nextDouble(0.1, 10), random.nextDouble(1, 1000), 1));
+        }
+
+        Gemstone[] sorted = list.toArray(new Gemstone[0]);
+        Arrays.sort(sorted, Comparator.comparingDouble(VALUE).reversed());
+        assertEquals(Arrays.asList(sorted).subList(0, 100), GemstoneTopK.of(list, 100, VALUE));
+
+        Map<GemstoneType, GemstoneTopK> byType = list.parallelStream()
+                .collect(Collectors.groupingBy(GemstoneType::of, GemstoneTopK.collector(5, Gemstone::getPrice)));
+        for (GemstoneType type : types) {
+            List<Gemstone> expected = Arrays.stream(sorted).filter(gemstone -> GemstoneType.of(gemstone) == type)
+                    .sorted(Comparator.comparingDouble(Gemstone::getPrice).reversed()).limit(5).toList();
+            assertEquals(expected, byType.get(type).toList());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.GemstoneValue;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GemstoneValueTests {
+
+    @Test
+    public void validationTest() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {new GemstoneValue(GemstoneType.OPAL, 0, 1, 1);});
+        assertEquals("Invalid weight", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {new GemstoneValue(GemstoneType.OPAL, 1, -1, 1);});
+        assertEquals("Invalid price", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {new GemstoneValue(GemstoneType.OPAL, 1, 1, 1.5);});
+        assertEquals("Invalid transparency", exception.getMessage());
+        assertThrows(NullPointerException.class, () -> {new GemstoneValue(null, 1, 1, 1);});
+
+        GemstoneValue value = new GemstoneValue(GemstoneType.OPAL, 1, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> {value.withPrice(0);});
+        assertEquals(new GemstoneValue(GemstoneType.OPAL, 1, 1, 0), new GemstoneValue(GemstoneType.OPAL, 1, 1, -0.0));
+    }
+
+    @Test
+    public void copyTest() {
+        GemstoneValue value = new GemstoneValue(GemstoneType.RUBIN, 2, 3, 0.5);
+        GemstoneValue copy = value.withWeight(4).withPrice(5).withTransparency(0.25);
+
+        assertEquals(new GemstoneValue(GemstoneType.RUBIN, 4, 5, 0.25), copy);
+        assertEquals(new GemstoneValue(GemstoneType.RUBIN, 2, 3, 0.5), value);
+        assertTrue(value.isPrecious());
+        assertFalse(value.withPrice(1).equals(value));
+    }
+
+    @Test
+    public void conversionTest() {
+        Emerald emerald = new Emerald(1.5, 200, 0.75);
+        GemstoneValue value = emerald.toValue();
+
+        assertEquals(new GemstoneValue(GemstoneType.EMERALD, 1.5, 200, 0.75), value);
+        assertEquals(value, GemstoneValue.of(emerald));
+        assertTrue(value.matches(emerald));
+        assertFalse(value.matches(new Emerald(1.5, 201, 0.75)));
+        assertFalse(value.matches(new Diamond(1.5, 200, 0.75)));
+        assertFalse(value.matches(null));
+
+        Gemstone gemstone = value.toGemstone();
+        assertEquals(emerald, gemstone);
+        assertNotSame(emerald, gemstone);
+
+        emerald.setPrice(300);
+        assertEquals(200, value.price());
+    }
+
+    @Test
+    public void myListTest() {
+        MyList list = new MyList(new Agate(1, 1, 1));
+        GemstoneValue value = new GemstoneValue(GemstoneType.LAZURITE, 2, 2, 0);
+        list.add(value.toGemstone());
+        list.add(value.withPrice(3).toGemstone());
+
+        assertEquals(1, list.indexOf(value.toGemstone()));
+        assertTrue(list.removeIf(value::matches));
+        assertArrayEquals(new Gemstone[] {new Agate(1, 1, 1), new Lazurite(2, 3, 0)}, list.toArray());
+    }
+}
@@ -0,0 +1,85 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedGemstoneListTests {
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void roundTripTest() throws IOException {
+        MyList list = new MyList();
+        list.add(new Agate(1, 2, 0.5));
+        list.add(new Diamond(3, 4, 1));
+        for (int i = 0; i < 100; ++i) {
+            list.add(new Opal(i + 1, 10, 0.25));
+        }
+
+        Path path = directory.resolve("inventory.gems");
+        MappedGemstoneList.write(path, list);
+
+        try (MappedGemstoneList mapped = MappedGemstoneList.open(path)) {
+            assertEquals(list.size(), mapped.size());
+            assertEquals(new ArrayList<>(list), mapped);
+            assertEquals(GemstoneType.DIAMOND, mapped.typeAt(1));
+            assertEquals(4, mapped.priceAt(1));
+            assertEquals(100, mapped.weightAt(101));
+            assertEquals(0.25, mapped.transparencyAt(101));
+            assertThrows(UnsupportedOperationException.class, () -> {mapped.add(new Rubin(1, 1, 1));});
+        }
+    }
+
+    @Test
+    public void emptyListTest() throws IOException {
+        Path path = directory.resolve("empty.gems");
+        MappedGemstoneList.write(path, List.<Gemstone>of());
+
+        try (MappedGemstoneList mapped = MappedGemstoneList.open(path)) {
+            assertTrue(mapped.isEmpty());
+        }
+    }
+
+    @Test
+    public void failedWriteTest() throws IOException {
+        Path path = directory.resolve("inventory.gems");
+        MappedGemstoneList.write(path, List.of(new Agate(1, 2, 0.5)));
+
+        List<Gemstone> gemstones = new ArrayList<>();
+        for (int i = 0; i < 1_000; ++i) {
+            gemstones.add(i == 500 ? null : new Opal(i + 1, 10, 0.25));
+        }
+        assertThrows(NullPointerException.class, () -> {MappedGemstoneList.write(path, gemstones);});
+
+        try (MappedGemstoneList mapped = MappedGemstoneList.open(path)) {
+            assertEquals(List.of(new Agate(1, 2, 0.5)), mapped);
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    public void invalidFileTest() throws IOException {
+        Path path = directory.resolve("invalid.gems");
+        Files.write(path, new byte[]{1, 2, 3});
+        Exception exception = assertThrows(IOException.class, () -> {MappedGemstoneList.open(path);});
+        assertTrue(exception.getMessage().startsWith("Not a gemstone inventory file"));
+
+        MappedGemstoneList.write(path, List.of(new Emerald(1, 1, 1), new Emerald(2, 2, 1)));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        exception = assertThrows(IOException.class, () -> {MappedGemstoneList.open(path);});
+        assertTrue(exception.getMessage().startsWith("Truncated inventory file"));
+    }
+}
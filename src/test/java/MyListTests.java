@@ -4,9 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Spliterator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -103,6 +106,87 @@ public class MyListTests {
         assertEquals(expected, collectionConstructorList.subList(1, 3));
     }
 
+    @Test
+    public void subListViewTest() {
+        MyList list = new MyList();
+        for (int i = 1; i <= 10; ++i) {
+            list.add(new Opal(i, i, 1));
+        }
+        list.set(5, null);
+
+        List<Gemstone> view = list.subList(2, 8);
+        assertEquals(6, view.size());
+        assertNull(view.get(3));
+        view.set(0, agate);
+        assertSame(agate, list.get(2));
+        list.set(7, diamond);
+        assertSame(diamond, view.get(5));
+
+        view.add(1, lazurite);
+        assertEquals(11, list.size());
+        assertEquals(7, view.size());
+        assertSame(lazurite, list.get(3));
+        assertEquals(new Opal(4, 4, 1), view.remove(2));
+
+        List<Gemstone> nested = view.subList(1, 3);
+        nested.clear();
+        assertEquals(0, nested.size());
+        assertEquals(4, view.size());
+        assertArrayEquals(new Gemstone[] {new Opal(1, 1, 1), new Opal(2, 2, 1), agate, null, new Opal(7, 7, 1),
+                diamond, new Opal(9, 9, 1), new Opal(10, 10, 1)}, list.toArray());
+
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {view.get(4);});
+        assertEquals("Index out of range", exception.getMessage());
+        assertThrows(IndexOutOfBoundsException.class, () -> {view.subList(0, 5);});
+
+        list.add(agate);
+        assertThrows(ConcurrentModificationException.class, () -> {view.size();});
+        assertThrows(ConcurrentModificationException.class, () -> {nested.add(agate);});
+    }
+
+    @Test
+    public void subListRangeOperationsTest() {
+        MyList list = new MyList();
+        for (int i = 10; i >= 1; --i) {
+            list.add(new Agate(i, 1, 1));
+        }
+
+        List<Gemstone> view = list.subList(3, 7);
+        view.sort(Comparator.comparingDouble(Gemstone::getWeight));
+        assertEquals(List.of(new Agate(4, 1, 1), new Agate(5, 1, 1), new Agate(6, 1, 1), new Agate(7, 1, 1)), view);
+        assertEquals(new Agate(8, 1, 1), list.get(2));
+        assertEquals(new Agate(3, 1, 1), list.get(7));
+
+        assertTrue(view.removeIf(gemstone -> gemstone.getWeight() % 2 == 0));
+        assertEquals(List.of(new Agate(5, 1, 1), new Agate(7, 1, 1)), view);
+        assertEquals(8, list.size());
+        assertTrue(view.retainAll(List.of(new Agate(7, 1, 1))));
+        assertTrue(view.addAll(0, List.of(new Opal(1, 1, 1), new Opal(2, 2, 1))));
+        assertEquals(List.of(new Opal(1, 1, 1), new Opal(2, 2, 1), new Agate(7, 1, 1)), view);
+        assertEquals(9, list.size());
+        assertEquals(new Agate(3, 1, 1), list.get(6));
+
+        list.subList(0, list.size()).clear();
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void subListGapBufferTest() {
+        MyList list = new MyList();
+        list.setGapBufferMode(true);
+        for (int i = 1; i <= 6; ++i) {
+            list.add(new Agate(i, 1, 1));
+        }
+
+        List<Gemstone> view = list.subList(1, 5);
+        view.add(2, diamond);
+        view.remove(0);
+        assertEquals(List.of(new Agate(3, 1, 1), diamond, new Agate(4, 1, 1), new Agate(5, 1, 1)), view);
+        view.subList(1, 3).clear();
+        assertArrayEquals(new Gemstone[] {new Agate(1, 1, 1), new Agate(3, 1, 1), new Agate(5, 1, 1), new Agate(6, 1, 1)},
+                list.toArray());
+    }
+
     @Test
     public void addAllTest1() {
         Emerald emerald = new Emerald(1, 1, 1);
@@ -184,6 +268,43 @@ public class MyListTests {
         assertTrue(collectionConstructorList.contains(diamond));
     }
 
+    @Test
+    public void removeAllTest3() {
+        List<Gemstone> elementsToRemove = new ArrayList<>();
+        for (int i = 0; i < 40; ++i) {
+            collectionConstructorList.add(new Opal(1, i % 4 + 1, 1));
+            elementsToRemove.add(new Rubin(1, i + 1, 1));
+        }
+        elementsToRemove.add(new Opal(1, 2, 1));
+        elementsToRemove.add(agate);
+
+        assertTrue(collectionConstructorList.removeAll(elementsToRemove));
+        assertEquals(31, collectionConstructorList.size());
+        assertEquals(diamond, collectionConstructorList.get(0));
+        assertFalse(collectionConstructorList.contains(new Opal(1, 2, 1)));
+        assertTrue(collectionConstructorList.contains(new Opal(1, 3, 1)));
+    }
+
+    @Test
+    public void removeIfTest() {
+        collectionConstructorList.add(lazurite);
+        collectionConstructorList.add(new Opal(2, 1, 1));
+
+        assertTrue(collectionConstructorList.removeIf(gemstone -> gemstone.getWeight() == 1 && gemstone != diamond));
+        assertArrayEquals(new Gemstone[]{diamond, new Opal(2, 1, 1)}, collectionConstructorList.toArray());
+        assertFalse(collectionConstructorList.removeIf(gemstone -> gemstone.getPrice() > 1));
+
+        assertThrows(IllegalStateException.class, () -> {
+            collectionConstructorList.removeIf(gemstone -> {
+                if (gemstone != diamond) {
+                    throw new IllegalStateException();
+                }
+                return true;
+            });
+        });
+        assertArrayEquals(new Gemstone[]{new Opal(2, 1, 1)}, collectionConstructorList.toArray());
+    }
+
     @Test
     public void containsAllTest() {
         List<Gemstone> elementsToCheck = new ArrayList<>();
@@ -229,6 +350,59 @@ public class MyListTests {
         assertFalse(collectionConstructorList.contains(diamond));
     }
 
+    @Test
+    public void clearRetainingCapacityTest() {
+        collectionConstructorList.ensureCapacity(100);
+        collectionConstructorList.clear(true);
+        assertTrue(collectionConstructorList.isEmpty());
+        assertEquals(100, collectionConstructorList.capacity());
+        assertFalse(collectionConstructorList.contains(agate));
+
+        collectionConstructorList.clear();
+        assertEquals(15, collectionConstructorList.capacity());
+    }
+
+    @Test
+    public void capacityTest() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {new MyList(-1);});
+        assertEquals("Invalid capacity", exception.getMessage());
+
+        MyList list = new MyList(0);
+        assertEquals(0, list.capacity());
+        list.add(agate);
+        list.add(diamond);
+        assertEquals(2, list.size());
+
+        list.ensureCapacity(1000);
+        assertEquals(1000, list.capacity());
+        assertEquals(agate, list.get(0));
+        assertEquals(diamond, list.get(1));
+
+        list.trimToSize();
+        assertEquals(2, list.capacity());
+        list.add(lazurite);
+        assertArrayEquals(new Gemstone[]{agate, diamond, lazurite}, list.toArray());
+    }
+
+    @Test
+    public void growthPolicyTest() {
+        MyList doubling = new MyList(4, GrowthPolicy.DOUBLING);
+        for (int i = 0; i < 5; ++i) {
+            doubling.add(agate);
+        }
+        assertEquals(8, doubling.capacity());
+
+        MyList chunked = new MyList(0, GrowthPolicy.chunked(10));
+        chunked.add(agate);
+        assertEquals(10, chunked.capacity());
+        chunked.addAll(List.of(diamond, diamond, diamond, diamond, diamond, diamond, diamond, diamond, diamond, diamond));
+        assertEquals(20, chunked.capacity());
+        assertEquals(11, chunked.size());
+
+        assertThrows(IllegalArgumentException.class, () -> {GrowthPolicy.factor(1);});
+        assertThrows(IllegalArgumentException.class, () -> {GrowthPolicy.chunked(0);});
+    }
+
     @Test
     public void getTest() {
         Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {collectionConstructorList.get(-1);});
@@ -267,6 +441,101 @@ public class MyListTests {
         assertEquals("Index: 3, Size: 2", exception.getMessage());
     }
 
+    @Test
+    public void addAtIndexTest() {
+        Emerald emerald = new Emerald(1, 1, 1);
+        collectionConstructorList.add(1, lazurite);
+        collectionConstructorList.add(0, emerald);
+        collectionConstructorList.add(4, lazurite);
+
+        Gemstone[] expected = {emerald, agate, lazurite, diamond, lazurite};
+        assertArrayEquals(expected, collectionConstructorList.toArray());
+    }
+
+    @Test
+    public void gapBufferModeTest() {
+        List<Gemstone> expected = new ArrayList<>(collectionConstructorList);
+        collectionConstructorList.setGapBufferMode(true);
+        assertTrue(collectionConstructorList.isGapBufferMode());
+
+        ListIterator<Gemstone> iterator = collectionConstructorList.listIterator(1);
+        ListIterator<Gemstone> expectedIterator = expected.listIterator(1);
+        for (int i = 0; i < 40; ++i) {
+            Gemstone gemstone = new Opal(1, i + 1, 1);
+            iterator.add(gemstone);
+            expectedIterator.add(gemstone);
+        }
+        assertEquals(expected.size(), collectionConstructorList.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), collectionConstructorList.get(i));
+        }
+
+        collectionConstructorList.remove(5);
+        expected.remove(5);
+        collectionConstructorList.remove(30);
+        expected.remove(30);
+        collectionConstructorList.add(10, agate);
+        expected.add(10, agate);
+        collectionConstructorList.set(2, diamond);
+        expected.set(2, diamond);
+
+        assertEquals(expected, new ArrayList<>(collectionConstructorList));
+        assertArrayEquals(expected.toArray(), collectionConstructorList.toArray());
+
+        collectionConstructorList.setGapBufferMode(false);
+        assertFalse(collectionConstructorList.isGapBufferMode());
+        assertArrayEquals(expected.toArray(), collectionConstructorList.toArray());
+    }
+
+    @Test
+    public void hashCodeTest() {
+        assertEquals(new Agate(1, 2, 0).hashCode(), new Agate(1, 2, -0.0).hashCode());
+        assertEquals(agate.hashCode(), new Agate(1, 1, 1).hashCode());
+        assertNotEquals(agate.hashCode(), new Agate(2, 1, 1).hashCode());
+    }
+
+    @Test
+    public void hashIndexModeTest() {
+        List<Gemstone> expected = new ArrayList<>(collectionConstructorList);
+        collectionConstructorList.setGapBufferMode(true);
+        collectionConstructorList.setHashIndexMode(true);
+        assertTrue(collectionConstructorList.isHashIndexMode());
+
+        for (int i = 0; i < 30; ++i) {
+            Gemstone gemstone = new Opal(1, i % 7 + 1, 1);
+            collectionConstructorList.add(gemstone);
+            expected.add(gemstone);
+        }
+        assertEquals(expected.indexOf(new Opal(1, 3, 1)), collectionConstructorList.indexOf(new Opal(1, 3, 1)));
+
+        collectionConstructorList.add(1, new Opal(1, 3, 1));
+        expected.add(1, new Opal(1, 3, 1));
+        collectionConstructorList.remove(0);
+        expected.remove(0);
+        collectionConstructorList.set(5, lazurite);
+        expected.set(5, lazurite);
+        collectionConstructorList.addAll(3, List.of(agate, agate));
+        expected.addAll(3, List.of(agate, agate));
+        assertTrue(collectionConstructorList.remove(new Opal(1, 2, 1)));
+        expected.remove(new Opal(1, 2, 1));
+
+        for (int i = 0; i < 9; ++i) {
+            Gemstone gemstone = new Opal(1, i + 1, 1);
+            assertEquals(expected.contains(gemstone), collectionConstructorList.contains(gemstone));
+            assertEquals(expected.indexOf(gemstone), collectionConstructorList.indexOf(gemstone));
+            assertEquals(expected.lastIndexOf(gemstone), collectionConstructorList.lastIndexOf(gemstone));
+        }
+        assertEquals(expected.indexOf(agate), collectionConstructorList.indexOf(agate));
+        assertTrue(collectionConstructorList.contains(diamond));
+        assertFalse(collectionConstructorList.contains(new Rubin(1, 1, 1)));
+        assertArrayEquals(expected.toArray(), collectionConstructorList.toArray());
+
+        collectionConstructorList.clear();
+        assertFalse(collectionConstructorList.contains(lazurite));
+        collectionConstructorList.setHashIndexMode(false);
+        assertFalse(collectionConstructorList.isHashIndexMode());
+    }
+
     @Test
     public void indexOfTest() {
         assertEquals(0, collectionConstructorList.indexOf(agate));
@@ -313,6 +582,115 @@ public class MyListTests {
         assertEquals(0, iterator.previousIndex());
     }
 
+    @Test
+    public void spliteratorTest() {
+        MyList list = new MyList();
+        double expectedTotal = 0;
+        for (int i = 0; i < 1000; ++i) {
+            list.add(new Opal(1, i + 1, 1));
+            expectedTotal += i + 1;
+        }
+
+        Spliterator<Gemstone> spliterator = list.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Gemstone> prefix = spliterator.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(500, spliterator.estimateSize());
+
+        assertEquals(expectedTotal, list.parallelStream().mapToDouble(Gemstone::getPrice).sum());
+        assertEquals(List.copyOf(list), list.parallelStream().toList());
+    }
+
+    @Test
+    public void bulkOperationsTest() {
+        collectionConstructorList.add(lazurite);
+        List<Gemstone> visited = new ArrayList<>();
+        collectionConstructorList.forEach(visited::add);
+        assertEquals(List.of(agate, diamond, lazurite), visited);
+
+        collectionConstructorList.replaceAll(gemstone -> new Opal(gemstone.getWeight(), 3 - visited.indexOf(gemstone), 1));
+        collectionConstructorList.sort(Comparator.comparingDouble(Gemstone::getPrice));
+        assertArrayEquals(new Gemstone[]{new Opal(1, 1, 1), new Opal(1, 2, 1), new Opal(1, 3, 1)}, collectionConstructorList.toArray());
+    }
+
+    @Test
+    public void failFastIteratorTest() {
+        Iterator<Gemstone> iterator = collectionConstructorList.iterator();
+        iterator.next();
+        collectionConstructorList.add(lazurite);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        ListIterator<Gemstone> listIterator = collectionConstructorList.listIterator();
+        listIterator.next();
+        listIterator.add(lazurite);
+        assertEquals(diamond, listIterator.next());
+        listIterator.remove();
+        assertArrayEquals(new Gemstone[]{agate, lazurite, lazurite}, collectionConstructorList.toArray());
+        collectionConstructorList.remove(0);
+        assertThrows(ConcurrentModificationException.class, listIterator::previous);
+
+        assertThrows(ConcurrentModificationException.class, () -> {
+            collectionConstructorList.forEach(gemstone -> collectionConstructorList.add(gemstone));
+        });
+    }
+
+    @Test
+    public void snapshotIterationModeTest() {
+        collectionConstructorList.setSnapshotIterationMode(true);
+        assertTrue(collectionConstructorList.isSnapshotIterationMode());
+
+        Iterator<Gemstone> iterator = collectionConstructorList.iterator();
+        collectionConstructorList.add(lazurite);
+        collectionConstructorList.set(0, lazurite);
+        collectionConstructorList.remove(1);
+        assertEquals(agate, iterator.next());
+        assertEquals(diamond, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+
+        for (Gemstone gemstone : collectionConstructorList) {
+            collectionConstructorList.add(gemstone);
+        }
+        assertArrayEquals(new Gemstone[]{lazurite, lazurite, lazurite, lazurite}, collectionConstructorList.toArray());
+    }
+
+    @Test
+    public void interningModeTest() {
+        GemstoneInterner interner = new GemstoneInterner();
+        collectionConstructorList.add(new Agate(1, 1, 1));
+        collectionConstructorList.setInterner(interner);
+        assertTrue(collectionConstructorList.isInterningMode());
+        assertSame(agate, collectionConstructorList.get(2));
+
+        collectionConstructorList.add(new Diamond(1, 1, 1));
+        collectionConstructorList.addAll(List.of(new Diamond(1, 1, 1), new Emerald(1, 1, 1)));
+        collectionConstructorList.set(2, new Diamond(1, 1, 1));
+        assertSame(diamond, collectionConstructorList.get(2));
+        assertSame(diamond, collectionConstructorList.get(3));
+        assertSame(diamond, collectionConstructorList.get(4));
+        assertEquals(4, interner.deduplicated());
+
+        assertTrue(collectionConstructorList.contains(new Emerald(1, 1, 1)));
+        assertEquals(5, collectionConstructorList.indexOf(new Emerald(1, 1, 1)));
+        assertFalse(collectionConstructorList.contains(new Opal(1, 1, 1)));
+        assertEquals(-1, collectionConstructorList.indexOf(new Opal(1, 1, 1)));
+
+        collectionConstructorList.replaceAll(g -> new Rubin(2, 2, 0.5));
+        assertTrue(collectionConstructorList.contains(new Rubin(2, 2, 0.5)));
+        assertEquals(0, collectionConstructorList.indexOf(new Rubin(2, 2, 0.5)));
+        assertSame(collectionConstructorList.get(0), collectionConstructorList.get(5));
+        assertFalse(collectionConstructorList.contains(null));
+        collectionConstructorList.add(null);
+        assertTrue(collectionConstructorList.contains(null));
+        assertEquals(6, collectionConstructorList.indexOf(null));
+        collectionConstructorList.remove(6);
+
+        collectionConstructorList.setInterningMode(false);
+        assertFalse(collectionConstructorList.isInterningMode());
+        collectionConstructorList.add(new Agate(1, 1, 1));
+        assertNotSame(agate, collectionConstructorList.get(6));
+    }
+
     @Test
     public void listIteratorTest2() {
         collectionConstructorList.listIterator();
@@ -0,0 +1,93 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.imp.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapGemstoneListTests {
+    private OffHeapGemstoneList list;
+    private Agate agate;
+    private Diamond diamond;
+
+    @BeforeEach
+    public void setUp() {
+        agate = new Agate(1, 2, 0.5);
+        diamond = new Diamond(3, 4, 1);
+
+        list = new OffHeapGemstoneList(1);
+        list.add(agate);
+        list.add(diamond);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        list.close();
+    }
+
+    @Test
+    public void recordLayoutTest() {
+        assertEquals(25, OffHeapGemstoneList.RECORD.byteSize());
+    }
+
+    @Test
+    public void accessorsTest() {
+        assertEquals(2, list.size());
+        assertEquals(agate, list.get(0));
+        assertEquals(diamond, list.get(1));
+        assertEquals(3, list.weightAt(1));
+        assertEquals(2, list.priceAt(0));
+        assertEquals(0.5, list.transparencyAt(0));
+        assertEquals(GemstoneType.DIAMOND, list.typeAt(1));
+
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {list.get(2);});
+        assertEquals("Index out of range", exception.getMessage());
+    }
+
+    @Test
+    public void modificationTest() {
+        List<Gemstone> expected = new ArrayList<>(List.of(agate, diamond));
+        for (int i = 0; i < 100; ++i) {
+            Gemstone gemstone = new Rubin(1, i + 1, 0.3);
+            list.add(i % 3, gemstone);
+            expected.add(i % 3, gemstone);
+        }
+        assertEquals(expected, list);
+
+        assertEquals(expected.remove(50), list.remove(50));
+        assertEquals(expected.set(7, new Opal(2, 2, 0)), list.set(7, new Opal(2, 2, 0)));
+        assertEquals(expected, list);
+
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void multiThreadedReadTest() throws Exception {
+        double expected = agate.getPrice() + diamond.getPrice();
+        for (int i = 1; i <= 20_000; ++i) {
+            list.add(new Opal(1, i, 0.5));
+            expected += i;
+        }
+
+        FutureTask<Double> task = new FutureTask<>(() -> list.stream().mapToDouble(Gemstone::getPrice).sum());
+        Thread thread = new Thread(task);
+        thread.start();
+        assertEquals(expected, task.get().doubleValue());
+        assertEquals(expected, list.parallelStream().mapToDouble(Gemstone::getPrice).sum());
+        assertEquals(20_000, list.parallelStream().filter(gemstone -> gemstone instanceof Opal).count());
+    }
+
+    @Test
+    public void closeTest() {
+        list.close();
+        assertThrows(IllegalStateException.class, () -> {list.get(0);});
+        list.close();
+    }
+}
@@ -0,0 +1,139 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.PreciousGemstone;
+import gemstones.SemiPreciousGemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedGemstoneListTests {
+    private PartitionedGemstoneList list;
+
+    @BeforeEach
+    public void setUp() {
+        list = new PartitionedGemstoneList(List.of(
+                new Diamond(1, 1, 1), new Opal(1, 2, 1), new Diamond(1, 3, 1),
+                new Agate(1, 4, 1), new Rubin(1, 5, 1)));
+    }
+
+    @Test
+    public void iterationOrderTest() {
+        assertEquals(List.of(new Agate(1, 4, 1), new Diamond(1, 1, 1), new Diamond(1, 3, 1),
+                new Opal(1, 2, 1), new Rubin(1, 5, 1)), new ArrayList<>(list));
+        assertEquals(5, list.size());
+        list.add(new Agate(1, 6, 1));
+        assertEquals(new Agate(1, 6, 1), new ArrayList<>(list).get(1));
+        assertThrows(NullPointerException.class, () -> {list.add(null);});
+    }
+
+    @Test
+    public void countOfTest() {
+        assertEquals(2, list.countOf(Diamond.class));
+        assertEquals(0, list.countOf(Emerald.class));
+        assertEquals(3, list.countOf(PreciousGemstone.class));
+        assertEquals(2, list.countOf(SemiPreciousGemstone.class));
+        assertEquals(5, list.countOf(Gemstone.class));
+
+        list.remove(new Diamond(1, 3, 1));
+        list.remove(new Agate(1, 4, 1));
+        list.add(new Emerald(1, 1, 1));
+        assertEquals(1, list.countOf(Diamond.class));
+        assertEquals(1, list.countOf(Emerald.class));
+        assertEquals(3, list.countOf(PreciousGemstone.class));
+        assertEquals(1, list.countOf(SemiPreciousGemstone.class));
+
+        list.removeIf(gemstone -> gemstone.getPrice() < 3);
+        assertEquals(1, list.countOf(PreciousGemstone.class));
+        assertEquals(0, list.countOf(SemiPreciousGemstone.class));
+        assertEquals(List.of(new Rubin(1, 5, 1)), new ArrayList<>(list));
+    }
+
+    @Test
+    public void ofTypeTest() {
+        List<Diamond> diamonds = list.ofType(Diamond.class);
+        assertEquals(List.of(new Diamond(1, 1, 1), new Diamond(1, 3, 1)), diamonds);
+        List<PreciousGemstone> precious = list.ofType(PreciousGemstone.class);
+        assertEquals(List.of(new Diamond(1, 1, 1), new Diamond(1, 3, 1), new Rubin(1, 5, 1)), precious);
+        assertEquals(new Rubin(1, 5, 1), precious.get(2));
+
+        list.add(new Diamond(1, 7, 1));
+        assertEquals(3, diamonds.size());
+        assertThrows(UnsupportedOperationException.class, () -> {diamonds.add(new Diamond(1, 1, 1));});
+    }
+
+    @Test
+    public void partitionTest() {
+        List<Gemstone> diamonds = list.partition(GemstoneType.DIAMOND);
+        assertEquals(new Diamond(1, 1, 1), diamonds.set(0, new Diamond(2, 2, 1)));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {diamonds.set(0, new Opal(1, 1, 1));});
+        assertEquals("Gemstone type mismatch", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> {diamonds.add(new Rubin(1, 1, 1));});
+
+        diamonds.add(0, new Diamond(1, 9, 1));
+        diamonds.sort(Comparator.comparingDouble(Gemstone::getPrice));
+        assertEquals(List.of(new Diamond(2, 2, 1), new Diamond(1, 3, 1), new Diamond(1, 9, 1)), diamonds);
+        assertEquals(3, list.countOf(Diamond.class));
+        assertEquals(4, list.countOf(PreciousGemstone.class));
+        diamonds.remove(2);
+        diamonds.subList(0, 1).clear();
+        assertEquals(List.of(new Diamond(1, 3, 1)), list.ofType(Diamond.class));
+        assertEquals(4, list.size());
+    }
+
+    @Test
+    public void partitionIteratorTest() {
+        List<Gemstone> diamonds = list.partition(GemstoneType.DIAMOND);
+        Iterator<Gemstone> iterator = diamonds.iterator();
+        iterator.next();
+        list.add(new Diamond(1, 7, 1));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        ListIterator<Gemstone> listIterator = diamonds.listIterator();
+        listIterator.next();
+        list.partition(GemstoneType.DIAMOND).remove(2);
+        assertThrows(ConcurrentModificationException.class, listIterator::next);
+
+        listIterator = diamonds.listIterator(1);
+        listIterator.add(new Diamond(1, 5, 1));
+        ListIterator<Gemstone> checked = listIterator;
+        assertThrows(IllegalArgumentException.class, () -> {checked.set(new Opal(1, 1, 1));});
+        assertThrows(IllegalArgumentException.class, () -> {checked.add(new Opal(1, 1, 1));});
+        assertEquals(List.of(new Diamond(1, 1, 1), new Diamond(1, 5, 1), new Diamond(1, 3, 1)), diamonds);
+
+        List<Gemstone> range = diamonds.subList(1, 3);
+        assertThrows(IllegalArgumentException.class, () -> {range.add(new Opal(1, 1, 1));});
+        Iterator<Gemstone> rangeIterator = range.iterator();
+        rangeIterator.next();
+        list.remove(new Diamond(1, 1, 1));
+        assertThrows(ConcurrentModificationException.class, rangeIterator::next);
+    }
+
+    @Test
+    public void iteratorTest() {
+        assertTrue(list.contains(new Opal(1, 2, 1)));
+        assertFalse(list.contains(new Emerald(1, 2, 1)));
+        assertTrue(list.removeAll(List.of(new Opal(1, 2, 1), new Agate(1, 4, 1))));
+        assertEquals(0, list.countOf(SemiPreciousGemstone.class));
+
+        Iterator<Gemstone> iterator = list.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(2, list.size());
+        list.add(new Opal(1, 1, 1));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        Iterator<Gemstone> partitionChanged = list.iterator();
+        partitionChanged.next();
+        list.partition(GemstoneType.RUBIN).add(new Rubin(1, 1, 1));
+        assertThrows(ConcurrentModificationException.class, partitionChanged::next);
+    }
+}
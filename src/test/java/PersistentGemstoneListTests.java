@@ -0,0 +1,129 @@
+import gemstones.Gemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentGemstoneListTests {
+    private PersistentGemstoneList list;
+    private List<Gemstone> expected;
+
+    @BeforeEach
+    public void setUp() {
+        expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            expected.add(new Opal(1, i + 1, 1));
+        }
+        list = new PersistentGemstoneList(expected);
+    }
+
+    @Test
+    public void modificationTest() {
+        list.add(0, new Agate(1, 1, 1));
+        expected.add(0, new Agate(1, 1, 1));
+        list.add(new Diamond(1, 1, 1));
+        expected.add(new Diamond(1, 1, 1));
+        assertEquals(expected.remove(50), list.remove(50));
+        assertEquals(expected.set(20, new Rubin(1, 1, 1)), list.set(20, new Rubin(1, 1, 1)));
+        list.addAll(30, List.of(new Emerald(1, 1, 1), new Emerald(1, 2, 1)));
+        expected.addAll(30, List.of(new Emerald(1, 1, 1), new Emerald(1, 2, 1)));
+        assertEquals(expected, list);
+        assertEquals(expected.size(), list.size());
+        assertEquals(expected.get(31), list.get(31));
+
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {list.get(list.size());});
+        assertEquals("Index out of range", exception.getMessage());
+        exception = assertThrows(IndexOutOfBoundsException.class, () -> {list.add(-1, new Opal(1, 1, 1));});
+        assertEquals("Index: -1, Size: 103", exception.getMessage());
+    }
+
+    @Test
+    public void snapshotTest() {
+        PersistentGemstoneList snapshot = list.snapshot();
+        assertTrue(snapshot.isSnapshot());
+        assertSame(snapshot, snapshot.snapshot());
+        Iterator<Gemstone> iterator = list.iterator();
+
+        list.remove(0);
+        list.set(0, new Agate(1, 1, 1));
+        list.add(new Diamond(1, 1, 1));
+        list.addAll(List.of(new Rubin(1, 1, 1)));
+
+        assertEquals(expected, snapshot);
+        assertEquals(expected.get(0), iterator.next());
+        assertEquals(new Agate(1, 1, 1), list.get(0));
+        assertEquals(101, list.size());
+
+        Exception exception = assertThrows(UnsupportedOperationException.class, () -> {snapshot.add(new Opal(1, 1, 1));});
+        assertEquals("Snapshot is read-only", exception.getMessage());
+        assertThrows(UnsupportedOperationException.class, snapshot::clear);
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(100, snapshot.size());
+    }
+
+    @Test
+    public void removalTest() {
+        PersistentGemstoneList snapshot = list.snapshot();
+        assertTrue(list.remove(new Opal(1, 5, 1)));
+        assertFalse(list.remove(new Diamond(1, 1, 1)));
+        expected.remove(new Opal(1, 5, 1));
+        assertEquals(expected, list);
+
+        assertTrue(list.removeIf(g -> g.getPrice() % 2 == 0));
+        assertFalse(list.removeIf(g -> g.getPrice() % 2 == 0));
+        expected.removeIf(g -> g.getPrice() % 2 == 0);
+        assertEquals(expected, list);
+
+        assertTrue(list.removeAll(List.of(new Opal(1, 1, 1), new Opal(1, 99, 1))));
+        expected.removeAll(List.of(new Opal(1, 1, 1), new Opal(1, 99, 1)));
+        assertEquals(expected, list);
+        assertTrue(list.retainAll(expected.subList(0, 10)));
+        assertEquals(expected.subList(0, 10), list);
+        assertEquals(3, list.indexOf(expected.get(3)));
+
+        assertEquals(100, snapshot.size());
+        assertThrows(UnsupportedOperationException.class, () -> {snapshot.remove(new Opal(1, 1, 1));});
+        assertThrows(UnsupportedOperationException.class, () -> {snapshot.removeIf(g -> true);});
+    }
+
+    @Test
+    public void randomEditTest() {
+        Random random = new Random(13);
+        PersistentGemstoneList snapshot = list.snapshot();
+        List<Gemstone> snapshotExpected = new ArrayList<>(expected);
+        for (int i = 0; i < 5_000; ++i) {
+            Gemstone gemstone = new Agate(1, i + 1, 1);
+            int operation = random.nextInt(10);
+            if (operation < 5 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                list.add(index, gemstone);
+                expected.add(index, gemstone);
+            } else if (operation < 8) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            } else if (operation == 8) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, gemstone), list.set(index, gemstone));
+            } else {
+                int index = random.nextInt(expected.size() + 1);
+                List<Gemstone> added = List.of(gemstone, new Emerald(1, i + 1, 1), new Rubin(1, i + 1, 1));
+                list.addAll(index, added);
+                expected.addAll(index, added);
+            }
+        }
+        assertEquals(expected, list);
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+        assertEquals(snapshotExpected, snapshot);
+    }
+}
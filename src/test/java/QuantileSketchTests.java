@@ -0,0 +1,105 @@
+import gemstones.Gemstone;
+import gemstones.GemstoneType;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantileSketchTests {
+
+    /**
+     * Returns the fraction of the sorted values that are not larger than the value.
+     */
+    private static double trueRank(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return (double) low / sorted.length;
+    }
+
+    @Test
+    public void smallSketchTest() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        for (int i = 1; i <= 100; ++i) {
+            sketch.update(i);
+        }
+        sketch.update(Double.NaN);
+
+        assertEquals(100, sketch.count());
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(99, sketch.quantile(0.99));
+        assertEquals(1, sketch.quantile(0));
+        assertEquals(100, sketch.quantile(1));
+        assertEquals(0.25, sketch.rank(25));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {sketch.quantile(-0.1);});
+        assertEquals("Invalid quantile", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> {new QuantileSketch(4);});
+    }
+
+    @Test
+    public void accuracyTest() {
+        SplittableRandom random = new SplittableRandom(11);
+        double[] values = new double[1_000_000];
+        QuantileSketch sketch = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = Math.exp(random.nextGaussian());
+            sketch.update(values[i]);
+            (i % 3 == 0 ? first : second).update(values[i]);
+        }
+        QuantileSketch merged = first.merge(second);
+        Arrays.sort(values);
+
+        assertEquals(values.length, merged.count());
+        assertEquals(values[0], merged.min());
+        assertEquals(values[values.length - 1], merged.max());
+        for (double q : new double[] {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            assertEquals(q, trueRank(values, sketch.quantile(q)), 0.02);
+            assertEquals(q, trueRank(values, merged.quantile(q)), 0.02);
+            assertEquals(trueRank(values, values[(int) (q * values.length)]), merged.rank(values[(int) (q * values.length)]), 0.02);
+        }
+    }
+
+    @Test
+    public void selfMergeTest() {
+        QuantileSketch sketch = new QuantileSketch(16);
+        for (int i = 1; i <= 1_000; ++i) {
+            sketch.update(i);
+        }
+        assertSame(sketch, sketch.merge(sketch));
+        assertEquals(2_000, sketch.count());
+        assertEquals(1, sketch.min());
+        assertEquals(1_000, sketch.max());
+        assertEquals(500, sketch.quantile(0.5), 100);
+    }
+
+    @Test
+    public void collectorTest() {
+        MyList list = new MyList();
+        for (int i = 1; i <= 1_000; ++i) {
+            list.add(new Diamond(2, i, 1));
+            list.add(new Opal(1, 10 * i, 1));
+        }
+
+        Map<GemstoneType, QuantileSketch> pricePerCarat = list.parallelStream().collect(Collectors.groupingBy(
+                GemstoneType::of, QuantileSketch.collector(gemstone -> gemstone.getPrice() / gemstone.getWeight())));
+        assertEquals(250, pricePerCarat.get(GemstoneType.DIAMOND).quantile(0.5), 10);
+        assertEquals(5_000, pricePerCarat.get(GemstoneType.OPAL).quantile(0.5), 200);
+        assertEquals(1_000, pricePerCarat.get(GemstoneType.OPAL).count());
+    }
+}
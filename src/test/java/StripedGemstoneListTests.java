@@ -0,0 +1,190 @@
+import gemstones.Gemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedGemstoneListTests {
+    private StripedGemstoneList list;
+    private List<Gemstone> expected;
+
+    @BeforeEach
+    public void setUp() {
+        list = new StripedGemstoneList(4);
+        expected = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            list.add(new Opal(1, i + 1, 1));
+            expected.add(new Opal(1, i + 1, 1));
+        }
+    }
+
+    @Test
+    public void segmentSizeTest() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {new StripedGemstoneList(3);});
+        assertEquals("Invalid segment size", exception.getMessage());
+    }
+
+    @Test
+    public void modificationTest() {
+        list.add(0, new Agate(1, 1, 1));
+        expected.add(0, new Agate(1, 1, 1));
+        list.add(5, new Diamond(1, 1, 1));
+        expected.add(5, new Diamond(1, 1, 1));
+        list.add(12, new Rubin(1, 1, 1));
+        expected.add(12, new Rubin(1, 1, 1));
+        assertEquals(expected, list);
+
+        assertEquals(expected.remove(3), list.remove(3));
+        assertEquals(expected.remove(0), list.remove(0));
+        assertEquals(expected.set(7, new Emerald(1, 1, 1)), list.set(7, new Emerald(1, 1, 1)));
+        assertEquals(expected, list);
+        assertEquals(expected.size(), list.size());
+
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {list.get(list.size());});
+        assertEquals("Index out of range", exception.getMessage());
+        assertThrows(IndexOutOfBoundsException.class, () -> {list.add(list.size() + 1, new Opal(1, 1, 1));});
+        assertThrows(NullPointerException.class, () -> {list.add(null);});
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.add(new Opal(1, 1, 1));
+        assertEquals(List.of(new Opal(1, 1, 1)), list);
+    }
+
+    @Test
+    public void removalTest() {
+        list.add(new Opal(1, 3, 1));
+        assertEquals(2, list.indexOf(new Opal(1, 3, 1)));
+        assertEquals(10, list.lastIndexOf(new Opal(1, 3, 1)));
+        assertEquals(-1, list.indexOf(new Diamond(1, 3, 1)));
+        assertEquals(-1, list.lastIndexOf(null));
+
+        assertTrue(list.remove(new Opal(1, 3, 1)));
+        assertEquals(9, list.indexOf(new Opal(1, 3, 1)));
+        assertFalse(list.remove(new Diamond(1, 1, 1)));
+        assertFalse(list.remove(null));
+        assertTrue(list.removeIf(gemstone -> gemstone.getPrice() > 8));
+        assertFalse(list.removeIf(gemstone -> gemstone.getPrice() > 8));
+        assertTrue(list.removeAll(List.of(new Opal(1, 1, 1), new Opal(1, 3, 1))));
+        assertEquals(List.of(new Opal(1, 2, 1), new Opal(1, 4, 1), new Opal(1, 5, 1), new Opal(1, 6, 1),
+                new Opal(1, 7, 1), new Opal(1, 8, 1)), list);
+        assertTrue(list.retainAll(List.of(new Opal(1, 2, 1), new Opal(1, 6, 1))));
+        assertEquals(List.of(new Opal(1, 2, 1), new Opal(1, 6, 1)), list);
+        assertNotEquals(List.of(new Opal(1, 2, 1)), list);
+
+        StripedGemstoneList other = new StripedGemstoneList(List.of(new Diamond(1, 1, 1), new Agate(1, 1, 1)));
+        assertTrue(other.remove(new Diamond(1, 1, 1)));
+        assertEquals(List.of(new Agate(1, 1, 1)), other);
+        assertThrows(NullPointerException.class, () -> {other.removeIf(null);});
+    }
+
+    private static void runAll(List<Runnable> tasks) throws Throwable {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (Runnable task : tasks) {
+            Thread thread = new Thread(task);
+            thread.setUncaughtExceptionHandler((t, e) -> failures.add(e));
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            Throwable failure = failures.remove();
+            failures.forEach(failure::addSuppressed);
+            throw failure;
+        }
+    }
+
+    @Test
+    public void concurrentModificationTest() throws Throwable {
+        AtomicInteger added = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; ++t) {
+            int thread = t;
+            tasks.add(() -> {
+                for (int i = 0; i < 5_000; ++i) {
+                    if (i % 3 == 0) {
+                        list.add(thread % 4, new Agate(1, 1, 1));
+                        added.incrementAndGet();
+                    } else if (i % 3 == 1) {
+                        list.set(thread, new Rubin(1, 1, 1));
+                    } else {
+                        assertNotNull(list.get(i % 10));
+                    }
+                }
+                for (int i = 0; i < 1_000; ++i) {
+                    list.remove(0);
+                    added.decrementAndGet();
+                }
+            });
+        }
+        runAll(tasks);
+
+        assertEquals(10 + added.get(), list.size());
+        for (Gemstone gemstone : list) {
+            assertNotNull(gemstone);
+        }
+    }
+
+    @Test
+    public void concurrentIterationTest() throws Throwable {
+        for (int i = 0; i < 2_000; ++i) {
+            list.add(new Agate(1, i + 1, 1));
+        }
+        List<Runnable> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            while (list.size() > 0) {
+                list.remove(list.size() > 1 ? 1 : 0);
+            }
+        });
+        for (int t = 0; t < 3; ++t) {
+            tasks.add(() -> {
+                for (int round = 0; round < 50; ++round) {
+                    int count = 0;
+                    for (Iterator<Gemstone> iterator = list.iterator(); iterator.hasNext(); ++count) {
+                        assertNotNull(iterator.next());
+                    }
+                    assertTrue(count <= 2_010);
+                    assertTrue(list.stream().allMatch(gemstone -> gemstone != null));
+                    assertEquals(-1, list.indexOf(new Diamond(1, 1, 1)));
+                    assertEquals(-1, list.lastIndexOf(new Diamond(1, 1, 1)));
+                    assertFalse(list.equals(List.of(new Diamond(1, 1, 1), new Diamond(1, 1, 1))));
+                }
+            });
+        }
+        runAll(tasks);
+        assertTrue(list.isEmpty());
+        assertFalse(list.iterator().hasNext());
+    }
+
+    @Test
+    public void concurrentRemovalTest() throws Throwable {
+        list.clear();
+        for (int i = 0; i < 4_000; ++i) {
+            list.add(new Agate(1, i % 4 + 1, 1));
+        }
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < 3; ++t) {
+            int price = t + 1;
+            tasks.add(() -> assertTrue(list.removeIf(gemstone -> gemstone.getPrice() == price)));
+        }
+        tasks.add(() -> {
+            for (int i = 0; i < 500; ++i) {
+                assertTrue(list.remove(new Agate(1, 4, 1)));
+            }
+        });
+        runAll(tasks);
+        assertEquals(500, list.size());
+        assertTrue(list.stream().allMatch(gemstone -> gemstone.getPrice() == 4));
+    }
+}
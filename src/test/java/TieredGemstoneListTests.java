@@ -0,0 +1,100 @@
+import gemstones.Gemstone;
+import gemstones.imp.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TieredGemstoneListTests {
+
+    private static Gemstone gemstone(int i) {
+        return new Opal(i + 1, 1, 1);
+    }
+
+    @Test
+    public void appendTest() {
+        TieredGemstoneList list = new TieredGemstoneList(4);
+        for (int i = 0; i < 10; ++i) {
+            list.add(gemstone(i));
+        }
+
+        assertEquals(10, list.size());
+        assertEquals(12, list.capacity());
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(gemstone(i), list.get(i));
+        }
+        assertEquals(gemstone(3), list.set(3, null));
+        assertNull(list.get(3));
+
+        Exception exception = assertThrows(IndexOutOfBoundsException.class, () -> {list.get(10);});
+        assertEquals("Index out of range", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {new TieredGemstoneList(6);});
+        assertEquals("Invalid chunk size", exception.getMessage());
+    }
+
+    @Test
+    public void randomEditsTest() {
+        TieredGemstoneList list = new TieredGemstoneList(8);
+        List<Gemstone> expected = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int step = 0; step < 5_000; ++step) {
+            if (expected.isEmpty() || random.nextInt(5) < 3) {
+                int index = random.nextInt(expected.size() + 1);
+                list.add(index, gemstone(step));
+                expected.add(index, gemstone(step));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            }
+        }
+
+        assertEquals(expected, list);
+        List<Gemstone> visited = new ArrayList<>();
+        list.forEach(visited::add);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void rangeAndCapacityTest() {
+        TieredGemstoneList list = new TieredGemstoneList(4);
+        List<Gemstone> expected = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            expected.add(gemstone(i));
+        }
+        list.addAll(expected);
+        list.add(0, gemstone(100));
+        expected.add(0, gemstone(100));
+
+        list.subList(3, 15).clear();
+        expected.subList(3, 15).clear();
+        assertEquals(expected, list);
+        assertEquals(24, list.capacity());
+
+        list.trimToSize();
+        assertEquals(12, list.capacity());
+        list.ensureCapacity(30);
+        assertEquals(32, list.capacity());
+        assertEquals(expected, list);
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.capacity());
+        list.add(gemstone(0));
+        assertEquals(List.of(gemstone(0)), list);
+    }
+
+    @Test
+    public void failFastTest() {
+        TieredGemstoneList list = new TieredGemstoneList(List.of(gemstone(0), gemstone(1)));
+        Iterator<Gemstone> iterator = list.iterator();
+        iterator.next();
+        list.add(0, gemstone(2));
+        assertThrows(ConcurrentModificationException.class, () -> {iterator.next();});
+    }
+}